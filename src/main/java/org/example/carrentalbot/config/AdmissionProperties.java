@@ -0,0 +1,47 @@
+package org.example.carrentalbot.config;
+
+import org.example.carrentalbot.ingest.UpdateKind;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+/**
+ * Configuration properties for admission control of incoming Telegram updates.
+ * <p>Maps values from the application configuration with prefix
+ * {@code telegram.admission} into a strongly-typed record.</p>
+ *
+ * @param maxPendingUpdates maximum number of dispatched but unfinished updates before overflow
+ * @param overflowPolicy policy applied to updates arriving while the limit is reached
+ * @param spillCapacity maximum number of updates held in the local spill queue
+ * @param lowPriorityKinds update kinds dropped under the {@link OverflowPolicy#SHED} policy
+ * @param retryAfterSeconds value of the {@code Retry-After} header on rejected updates
+ */
+@ConfigurationProperties(prefix = "telegram.admission")
+public record AdmissionProperties(@DefaultValue("500") int maxPendingUpdates,
+                                  @DefaultValue("REJECT") OverflowPolicy overflowPolicy,
+                                  @DefaultValue("5000") int spillCapacity,
+                                  @DefaultValue({"TEXT", "OTHER"}) Set<UpdateKind> lowPriorityKinds,
+                                  @DefaultValue("5") int retryAfterSeconds) {
+
+    /**
+     * Handling of updates arriving while the processing pipeline is saturated.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Hold updates in a bounded local queue and dispatch them once capacity frees up.
+         */
+        SPILL,
+
+        /**
+         * Drop updates of low-priority kinds and reject the remaining ones.
+         */
+        SHED,
+
+        /**
+         * Reject updates with {@code 429 Too Many Requests} so Telegram redelivers them later.
+         */
+        REJECT
+    }
+}
@@ -2,7 +2,8 @@ package org.example.carrentalbot.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
 
 /**
  * Application-wide configuration class.
@@ -12,14 +13,20 @@ import org.springframework.web.client.RestTemplate;
 public class AppConfig {
 
     /**
-     * Provides a {@link RestTemplate} bean for performing synchronous HTTP requests.
-     * <p>This bean is used for communication with external APIs such as Telegram
-     * and other third-party services.</p>
+     * Provides the {@link HttpClient} shared by all calls to the Telegram Bot API.
+     * <p>The client keeps connections alive and reuses them across requests, so the
+     * TCP and TLS handshakes are paid once per connection rather than once per call.
+     * With HTTP/2 all requests share a single multiplexed connection. Requests are sent
+     * asynchronously, so waiting for a response does not hold an application thread.</p>
      *
-     * @return configured RestTemplate instance
+     * @param telegramHttpProperties HTTP version and connect timeout
+     * @return configured HTTP client
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpClient telegramHttpClient(TelegramHttpProperties telegramHttpProperties) {
+        return HttpClient.newBuilder()
+                .version(telegramHttpProperties.version())
+                .connectTimeout(telegramHttpProperties.connectTimeout())
+                .build();
     }
 }
@@ -17,7 +17,8 @@ import java.util.concurrent.Executor;
 /**
  * Configuration class for application asynchronous execution.
  * <p>Defines thread pool executors for different types of background tasks
- * such as Telegram processing and email sending.</p>
+ * such as Telegram processing and email sending, sized as configured in
+ * {@link AsyncProperties}.</p>
  * <p>Also integrates MDC (Mapped Diagnostic Context) propagation across threads
  * to preserve logging context in asynchronous execution.</p>
  */
@@ -28,6 +29,11 @@ public class AsyncConfig implements AsyncConfigurer {
     //Custom handler
     private final CustomAsyncExceptionHandler customAsyncExceptionHandler;
 
+    /**
+     * Executor settings bound from the application configuration.
+     */
+    private final AsyncProperties asyncProperties;
+
     /**
      * Task decorator responsible for propagating MDC context across threads.
      * <p>This ensures that logging context (such as request identifiers or thread names)
@@ -58,6 +64,26 @@ public class AsyncConfig implements AsyncConfigurer {
         }
     }
 
+    /**
+     * Creates a thread pool executor according to the given settings.
+     *
+     * @param settings executor settings
+     * @param threadNamePrefix prefix for the names of created threads
+     * @return configured {@link Executor}
+     */
+    private Executor createExecutor(AsyncProperties.ExecutorSettings settings, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(settings.corePoolSize());     // minimum threads always alive
+        executor.setMaxPoolSize(settings.maxPoolSize());       // maximum threads for bursts
+        executor.setQueueCapacity(settings.queueCapacity());   // pending tasks queue
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * Executor for Telegram-related asynchronous tasks.
      * <p>Used for processing bot updates, handling business logic, and database operations.
@@ -68,16 +94,7 @@ public class AsyncConfig implements AsyncConfigurer {
     @Bean(name = "telegramExecutor")
     @Primary
     public Executor telegramExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(10);     // minimum threads always alive
-        executor.setMaxPoolSize(50);      // maximum threads for bursts
-        executor.setQueueCapacity(500);   // pending updates queue
-        executor.setThreadNamePrefix("TelegramThread-");
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(30);
-        executor.setTaskDecorator(new MdcTaskDecorator());
-        executor.initialize();
-        return executor;
+        return createExecutor(asyncProperties.telegram(), "TelegramThread-");
     }
 
     /**
@@ -89,16 +106,7 @@ public class AsyncConfig implements AsyncConfigurer {
      */
     @Bean(name = "emailExecutor")
     public Executor emailExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);      // minimum threads always alive
-        executor.setMaxPoolSize(5);       // maximum threads for bursts
-        executor.setQueueCapacity(20);    // small queue for pending emails
-        executor.setThreadNamePrefix("EmailThread-");
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(30);
-        executor.setTaskDecorator(new MdcTaskDecorator());
-        executor.initialize();
-        return executor;
+        return createExecutor(asyncProperties.email(), "EmailThread-");
     }
 
     /**
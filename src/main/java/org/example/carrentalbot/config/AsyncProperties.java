@@ -0,0 +1,29 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for the application's asynchronous executors.
+ * <p>Maps values from the application configuration with prefix
+ * {@code async} into a strongly-typed record, with one settings block
+ * per executor.</p>
+ *
+ * @param telegram settings of the {@code telegramExecutor}
+ * @param email settings of the {@code emailExecutor}
+ */
+@ConfigurationProperties(prefix = "async")
+public record AsyncProperties(@DefaultValue ExecutorSettings telegram,
+                              @DefaultValue ExecutorSettings email) {
+
+    /**
+     * Settings of a single executor.
+     *
+     * @param corePoolSize minimum number of pooled threads
+     * @param maxPoolSize maximum number of pooled threads
+     * @param queueCapacity capacity of the pending task queue
+     */
+    public record ExecutorSettings(@DefaultValue("10") int corePoolSize,
+                                   @DefaultValue("50") int maxPoolSize,
+                                   @DefaultValue("500") int queueCapacity) {}
+}
@@ -0,0 +1,17 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for the date picker calendars.
+ * <p>Maps values from the application configuration with prefix
+ * {@code calendar} into a strongly-typed record.</p>
+ *
+ * @param cacheSize maximum number of built calendar keyboards kept for reuse
+ * @param availabilityAware whether the calendars shown after choosing a car mark the
+ *                          days that car is already booked; costs a query per calendar
+ */
+@ConfigurationProperties(prefix = "calendar")
+public record CalendarProperties(@DefaultValue("256") int cacheSize,
+                                 @DefaultValue("false") boolean availabilityAware) {}
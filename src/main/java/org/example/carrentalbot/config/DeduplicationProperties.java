@@ -0,0 +1,37 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for deduplication of redelivered Telegram updates.
+ * <p>Maps values from the application configuration with prefix
+ * {@code telegram.dedup} into a strongly-typed record.</p>
+ *
+ * @param mode where recently seen update ids are tracked
+ * @param windowSize number of most recent update ids remembered in {@link Mode#MEMORY} mode
+ * @param ttl how long an update id is remembered in {@link Mode#REDIS} mode
+ */
+@ConfigurationProperties(prefix = "telegram.dedup")
+public record DeduplicationProperties(@DefaultValue("MEMORY") Mode mode,
+                                      @DefaultValue("10000") int windowSize,
+                                      @DefaultValue("1h") Duration ttl) {
+
+    /**
+     * Storage of recently seen update ids.
+     */
+    public enum Mode {
+
+        /**
+         * Bounded in-process window; suitable for single-node deployments.
+         */
+        MEMORY,
+
+        /**
+         * Shared Redis keys with expiry; suitable for multi-node deployments.
+         */
+        REDIS
+    }
+}
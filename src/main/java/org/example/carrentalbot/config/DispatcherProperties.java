@@ -0,0 +1,14 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for dispatching incoming Telegram updates.
+ * <p>Maps values from the application configuration with prefix
+ * {@code telegram.dispatcher} into a strongly-typed record.</p>
+ *
+ * @param lanes number of per-chat serial lanes updates are striped across
+ */
+@ConfigurationProperties(prefix = "telegram.dispatcher")
+public record DispatcherProperties(@DefaultValue("64") int lanes) {}
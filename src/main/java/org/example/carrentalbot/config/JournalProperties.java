@@ -0,0 +1,19 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for the local ingestion journal of incoming Telegram updates.
+ * <p>Maps values from the application configuration with prefix
+ * {@code telegram.journal} into a strongly-typed record.</p>
+ *
+ * @param enabled whether accepted updates are journaled to local disk before acknowledging the webhook
+ * @param directory directory holding the journal segment files
+ * @param segmentSize size of a single memory-mapped segment file
+ */
+@ConfigurationProperties(prefix = "telegram.journal")
+public record JournalProperties(@DefaultValue("false") boolean enabled,
+                                @DefaultValue("data/journal") String directory,
+                                @DefaultValue("16MB") DataSize segmentSize) {}
@@ -0,0 +1,36 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for rate limiting outgoing Telegram messages.
+ * <p>Maps values from the application configuration with prefix
+ * {@code telegram.outbound} into a strongly-typed record.</p>
+ * <p>Telegram allows about 30 messages per second across all chats and about one
+ * message per second in a single chat; sending faster is answered with
+ * {@code 429 Too Many Requests}.</p>
+ *
+ * @param globalRate messages per second sent across all chats
+ * @param globalBurst messages that may be sent at once across all chats after a quiet period
+ * @param chatRate messages per second sent to a single chat
+ * @param chatBurst messages that may be sent at once to a single chat after a quiet period
+ * @param maxAttempts how often a message is sent when the Bot API cannot be reached
+ * @param maxThrottledAttempts how often a message is sent when Telegram answers with
+ *                             {@code 429 Too Many Requests}; each repetition waits for the
+ *                             {@code retry_after} Telegram sends
+ * @param retryDelay delay before sending again after the Bot API could not be reached, and
+ *                   after a {@code 429} without {@code retry_after}
+ * @param maxQueued maximum number of messages waiting to be sent; further messages are rejected
+ */
+@ConfigurationProperties(prefix = "telegram.outbound")
+public record OutboundProperties(@DefaultValue("30") double globalRate,
+                                 @DefaultValue("10") int globalBurst,
+                                 @DefaultValue("1") double chatRate,
+                                 @DefaultValue("3") int chatBurst,
+                                 @DefaultValue("4") int maxAttempts,
+                                 @DefaultValue("10") int maxThrottledAttempts,
+                                 @DefaultValue("2s") Duration retryDelay,
+                                 @DefaultValue("10000") int maxQueued) {}
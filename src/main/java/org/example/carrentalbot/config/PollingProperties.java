@@ -0,0 +1,24 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for receiving Telegram updates by long polling.
+ * <p>Maps values from the application configuration with prefix
+ * {@code telegram.polling} into a strongly-typed record.</p>
+ *
+ * @param enabled whether updates are fetched with {@code getUpdates} instead of being pushed to the webhook
+ * @param limit maximum number of updates fetched per request (1-100)
+ * @param timeout how long Telegram holds a {@code getUpdates} request open while no updates are available
+ * @param offsetFile file storing the offset of the next update to fetch across restarts
+ * @param errorBackoff delay before polling again after a failed request
+ */
+@ConfigurationProperties(prefix = "telegram.polling")
+public record PollingProperties(@DefaultValue("false") boolean enabled,
+                                @DefaultValue("100") int limit,
+                                @DefaultValue("50s") Duration timeout,
+                                @DefaultValue("data/polling.offset") String offsetFile,
+                                @DefaultValue("5s") Duration errorBackoff) {}
@@ -1,9 +1,11 @@
 package org.example.carrentalbot.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericToStringSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -48,4 +50,19 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Creates the container delivering Redis pub/sub messages to listeners.
+     * <p>Only needed for cross-node invalidation of the session near-cache.</p>
+     *
+     * @param connectionFactory Redis connection factory used for subscriptions
+     * @return message listener container
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "session.near-cache", name = "enabled", havingValue = "true")
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
@@ -0,0 +1,21 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for rendering bot replies.
+ * <p>Maps values from the application configuration with prefix
+ * {@code telegram.render} into a strongly-typed record.</p>
+ *
+ * @param editInPlace whether replies to inline buttons edit the last bot message of the
+ *                    chat instead of sending a new one
+ * @param maxTrackedChats maximum number of chats whose last bot message is remembered;
+ *                        the least recently active chats are forgotten first
+ * @param maxTrackedMessages maximum number of messages whose content is remembered to
+ *                           skip edits that would not change them
+ */
+@ConfigurationProperties(prefix = "telegram.render")
+public record RenderProperties(@DefaultValue("true") boolean editInPlace,
+                               @DefaultValue("10000") int maxTrackedChats,
+                               @DefaultValue("10000") int maxTrackedMessages) {}
@@ -0,0 +1,20 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-process near-cache of chat sessions.
+ * <p>Maps values from the application configuration with prefix
+ * {@code session.near-cache} into a strongly-typed record.</p>
+ *
+ * @param enabled whether session hashes are cached in process in front of Redis
+ * @param maxEntries maximum number of cached chat sessions; least recently used ones are evicted
+ * @param ttl maximum time a cached session is served without reloading it from Redis
+ */
+@ConfigurationProperties(prefix = "session.near-cache")
+public record SessionCacheProperties(@DefaultValue("false") boolean enabled,
+                                     @DefaultValue("10000") int maxEntries,
+                                     @DefaultValue("30s") Duration ttl) {}
@@ -0,0 +1,20 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the periodic sampling of stored chat sessions.
+ * <p>Maps values from the application configuration with prefix
+ * {@code session.sampler} into a strongly-typed record.</p>
+ *
+ * @param enabled whether stored sessions are sampled and published as metrics
+ * @param interval pause between two samples
+ * @param sampleSize maximum number of sessions inspected per sample
+ */
+@ConfigurationProperties(prefix = "session.sampler")
+public record SessionSamplerProperties(@DefaultValue("true") boolean enabled,
+                                       @DefaultValue("5m") Duration interval,
+                                       @DefaultValue("200") int sampleSize) {}
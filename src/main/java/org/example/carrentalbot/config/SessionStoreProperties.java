@@ -0,0 +1,64 @@
+package org.example.carrentalbot.config;
+
+import org.example.carrentalbot.model.enums.FlowContext;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration properties for the storage backend of chat sessions.
+ * <p>Maps values from the application configuration with prefix
+ * {@code session.store} into a strongly-typed record.</p>
+ *
+ * @param mode where chat sessions are kept
+ * @param ttl sliding expiration of a session, refreshed on every write; applies to
+ *            sessions without a flow and to flows not listed in {@code flowTtl}
+ * @param tick resolution of session expiry in {@link Mode#MEMORY} mode
+ * @param wheelSize number of timer wheel slots in {@link Mode#MEMORY} mode
+ * @param lockLease time after which the lock of a chat expires if its holder does not release it,
+ *                  in {@link Mode#REDIS} mode
+ * @param lockWait how long an update waits for the lock of its chat before it is refused,
+ *                 in {@link Mode#REDIS} mode
+ * @param flowTtl expiration of a session by its current {@link FlowContext}
+ */
+@ConfigurationProperties(prefix = "session.store")
+public record SessionStoreProperties(@DefaultValue("REDIS") Mode mode,
+                                     @DefaultValue("1h") Duration ttl,
+                                     @DefaultValue("1s") Duration tick,
+                                     @DefaultValue("512") int wheelSize,
+                                     @DefaultValue("30s") Duration lockLease,
+                                     @DefaultValue("5s") Duration lockWait,
+                                     Map<FlowContext, Duration> flowTtl) {
+
+    public SessionStoreProperties {
+        flowTtl = flowTtl != null ? Map.copyOf(flowTtl) : Map.of();
+    }
+
+    /**
+     * Resolves the expiration of a session in the given flow.
+     *
+     * @param flowContext current flow of the session, or {@code null} if it has none
+     * @return expiration configured for the flow, or the default {@code ttl}
+     */
+    public Duration ttlFor(FlowContext flowContext) {
+        return flowContext != null ? flowTtl.getOrDefault(flowContext, ttl) : ttl;
+    }
+
+    /**
+     * Storage of chat sessions.
+     */
+    public enum Mode {
+
+        /**
+         * On-heap map with timer wheel expiry; suitable for single-node deployments and tests.
+         */
+        MEMORY,
+
+        /**
+         * Shared Redis hashes with expiry; suitable for multi-node deployments.
+         */
+        REDIS
+    }
+}
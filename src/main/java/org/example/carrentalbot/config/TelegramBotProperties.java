@@ -1,6 +1,7 @@
 package org.example.carrentalbot.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 /**
  * Configuration properties for Telegram bot integration.
@@ -13,6 +14,21 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * @param username Telegram bot username (without '@')
  * @param secret optional secret token used for webhook validation
  * @param webhookUrl public webhook URL used for receiving updates
+ * @param apiUrl base URL of the Telegram Bot API, overridable to point at a local stub server
  */
 @ConfigurationProperties(prefix = "telegram.bot")
-public record TelegramBotProperties(String token, String username, String secret, String webhookUrl) {}
+public record TelegramBotProperties(String token,
+                                    String username,
+                                    String secret,
+                                    String webhookUrl,
+                                    @DefaultValue("https://api.telegram.org") String apiUrl) {
+
+    /**
+     * Builds the base URL for Bot API methods of this bot.
+     *
+     * @return API URL including the bot token, without a trailing slash
+     */
+    public String botApiBase() {
+        return apiUrl + "/bot" + token;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.carrentalbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Configuration properties for the HTTP client used to call the Telegram Bot API.
+ * <p>Maps values from the application configuration with prefix
+ * {@code telegram.http} into a strongly-typed record.</p>
+ *
+ * @param version HTTP version requested from the Bot API; {@code HTTP_2} multiplexes all
+ *                requests over one connection and falls back to HTTP/1.1 if not negotiated
+ * @param connectTimeout maximum time to establish a connection
+ * @param readTimeout maximum time to wait for a response
+ * @param maxConnections maximum number of requests in flight to the Bot API; further
+ *                       requests are queued. With HTTP/1.1 this bounds the number of
+ *                       open connections
+ */
+@ConfigurationProperties(prefix = "telegram.http")
+public record TelegramHttpProperties(@DefaultValue("HTTP_1_1") HttpClient.Version version,
+                                     @DefaultValue("5s") Duration connectTimeout,
+                                     @DefaultValue("30s") Duration readTimeout,
+                                     @DefaultValue("20") int maxConnections) {}
@@ -1,14 +1,29 @@
 package org.example.carrentalbot.controller;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.carrentalbot.config.TelegramBotProperties;
-import org.example.carrentalbot.handler.GlobalHandler;
+import org.example.carrentalbot.dto.BatchUpdateResultDto;
 import org.example.carrentalbot.dto.UpdateDto;
+import org.example.carrentalbot.ingest.AdmissionResult;
+import org.example.carrentalbot.ingest.UpdateIngestionService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * REST controller that receives and processes updates from the Telegram Bot webhook.
  * <p>This is the single entry point for all incoming Telegram events, including
@@ -16,6 +31,8 @@ import org.springframework.web.bind.annotation.*;
  * <p>Requests are optionally validated using the
  * {@code X-Telegram-Bot-Api-Secret-Token} header to ensure they originate from
  * Telegram.</p>
+ * <p>Besides single updates, arrays of updates aggregated by an edge proxy are accepted
+ * on {@code /webhook/batch}.</p>
  */
 @Slf4j
 @RestController
@@ -24,40 +41,133 @@ import org.springframework.web.bind.annotation.*;
 public class WebhookController {
 
     /**
-     * Central dispatcher for processing incoming Telegram updates.
+     * Pipeline journaling, admitting and dispatching incoming updates.
      */
-    private final GlobalHandler globalHandler;
+    private final UpdateIngestionService updateIngestionService;
 
     /**
      * Telegram bot configuration properties.
      */
     private final TelegramBotProperties telegramBotProperties;
 
+    /**
+     * Object mapper used to stream batched update payloads.
+     */
+    private final ObjectMapper objectMapper;
+
     /**
      * Handles incoming webhook updates from Telegram.
      * <p>Validates the optional secret token (if configured) and rejects requests
      * that do not match the expected value.</p>
-     * <p>Valid updates are forwarded to the {@link GlobalHandler} for processing.</p>
+     * <p>Valid updates are passed to the {@link UpdateIngestionService}; HTTP 200 is returned
+     * only once the update is durably recorded (if journaling is enabled). Updates that
+     * cannot be admitted under load are answered with HTTP 429 and a {@code Retry-After}
+     * header so that Telegram redelivers them later instead of retrying immediately.
+     * Redelivered duplicates are acknowledged with HTTP 200 without being processed again.</p>
      *
      * @param secretHeader value of the {@code X-Telegram-Bot-Api-Secret-Token} header
      * @param update incoming Telegram update payload
-     * @return HTTP 200 if processed successfully, or HTTP 403 if the secret token is invalid
+     * @return HTTP 200 if accepted, HTTP 403 if the secret token is invalid,
+     *         or HTTP 429 if the update was rejected by admission control
      */
     @PostMapping
     public ResponseEntity<String> onUpdate(
             @RequestHeader(value = "X-Telegram-Bot-Api-Secret-Token", required = false) String secretHeader,
             @RequestBody UpdateDto update) {
 
-        if (telegramBotProperties.secret() != null && !telegramBotProperties.secret().isBlank()) {
-            if (!telegramBotProperties.secret().equals(secretHeader)) {
-                log.warn("updateId={} Rejected update due to invalid secret header", update.getUpdateId());
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid secret");
-            }
+        if (!isSecretValid(secretHeader)) {
+            log.warn("updateId={} Rejected update due to invalid secret header", update.getUpdateId());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid secret");
         }
 
         log.debug("Received webhook update (id: {})", update.getUpdateId());
 
-        globalHandler.handleUpdate(update);
+        if (updateIngestionService.ingest(update) == AdmissionResult.REJECTED) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(updateIngestionService.getRetryAfterSeconds()))
+                    .body("Too many requests");
+        }
+
         return ResponseEntity.ok("OK");
     }
+
+    /**
+     * Handles a JSON array of updates aggregated by an edge proxy.
+     * <p>The array is read with a streaming parser, one update at a time, and the whole
+     * batch is ingested together: it is journaled with a single commit and the dispatcher
+     * groups it by chat, scheduling one task per chat group instead of one per update.</p>
+     * <p>If some updates cannot be admitted, HTTP 429 with a {@code Retry-After} header is
+     * returned and the response lists the rejected update ids; all other updates of the
+     * batch are processed.</p>
+     *
+     * @param secretHeader value of the {@code X-Telegram-Bot-Api-Secret-Token} header
+     * @param request HTTP request whose body is a JSON array of Telegram updates
+     * @return HTTP 200 if all updates were accepted, HTTP 400 if the payload is malformed,
+     *         HTTP 403 if the secret token is invalid, or HTTP 429 if some updates were rejected
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchUpdateResultDto> onUpdates(
+            @RequestHeader(value = "X-Telegram-Bot-Api-Secret-Token", required = false) String secretHeader,
+            HttpServletRequest request) throws IOException {
+
+        if (!isSecretValid(secretHeader)) {
+            log.warn("Rejected update batch due to invalid secret header");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        List<UpdateDto> updates;
+        try {
+            updates = readUpdates(request.getInputStream());
+        } catch (JsonProcessingException exception) {
+            log.warn("Rejected malformed update batch: {}", exception.getOriginalMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.debug("Received webhook batch of {} updates", updates.size());
+
+        List<AdmissionResult> results = updateIngestionService.ingestAll(updates);
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (results.get(i) == AdmissionResult.REJECTED) {
+                rejected.add(updates.get(i).getUpdateId());
+            }
+        }
+
+        BatchUpdateResultDto body = new BatchUpdateResultDto(updates.size(), rejected);
+        if (!rejected.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(updateIngestionService.getRetryAfterSeconds()))
+                    .body(body);
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Checks the secret token header against the configured secret, if any.
+     */
+    private boolean isSecretValid(String secretHeader) {
+        String secret = telegramBotProperties.secret();
+        return secret == null || secret.isBlank() || secret.equals(secretHeader);
+    }
+
+    /**
+     * Reads a JSON array of updates element by element without building an intermediate tree.
+     */
+    private List<UpdateDto> readUpdates(InputStream body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of updates");
+            }
+
+            List<UpdateDto> updates = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                updates.add(objectMapper.readValue(parser, UpdateDto.class));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected an update object");
+            }
+            return updates;
+        }
+    }
 }
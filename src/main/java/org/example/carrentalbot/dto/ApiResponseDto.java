@@ -0,0 +1,49 @@
+package org.example.carrentalbot.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the response envelope of every Telegram Bot API method.
+ * <p>On success {@code ok} is set and {@code result} holds the method result;
+ * otherwise {@code errorCode} and {@code description} explain the failure.</p>
+ *
+ * @param <T> type of the method result
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiResponseDto<T> {
+
+    /**
+     * Whether the request was successful.
+     */
+    @JsonProperty("ok")
+    private boolean ok;
+
+    /**
+     * Result of the method, present if the request was successful.
+     */
+    @JsonProperty("result")
+    private T result;
+
+    /**
+     * Human-readable description of the result or error.
+     */
+    @JsonProperty("description")
+    private String description;
+
+    /**
+     * Error code of an unsuccessful request; mirrors the HTTP status.
+     */
+    @JsonProperty("error_code")
+    private Integer errorCode;
+
+    /**
+     * Additional information on how an unsuccessful request can be repeated.
+     */
+    @JsonProperty("parameters")
+    private ResponseParametersDto parameters;
+}
@@ -0,0 +1,33 @@
+package org.example.carrentalbot.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents the response to a batch of webhook updates.
+ * <p>Tells the sender how many updates were received and which of them were
+ * rejected by admission control and must be redelivered later.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchUpdateResultDto {
+
+    /**
+     * Number of updates contained in the batch.
+     */
+    @JsonProperty("received")
+    private Integer received;
+
+    /**
+     * Identifiers of the updates that were not accepted and should be redelivered.
+     */
+    @JsonProperty("rejected_update_ids")
+    private List<Long> rejectedUpdateIds;
+}
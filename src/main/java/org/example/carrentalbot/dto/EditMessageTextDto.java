@@ -0,0 +1,52 @@
+package org.example.carrentalbot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a request to replace the text of an existing message.
+ * <p>Used to render a new view into a previously sent message, together
+ * with its inline keyboard.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EditMessageTextDto {
+
+    /**
+     * Identifier of the chat containing the target message.
+     */
+    @JsonProperty("chat_id")
+    private Long chatId;
+
+    /**
+     * Identifier of the message whose text should be replaced.
+     */
+    @JsonProperty("message_id")
+    private Integer messageId;
+
+    /**
+     * New text of the message.
+     */
+    @JsonProperty("text")
+    private String text;
+
+    /**
+     * Optional parsing mode for text formatting (e.g., "HTML", "Markdown").
+     */
+    @JsonProperty("parse_mode")
+    private String parseMode;
+
+    /**
+     * Optional inline keyboard markup attached to the message.
+     * <p>Omitting it removes the existing keyboard.</p>
+     */
+    @JsonProperty("reply_markup")
+    private InlineKeyboardMarkupDto replyMarkup;
+}
@@ -0,0 +1,91 @@
+package org.example.carrentalbot.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Represents an inline keyboard that was serialized to JSON in advance.
+ * <p>Used for keyboards that never change, so they can be built once and shared by all
+ * replies. When a request is serialized, the pre-encoded UTF-8 bytes of the keyboard are
+ * copied into the request body instead of serializing every button again.</p>
+ * <p>Instances are immutable: the button rows are copied into unmodifiable lists and
+ * the keyboard cannot be replaced. The buttons themselves must not be modified.</p>
+ */
+public final class EncodedKeyboardMarkupDto extends InlineKeyboardMarkupDto implements JsonSerializable {
+
+    /**
+     * Pre-encoded JSON of the keyboard.
+     */
+    private final SerializableString json;
+
+    /**
+     * Hash code of the keyboard, computed once.
+     */
+    private final int hash;
+
+    /**
+     * Creates an immutable, pre-encoded copy of the given keyboard.
+     *
+     * @param markup keyboard to encode
+     * @param objectMapper mapper the keyboard is serialized with, the same that serializes requests
+     * @throws IllegalArgumentException if the keyboard cannot be serialized
+     */
+    public EncodedKeyboardMarkupDto(InlineKeyboardMarkupDto markup, ObjectMapper objectMapper) {
+        super(markup.getInlineKeyboard().stream().map(List::copyOf).toList());
+        try {
+            SerializedString encoded = new SerializedString(
+                    objectMapper.writeValueAsString(new InlineKeyboardMarkupDto(getInlineKeyboard())));
+            encoded.asUnquotedUTF8();
+            this.json = encoded;
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Cannot serialize keyboard", exception);
+        }
+        this.hash = super.hashCode();
+    }
+
+    /**
+     * Rejects changes; the encoded keyboard is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setInlineKeyboard(List<List<InlineKeyboardButtonDto>> inlineKeyboard) {
+        throw new UnsupportedOperationException("Encoded keyboards are immutable");
+    }
+
+    /**
+     * Writes the pre-encoded JSON of the keyboard.
+     */
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeRawValue(json);
+    }
+
+    /**
+     * Writes the pre-encoded JSON of the keyboard; keyboards carry no type information.
+     */
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers,
+                                  TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, serializers);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return super.equals(other);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.carrentalbot.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents additional information returned with an unsuccessful Bot API request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseParametersDto {
+
+    /**
+     * Seconds to wait before the request can be repeated after exceeding a flood limit.
+     */
+    @JsonProperty("retry_after")
+    private Integer retryAfter;
+}
@@ -0,0 +1,30 @@
+package org.example.carrentalbot.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when the session of a chat is held by another update: either its lock
+ * could not be acquired in time, or a write found that the session was changed since it
+ * was loaded.
+ * <p>A lock failure happens before the update is processed, so the user is simply asked to
+ * repeat it. A stale write is not retried, since its handler may already have had external
+ * effects.</p>
+ */
+@Getter
+public class SessionConflictException extends RuntimeException {
+
+    /**
+     * Identifier of the chat whose session was changed concurrently.
+     */
+    private final Long chatId;
+
+    /**
+     * Creates a new exception for the given chat.
+     *
+     * @param chatId identifier of the chat whose session was changed concurrently
+     */
+    public SessionConflictException(Long chatId) {
+        super("Session of chat " + chatId + " was changed concurrently");
+        this.chatId = chatId;
+    }
+}
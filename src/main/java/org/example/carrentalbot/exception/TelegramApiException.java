@@ -0,0 +1,75 @@
+package org.example.carrentalbot.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when the Telegram Bot API answers a request with an error.
+ * <p>Network failures are reported as {@link java.io.IOException} instead.</p>
+ */
+@Getter
+public class TelegramApiException extends RuntimeException {
+
+    /**
+     * Error code of {@code 429 Too Many Requests}.
+     */
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Error code of {@code 400 Bad Request}, also reported for messages that cannot be edited.
+     */
+    public static final int BAD_REQUEST = 400;
+
+    /**
+     * Bot API method that failed.
+     */
+    private final String method;
+
+    /**
+     * Error code reported by Telegram; mirrors the HTTP status.
+     */
+    private final int errorCode;
+
+    /**
+     * Description of the error reported by Telegram.
+     */
+    private final String description;
+
+    /**
+     * Seconds to wait before repeating the request, if Telegram asked to.
+     */
+    private final Integer retryAfter;
+
+    /**
+     * Creates a new exception for a failed Bot API request.
+     *
+     * @param method Bot API method that failed
+     * @param errorCode error code reported by Telegram
+     * @param description description reported by Telegram
+     * @param retryAfter seconds to wait before repeating the request, or {@code null}
+     */
+    public TelegramApiException(String method, int errorCode, String description, Integer retryAfter) {
+        super("Telegram " + method + " failed with " + errorCode + ": " + description);
+        this.method = method;
+        this.errorCode = errorCode;
+        this.description = description;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Tells whether Telegram rejected the request for exceeding a flood limit.
+     *
+     * @return {@code true} for {@code 429 Too Many Requests}
+     */
+    public boolean isTooManyRequests() {
+        return errorCode == TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * Tells whether Telegram rejected an edit because it would not change the message.
+     *
+     * @return {@code true} for {@code message is not modified}
+     */
+    public boolean isMessageNotModified() {
+        return errorCode == BAD_REQUEST && description != null && description.contains("message is not modified");
+    }
+}
@@ -15,6 +15,8 @@ public interface GlobalHandler {
      * <p>The implementation is responsible for inspecting the {@code update}
      * (e.g. message, callback query) and delegating processing to the appropriate
      * component.</p>
+     * <p>Processing is synchronous. Callers must not invoke this method concurrently
+     * for updates of the same chat.</p>
      *
      * @param update non-null Telegram update containing all incoming data
      */
@@ -3,18 +3,20 @@ package org.example.carrentalbot.handler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.carrentalbot.dto.*;
+import org.example.carrentalbot.exception.SessionConflictException;
 import org.example.carrentalbot.handler.callback.CallbackHandler;
 import org.example.carrentalbot.handler.command.CommandHandler;
-import org.example.carrentalbot.handler.text.FallbackTextHandler;
 import org.example.carrentalbot.handler.text.TextHandler;
 import org.example.carrentalbot.model.enums.FlowContext;
+import org.example.carrentalbot.session.SessionScope;
+import org.example.carrentalbot.session.SessionService;
+import org.example.carrentalbot.util.ChatMessageTracker;
 import org.example.carrentalbot.util.FlowContextHelper;
 import org.example.carrentalbot.util.HandlerRegistry;
 import org.example.carrentalbot.util.TelegramClient;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
+import java.util.Optional;
 
 /**
  * Default implementation of {@link GlobalHandler} acting as the central dispatcher
@@ -23,18 +25,28 @@ import java.util.*;
  * <ul>
  *   <li>Extracting the {@code chatId} from different update types</li>
  *   <li>Routing messages to command or text handlers</li>
- *   <li>Routing callback queries based on structured callback data prefixes</li>
+ *   <li>Routing callback queries based on the key segment of structured callback data</li>
  *   <li>Validating the user's current {@link FlowContext} before handler execution</li>
  * </ul>
  * <p>Handler resolution is delegated to {@link HandlerRegistry}, allowing
  * extensible and decoupled processing via command, text, and callback handlers.</p>
- * <p>Execution is performed asynchronously to avoid blocking the webhook thread.</p>
+ * <p>Updates are executed on the calling thread; asynchronous, per-chat ordered
+ * execution is provided by {@link org.example.carrentalbot.ingest.UpdateDispatcher}.</p>
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GlobalHandlerImpl implements GlobalHandler {
 
+    /**
+     * Reply to an update that was not processed because another update of the chat held its session.
+     */
+    private static final String CONFLICT_TEXT = """
+            ⚠️ Your previous action is still being processed.
+
+            Please try again in a moment.
+            """;
+
     /**
      * Client for interacting with the Telegram Bot API.
      */
@@ -50,6 +62,16 @@ public class GlobalHandlerImpl implements GlobalHandler {
      */
     private final HandlerRegistry handlerRegistry;
 
+    /**
+     * Service providing the per-update session scope.
+     */
+    private final SessionService sessionService;
+
+    /**
+     * Tracker of the last bot message per chat, reset by messages of the user.
+     */
+    private final ChatMessageTracker chatMessageTracker;
+
     /**
      * Extracts the chat identifier from the given update.
      * <p>Supports both message and callback query updates. Returns {@code null}
@@ -74,11 +96,17 @@ public class GlobalHandlerImpl implements GlobalHandler {
      * Entry point for processing a single Telegram update.
      * <p>Determines the update type and delegates processing to the appropriate
      * handler method. Unsupported update types are logged and ignored.</p>
+     * <p>The update is processed inside a {@link SessionScope} of its chat, so all
+     * handlers share one session snapshot and session writes are flushed once at the end,
+     * also when processing fails.</p>
+     * <p>Opening the scope takes the session lock of the chat, before any handler runs. If
+     * another update of the same chat, possibly on another node, holds it for longer than
+     * the lock wait, the update is skipped without side effects and the user is asked to
+     * repeat the action, which is then handled against the current session.</p>
      *
      * @param update non-null Telegram update payload
      */
     @Override
-    @Async("telegramExecutor")
     public void handleUpdate(UpdateDto update) {
 
         if (update == null) {
@@ -88,6 +116,40 @@ public class GlobalHandlerImpl implements GlobalHandler {
 
         Long chatId = extractChatId(update);
 
+        if (chatId == null) {
+            route(null, update);
+            return;
+        }
+
+        SessionScope scope;
+        try {
+            scope = sessionService.openScope(chatId);
+        } catch (SessionConflictException exception) {
+            log.warn("Session of chat {} is locked by another update, update {} was skipped",
+                    chatId, update.getUpdateId());
+            notifyConflict(chatId);
+            return;
+        }
+
+        try (scope) {
+            route(chatId, update);
+        }
+    }
+
+    /**
+     * Asks the user to repeat an action that was skipped.
+     *
+     * @param chatId chat identifier
+     */
+    private void notifyConflict(Long chatId) {
+        telegramClient.sendMessage(SendMessageDto.builder()
+                .chatId(chatId.toString())
+                .text(CONFLICT_TEXT)
+                .parseMode("HTML")
+                .build());
+    }
+
+    private void route(Long chatId, UpdateDto update) {
         if (update.getMessage() != null) {
             handleMessage(chatId, update.getMessage());
         } else if (update.getCallbackQuery() != null) {
@@ -105,12 +167,17 @@ public class GlobalHandlerImpl implements GlobalHandler {
      *   <li>All other text is processed by registered text handlers</li>
      * </ul>
      * <p>Empty or malformed messages are ignored.</p>
+     * <p>Any message of the user follows the last message of the bot in the chat, so
+     * the next reply of the bot is sent as a new message rather than edited into an
+     * earlier one.</p>
      *
      * @param chatId identifier of the chat where the message originated
      * @param message incoming message payload
      */
     private void handleMessage(Long chatId, MessageDto message) {
 
+        chatMessageTracker.forget(chatId);
+
         FromDto from = message.getFrom();
         if (message.getFrom() == null) {
             log.warn("Missing telegram user in message");
@@ -153,38 +220,32 @@ public class GlobalHandlerImpl implements GlobalHandler {
 
     /**
      * Resolves and executes a text handler.
-     * <p>Selects the first {@link TextHandler} capable of handling the input.
-     * If none match, a fallback handler is executed.</p>
-     * <p>{@link FlowContext} validation is performed before invoking the selected handler.</p>
+     * <p>The user's {@link FlowContext} is read once and used both to route the text
+     * through the precompiled matcher of {@link HandlerRegistry} and to validate the
+     * selected handler. If no pattern matches, the fallback handler is executed.</p>
      *
      * @param chatId chat identifier
      * @param text message text content
      */
     private void handleText(Long chatId, String text) {
-        handlerRegistry.getTextHandlers().stream()
-                .filter(handler -> handler.canHandle(text))
-                .findFirst()
-                .ifPresentOrElse(
-                        handler -> {
-                            log.info("Executing text '{}'", text);
-
-                            flowContextHelper.validateFlowContext(chatId, handler.getAllowedContexts());
-                            handler.handle(chatId, text);
-                        },
-                        () -> {
-                            FallbackTextHandler fallbackHandler = handlerRegistry.getFallbackTextHandler();
-
-                            log.info("Executing text '{}'", text);
-                            fallbackHandler.handle(chatId, text);
-                        }
-                );
+        FlowContext current = flowContextHelper.getCurrentFlowContext(chatId);
+        TextHandler handler = handlerRegistry.resolveTextHandler(current, text);
+
+        log.info("Executing text '{}'", text);
+
+        if (handler != handlerRegistry.getFallbackTextHandler()) {
+            flowContextHelper.validateFlowContext(current, handler.getAllowedContexts());
+        }
+        handler.handle(chatId, text);
     }
 
     /**
      * Processes an incoming callback query triggered by an inline keyboard interaction.
-     * <p>Acknowledges the callback to remove the Telegram loading indicator.</p>
-     * <p>Resolves a {@link CallbackHandler} based on callback data prefix matching
-     * in {@link HandlerRegistry}. If no match is found, a fallback handler is used.</p>
+     * <p>Acknowledges the callback to remove the Telegram loading indicator. The
+     * acknowledgement is not awaited: the handler runs while it is in flight, and its
+     * replies are sent in parallel on the pooled connections.</p>
+     * <p>Resolves a {@link CallbackHandler} by the key segment of the callback data
+     * via {@link HandlerRegistry}. If no match is found, a fallback handler is used.</p>
      * <p>{@link FlowContext} validation is performed before invoking the handler.</p>
      *
      * @param chatId chat identifier
@@ -205,11 +266,7 @@ public class GlobalHandlerImpl implements GlobalHandler {
                         .showAlert(false)
                         .build());
 
-        CallbackHandler handler = handlerRegistry.getCallbackHandlers().entrySet().stream()
-                .filter(entry -> callbackData.startsWith(entry.getKey()))
-                .map(Map.Entry::getValue)
-                .findFirst()
-                .orElse(handlerRegistry.getFallbackCallbackHandler());
+        CallbackHandler handler = handlerRegistry.resolveCallbackHandler(callbackData);
 
         log.info("Executing callback '{}' ", callbackData);
 
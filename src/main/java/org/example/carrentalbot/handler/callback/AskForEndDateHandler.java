@@ -10,7 +10,9 @@ import org.example.carrentalbot.exception.InvalidDataException;
 import org.example.carrentalbot.model.enums.CalendarAction;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.session.SessionService;
+import org.example.carrentalbot.util.CalendarHelper;
 import org.example.carrentalbot.util.KeyboardFactory;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.example.carrentalbot.util.TelegramClient;
 import org.springframework.stereotype.Service;
 
@@ -54,10 +56,20 @@ public class AskForEndDateHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Helper building the calendars of the chat, marking days the chosen car is booked.
+     */
+    private final CalendarHelper calendarHelper;
+
+    /**
+     * Client for editing messages via the Telegram Bot API.
      */
     private final TelegramClient telegramClient;
 
+    /**
+     * Renderer editing the bot's last message in place or sending a new one.
+     */
+    private final MessageRenderer messageRenderer;
+
     /**
      * Clock used for time-based validation to allow testability and consistent time access.
      */
@@ -109,7 +121,7 @@ public class AskForEndDateHandler implements CallbackHandler {
                 log.debug("Handling month change: action={}, yearPart={}, monthPart={}",
                         action, callbackParts[2], callbackParts[3]);
 
-                replyMarkup = handleMonthChange(callbackParts);
+                replyMarkup = handleMonthChange(chatId, callbackParts);
 
                 telegramClient.sendEditMessageReplyMarkup(EditMessageReplyMarkupDto.builder()
                         .chatId(chatId)
@@ -129,7 +141,7 @@ public class AskForEndDateHandler implements CallbackHandler {
                 if (validateStartDate(startDate)) {
                     log.debug("Start date is valid: start date={}", startDate);
 
-                    sessionService.put(chatId, "startDate", startDate);
+                    sessionService.getSession(chatId).setStartDate(startDate);
                     log.debug("Session updated: 'startDate' set to {}", startDate);
 
                     YearMonth yearMonth = YearMonth.from(startDate);
@@ -139,7 +151,7 @@ public class AskForEndDateHandler implements CallbackHandler {
                             Now pick the end date:
                             """, startDate);
 
-                    replyMarkup = keyboardFactory.buildCalendar(yearMonth.getYear(), yearMonth.getMonthValue(), ConfirmDatesHandler.KEY + ":");
+                    replyMarkup = calendarHelper.buildCalendar(chatId, yearMonth.getYear(), yearMonth.getMonthValue(), ConfirmDatesHandler.KEY + ":");
 
                 } else {
                     log.debug("Start date is invalid: {}", startDate);
@@ -157,7 +169,7 @@ public class AskForEndDateHandler implements CallbackHandler {
                     replyMarkup = keyboardFactory.buildInvalidDatesKeyboard();
                 }
 
-                telegramClient.sendMessage(SendMessageDto.builder()
+                messageRenderer.render(callbackQuery, SendMessageDto.builder()
                         .chatId(chatId.toString())
                         .text(text)
                         .parseMode("HTML")
@@ -203,11 +215,12 @@ public class AskForEndDateHandler implements CallbackHandler {
     /**
      * Resolves target month based on navigation action and builds calendar markup.
      *
+     * @param chatId chat identifier
      * @param callbackParts parsed callback segments
      * @return updated calendar keyboard
      * @throws InvalidDataException if required date parts are missing
      */
-    private InlineKeyboardMarkupDto handleMonthChange(String[] callbackParts) {
+    private InlineKeyboardMarkupDto handleMonthChange(Long chatId, String[] callbackParts) {
         if (callbackParts.length < 4) {
             throw new InvalidDataException("Missing year or month in callback");
         }
@@ -229,7 +242,7 @@ public class AskForEndDateHandler implements CallbackHandler {
             }
         }
 
-        return keyboardFactory.buildCalendar(year, month, AskForEndDateHandler.KEY + ":");
+        return calendarHelper.buildCalendar(chatId, year, month, AskForEndDateHandler.KEY + ":");
     }
 
     /**
@@ -5,7 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.carrentalbot.dto.CallbackQueryDto;
 import org.example.carrentalbot.dto.SendMessageDto;
 import org.example.carrentalbot.model.enums.FlowContext;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.util.EnumSet;
@@ -36,9 +36,9 @@ public class AskForPhoneHandler implements CallbackHandler {
     );
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -72,7 +72,7 @@ public class AskForPhoneHandler implements CallbackHandler {
                 Example: +49 123 456789
                 """;
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
@@ -10,8 +10,8 @@ import org.example.carrentalbot.exception.InvalidDataException;
 import org.example.carrentalbot.model.enums.CarBrowsingMode;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.session.SessionService;
-import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.CalendarHelper;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.time.YearMonth;
@@ -45,14 +45,14 @@ public class AskForStartDateHandler implements CallbackHandler {
     private final SessionService sessionService;
 
     /**
-     * Factory for building interactive inline calendar markup for selecting rental start date.
+     * Helper building the calendars of the chat, marking days the chosen car is booked.
      */
-    private final KeyboardFactory keyboardFactory;
+    private final CalendarHelper calendarHelper;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -84,10 +84,10 @@ public class AskForStartDateHandler implements CallbackHandler {
 
         YearMonth now = YearMonth.now();
 
-        InlineKeyboardMarkupDto replyMarkup = keyboardFactory.buildCalendar(
+        InlineKeyboardMarkupDto replyMarkup = calendarHelper.buildCalendar(chatId,
                 now.getYear(), now.getMonthValue(), AskForEndDateHandler.KEY + ":");
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text("Pick your start date:")
                 .replyMarkup(replyMarkup)
@@ -104,8 +104,8 @@ public class AskForStartDateHandler implements CallbackHandler {
         CarBrowsingMode fromCallback = extractBrowsingModeFromCallback(callbackData);
         log.debug("Extracted from callback: carBrowsingMode={}", fromCallback);
 
-        CarBrowsingMode fromSession = sessionService
-                .getCarBrowsingMode(chatId, "carBrowsingMode")
+        CarBrowsingMode fromSession = sessionService.getSession(chatId)
+                .getCarBrowsingMode()
                 .orElse(null);
         log.debug("Loaded from session: carBrowsingMode={}", fromSession);
 
@@ -117,7 +117,7 @@ public class AskForStartDateHandler implements CallbackHandler {
         CarBrowsingMode result = fromCallback != null ? fromCallback : fromSession;
 
         if (!result.equals(fromSession)) {
-            sessionService.put(chatId, "carBrowsingMode", result);
+            sessionService.getSession(chatId).setCarBrowsingMode(result);
             log.debug("Session updated: 'carBrowsingMode' set to {}", result);
         } else {
             log.debug("Session unchanged: 'carBrowsingMode' remains {}", result);
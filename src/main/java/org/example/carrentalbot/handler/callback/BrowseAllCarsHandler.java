@@ -14,7 +14,7 @@ import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.CarService;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.util.EnumSet;
@@ -58,9 +58,9 @@ public class BrowseAllCarsHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -91,8 +91,8 @@ public class BrowseAllCarsHandler implements CallbackHandler {
 
         updateBrowsingModeInSession(chatId, callbackQuery.getData());
 
-        CarCategory carCategory = sessionService
-                .getCarCategory(chatId, "carCategory")
+        CarCategory carCategory = sessionService.getSession(chatId)
+                .getCarCategory()
                 .orElseThrow(() -> new DataNotFoundException("Category not found in session"));
         log.debug("Loaded from session: carCategory={}", carCategory);
 
@@ -105,7 +105,7 @@ public class BrowseAllCarsHandler implements CallbackHandler {
                 <b>All cars in category '%s':</b>
                 """, carCategory.getValue());
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
@@ -122,8 +122,8 @@ public class BrowseAllCarsHandler implements CallbackHandler {
         CarBrowsingMode fromCallback = extractBrowsingModeFromCallback(callbackData);
         log.debug("Extracted from callback: car browsing mode={}", fromCallback);
 
-        CarBrowsingMode fromSession = sessionService
-                .getCarBrowsingMode(chatId, "carBrowsingMode")
+        CarBrowsingMode fromSession = sessionService.getSession(chatId)
+                .getCarBrowsingMode()
                 .orElse(null);
         log.debug("Loaded from session: carBrowsingMode={}", fromSession);
 
@@ -134,7 +134,7 @@ public class BrowseAllCarsHandler implements CallbackHandler {
         CarBrowsingMode result = fromCallback != null ? fromCallback : fromSession;
 
         if (!result.equals(fromSession)) {
-            sessionService.put(chatId, "carBrowsingMode", result);
+            sessionService.getSession(chatId).setCarBrowsingMode(result);
             log.debug("Session updated: 'carBrowsingMode' set to {}", result);
         } else {
             log.debug("Session unchanged: 'carBrowsingMode' remains {}", result);
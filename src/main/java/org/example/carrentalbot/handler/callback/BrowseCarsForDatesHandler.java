@@ -10,9 +10,10 @@ import org.example.carrentalbot.model.Car;
 import org.example.carrentalbot.model.enums.CarCategory;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.CarService;
+import org.example.carrentalbot.session.ChatSession;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -56,9 +57,9 @@ public class BrowseCarsForDatesHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -87,18 +88,20 @@ public class BrowseCarsForDatesHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'browse cars for dates' flow");
 
-        CarCategory carCategory = sessionService
-                .getCarCategory(chatId, "carCategory")
+        ChatSession session = sessionService.getSession(chatId);
+
+        CarCategory carCategory = session
+                .getCarCategory()
                 .orElseThrow(() -> new DataNotFoundException("Category not found in session"));
         log.debug("Loaded from session: carCategory={}", carCategory);
 
-        LocalDate startDate = sessionService
-                .getLocalDate(chatId, "startDate")
+        LocalDate startDate = session
+                .getStartDate()
                 .orElseThrow(() -> new DataNotFoundException("Start date not found in session"));
         log.debug("Loaded from session: startDate={}", startDate);
 
-        LocalDate endDate = sessionService
-                .getLocalDate(chatId, "endDate")
+        LocalDate endDate = session
+                .getEndDate()
                 .orElseThrow(() -> new DataNotFoundException("End date not found in session"));
         log.debug("Loaded from session: endDate={}", endDate);
 
@@ -111,7 +114,7 @@ public class BrowseCarsForDatesHandler implements CallbackHandler {
                 <b>Available cars in category '%s':</b>
                 """, carCategory);
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
@@ -10,7 +10,7 @@ import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.CarService;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.util.EnumSet;
@@ -54,9 +54,9 @@ public class BrowseCategoriesHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -84,7 +84,7 @@ public class BrowseCategoriesHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'browse car categories' flow");
 
-        sessionService.put(chatId, "flowContext", FlowContext.BROWSING_FLOW);
+        sessionService.getSession(chatId).setFlowContext(FlowContext.BROWSING_FLOW);
         log.debug("Session updated: 'flowContext' set to {}", FlowContext.BROWSING_FLOW);
 
         List<CarProjection> carCategories = carService.getCarCategories();
@@ -93,7 +93,7 @@ public class BrowseCategoriesHandler implements CallbackHandler {
 
         InlineKeyboardMarkupDto keyboard = keyboardFactory.buildCarCategoryKeyboard(carCategories);
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text("<b>Available Categories:</b>")
                 .parseMode("HTML")
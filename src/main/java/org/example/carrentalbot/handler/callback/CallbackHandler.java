@@ -14,11 +14,12 @@ import java.util.EnumSet;
 public interface CallbackHandler {
 
     /**
-     * Returns the unique prefix used to match incoming callback data.
-     * <p>The dispatcher uses this value to select the appropriate handler
-     * when the callback data starts with the returned key.</p>
+     * Returns the unique key used to match incoming callback data.
+     * <p>Callback data has the form {@code KEY[:payload...]}. The dispatcher selects
+     * the handler whose key equals the segment before the first {@code :}.
+     * Keys must not contain {@code :} and must not be a prefix of another key.</p>
      *
-     * @return handler key (callback data prefix)
+     * @return handler key (first segment of the callback data)
      */
     String getKey();
 
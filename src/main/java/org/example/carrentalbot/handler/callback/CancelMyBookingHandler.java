@@ -12,7 +12,7 @@ import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.BookingService;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -55,9 +55,9 @@ public class CancelMyBookingHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -86,8 +86,8 @@ public class CancelMyBookingHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'cancel my booking' flow");
 
-        UUID bookingId = sessionService
-                .getUUID(chatId, "bookingId")
+        UUID bookingId = sessionService.getSession(chatId)
+                .getBookingId()
                 .orElseThrow(() -> new DataNotFoundException("Booking id not found in session"));
         log.debug("Loaded from session: bookingId={}", bookingId);
 
@@ -118,7 +118,7 @@ public class CancelMyBookingHandler implements CallbackHandler {
             replyMarkup = keyboardFactory.buildCancelMyBookingKeyboard();
         }
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .replyMarkup(replyMarkup)
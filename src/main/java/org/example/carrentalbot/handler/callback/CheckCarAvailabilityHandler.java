@@ -8,9 +8,10 @@ import org.example.carrentalbot.dto.SendMessageDto;
 import org.example.carrentalbot.exception.DataNotFoundException;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.BookingService;
+import org.example.carrentalbot.session.ChatSession;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -54,9 +55,9 @@ public class CheckCarAvailabilityHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -85,18 +86,20 @@ public class CheckCarAvailabilityHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'check availability' flow");
 
-        UUID carId = sessionService
-                .getUUID(chatId, "carId")
+        ChatSession session = sessionService.getSession(chatId);
+
+        UUID carId = session
+                .getCarId()
                 .orElseThrow(() -> new DataNotFoundException("Car id not found in session"));
         log.debug("Loaded from session: carId={}", carId);
 
-        LocalDate startDate = sessionService
-                .getLocalDate(chatId, "startDate")
+        LocalDate startDate = session
+                .getStartDate()
                 .orElseThrow(() -> new DataNotFoundException("Start date not found in session"));
         log.debug("Loaded from session: startDate={}", startDate);
 
-        LocalDate endDate = sessionService
-                .getLocalDate(chatId, "endDate")
+        LocalDate endDate = session
+                .getEndDate()
                 .orElseThrow(() -> new DataNotFoundException("End date not found in session"));
         log.debug("Loaded from session: endDate={}", endDate);
 
@@ -119,7 +122,7 @@ public class CheckCarAvailabilityHandler implements CallbackHandler {
 
         InlineKeyboardMarkupDto replyMarkup = available ? keyboardFactory.buildCarAvailableKeyboard() : keyboardFactory.buildCarUnavailableKeyboard();
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
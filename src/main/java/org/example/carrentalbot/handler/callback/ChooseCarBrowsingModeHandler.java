@@ -11,7 +11,7 @@ import org.example.carrentalbot.model.enums.CarCategory;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.util.EnumSet;
@@ -49,9 +49,9 @@ public class ChooseCarBrowsingModeHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -83,7 +83,7 @@ public class ChooseCarBrowsingModeHandler implements CallbackHandler {
 
         InlineKeyboardMarkupDto replyMarkup = keyboardFactory.buildCarBrowsingModeKeyboard();
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text("<b>Choose browsing mode:</b>")
                 .parseMode("HTML")
@@ -100,8 +100,8 @@ public class ChooseCarBrowsingModeHandler implements CallbackHandler {
         CarCategory fromCallback = extractCategoryFromCallback(callbackData);
         log.debug("Extracted from callback: car category={}", fromCallback);
 
-        CarCategory fromSession = sessionService
-                .getCarCategory(chatId, "carCategory")
+        CarCategory fromSession = sessionService.getSession(chatId)
+                .getCarCategory()
                 .orElse(null);
         log.debug("Loaded from session: carCategory={}", fromSession);
 
@@ -112,7 +112,7 @@ public class ChooseCarBrowsingModeHandler implements CallbackHandler {
         CarCategory result = fromCallback != null ? fromCallback : fromSession;
 
         if (!result.equals(fromSession)) {
-            sessionService.put(chatId, "carCategory", result);
+            sessionService.getSession(chatId).setCarCategory(result);
             log.debug("Session updated: 'carCategory' set to {}", result);
         } else {
             log.debug("Session unchanged: 'carCategory' remains {}", result);
@@ -14,9 +14,10 @@ import org.example.carrentalbot.model.enums.NotificationType;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.reminder.ReminderService;
 import org.example.carrentalbot.service.BookingService;
+import org.example.carrentalbot.session.ChatSession;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 
@@ -73,9 +74,9 @@ public class ConfirmBookingHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -104,38 +105,40 @@ public class ConfirmBookingHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'confirm booking' flow");
 
-        UUID carId = sessionService
-                .getUUID(chatId, "carId")
+        ChatSession session = sessionService.getSession(chatId);
+
+        UUID carId = session
+                .getCarId()
                 .orElseThrow(() -> new DataNotFoundException("Car id not found in session"));
         log.debug("Loaded from session: carId={}", carId);
 
-        LocalDate startDate = sessionService
-                .getLocalDate(chatId, "startDate")
+        LocalDate startDate = session
+                .getStartDate()
                 .orElseThrow(() -> new DataNotFoundException("Start date not found in session"));
         log.debug("Loaded from session: startDate={}", startDate);
 
-        LocalDate endDate = sessionService
-                .getLocalDate(chatId, "endDate")
+        LocalDate endDate = session
+                .getEndDate()
                 .orElseThrow(() -> new DataNotFoundException("End date not found in session"));
         log.debug("Loaded from session: endDate={}", endDate);
 
-        Integer totalDays = sessionService
-                .getInteger(chatId, "totalDays")
+        Integer totalDays = session
+                .getTotalDays()
                 .orElseThrow(() -> new DataNotFoundException("Total days not found in session"));
         log.debug("Loaded from session: totalDays={}", totalDays);
 
-        BigDecimal totalCost = sessionService
-                .getBigDecimal(chatId, "totalCost")
+        BigDecimal totalCost = session
+                .getTotalCost()
                 .orElseThrow(() -> new DataNotFoundException("Total cost not found in session"));
         log.debug("Loaded from session: totalCost={}", totalCost);
 
-        String phone = sessionService
-                .getString(chatId, "phone")
+        String phone = session
+                .getPhone()
                 .orElseThrow(() -> new DataNotFoundException("Phone not found in session"));
         log.debug("Loaded from session: phone={}", phone);
 
-        String email = sessionService
-                .getString(chatId, "email")
+        String email = session
+                .getEmail()
                 .orElseThrow(() -> new DataNotFoundException("Email not found in session"));
         log.debug("Loaded from session: email={}", email);
 
@@ -162,7 +165,7 @@ public class ConfirmBookingHandler implements CallbackHandler {
 
         InlineKeyboardMarkupDto replyMarkup = keyboardFactory.buildToMainMenuKeyboard();
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
@@ -15,7 +15,7 @@ import org.example.carrentalbot.reminder.ReminderService;
 import org.example.carrentalbot.service.BookingService;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.util.EnumSet;
@@ -67,9 +67,9 @@ public class ConfirmCancelMyBookingHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -98,8 +98,8 @@ public class ConfirmCancelMyBookingHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'confirm cancel my booking' flow");
 
-        UUID bookingId = sessionService
-                .getUUID(chatId, "bookingId")
+        UUID bookingId = sessionService.getSession(chatId)
+                .getBookingId()
                 .orElseThrow(() -> new DataNotFoundException("Booking id not found in session"));
         log.debug("Loaded from session: bookingId={}", bookingId);
 
@@ -124,7 +124,7 @@ public class ConfirmCancelMyBookingHandler implements CallbackHandler {
         sessionService.deleteAll(chatId);
         log.debug("Session cleared: chat id={}", chatId);
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
@@ -9,7 +9,9 @@ import org.example.carrentalbot.model.enums.CalendarAction;
 import org.example.carrentalbot.model.enums.CarBrowsingMode;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.session.SessionService;
+import org.example.carrentalbot.util.CalendarHelper;
 import org.example.carrentalbot.util.KeyboardFactory;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.example.carrentalbot.util.TelegramClient;
 import org.springframework.stereotype.Service;
 
@@ -53,10 +55,20 @@ public class ConfirmDatesHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Helper building the calendars of the chat, marking days the chosen car is booked.
+     */
+    private final CalendarHelper calendarHelper;
+
+    /**
+     * Client for editing messages via the Telegram Bot API.
      */
     private final TelegramClient telegramClient;
 
+    /**
+     * Renderer editing the bot's last message in place or sending a new one.
+     */
+    private final MessageRenderer messageRenderer;
+
     /**
      * {@inheritDoc}
      */
@@ -103,7 +115,7 @@ public class ConfirmDatesHandler implements CallbackHandler {
                 log.debug("Handling month change: action={}, yearPart={}, monthPart={}",
                         action, callbackParts[2], callbackParts[3]);
 
-                replyMarkup = handleMonthChange(callbackParts);
+                replyMarkup = handleMonthChange(chatId, callbackParts);
 
                 telegramClient.sendEditMessageReplyMarkup(EditMessageReplyMarkupDto.builder()
                         .chatId(chatId)
@@ -118,30 +130,14 @@ public class ConfirmDatesHandler implements CallbackHandler {
                 LocalDate endDate = extractDate(callbackParts);
                 log.debug("Extracted from callback: endDate={}", endDate);
 
-                LocalDate startDate = sessionService
-                        .getLocalDate(chatId, "startDate")
+                LocalDate startDate = sessionService.getSession(chatId)
+                        .getStartDate()
                         .orElseThrow(() -> new DataNotFoundException("Start date not found in session"));
                 log.debug("Loaded from session: startDate={}", startDate);
 
                 String text;
 
-                if (validateEndDate(startDate, endDate) && validateDuration(startDate, endDate)) {
-                    log.debug("End date and duration are valid: start date={} , end date={}", startDate, endDate);
-
-                    sessionService.put(chatId, "endDate", endDate);
-                    log.debug("Session updated: 'endDate' set to {}", endDate);
-
-                    String callbackKey = getDataForKeyboard(chatId);
-
-                    text = String.format("""
-                            Please confirm your dates:
-                            
-                            Start date: <b>%s</b>
-                            End date: <b>%s</b>
-                            """, startDate, endDate);
-
-                    replyMarkup = keyboardFactory.buildConfirmDatesKeyboard(callbackKey);
-                } else {
+                if (!validateEndDate(startDate, endDate) || !validateDuration(startDate, endDate)) {
                     log.debug("End date or duration is invalid: start date={} , end date={}", startDate, endDate);
 
                     text = """
@@ -157,9 +153,35 @@ public class ConfirmDatesHandler implements CallbackHandler {
                             """;
 
                     replyMarkup = keyboardFactory.buildInvalidDatesKeyboard();
+                } else if (calendarHelper.isRangeBooked(chatId, startDate, endDate)) {
+                    log.debug("Chosen car is booked within the range: start date={} , end date={}", startDate, endDate);
+
+                    text = """
+                            Sorry, this car is <b>already booked</b> on some days between your dates.
+                            
+                            Please choose different dates:
+                            """;
+
+                    replyMarkup = keyboardFactory.buildInvalidDatesKeyboard();
+                } else {
+                    log.debug("End date and duration are valid: start date={} , end date={}", startDate, endDate);
+
+                    sessionService.getSession(chatId).setEndDate(endDate);
+                    log.debug("Session updated: 'endDate' set to {}", endDate);
+
+                    String callbackKey = getDataForKeyboard(chatId);
+
+                    text = String.format("""
+                            Please confirm your dates:
+                            
+                            Start date: <b>%s</b>
+                            End date: <b>%s</b>
+                            """, startDate, endDate);
+
+                    replyMarkup = keyboardFactory.buildConfirmDatesKeyboard(callbackKey);
                 }
 
-                telegramClient.sendMessage(SendMessageDto.builder()
+                messageRenderer.render(callbackQuery, SendMessageDto.builder()
                         .chatId(chatId.toString())
                         .text(text)
                         .parseMode("HTML")
@@ -205,11 +227,12 @@ public class ConfirmDatesHandler implements CallbackHandler {
     /**
      * Resolves target month based on navigation action and builds calendar markup.
      *
+     * @param chatId chat identifier
      * @param callbackParts parsed callback segments
      * @return updated calendar keyboard
      * @throws InvalidDataException if required date parts are missing
      */
-    private InlineKeyboardMarkupDto handleMonthChange(String[] callbackParts) {
+    private InlineKeyboardMarkupDto handleMonthChange(Long chatId, String[] callbackParts) {
         if (callbackParts.length < 4) {
             throw new InvalidDataException("Missing year or month in callback");
         }
@@ -231,7 +254,7 @@ public class ConfirmDatesHandler implements CallbackHandler {
             }
         }
 
-        return keyboardFactory.buildCalendar(year, month, ConfirmDatesHandler.KEY + ":");
+        return calendarHelper.buildCalendar(chatId, year, month, ConfirmDatesHandler.KEY + ":");
     }
 
     /**
@@ -294,8 +317,8 @@ public class ConfirmDatesHandler implements CallbackHandler {
      * @throws DataNotFoundException if browsing mode is missing from session
      */
     private String getDataForKeyboard(Long chatId) {
-        CarBrowsingMode carBrowsingMode = sessionService
-                .getCarBrowsingMode(chatId, "carBrowsingMode")
+        CarBrowsingMode carBrowsingMode = sessionService.getSession(chatId)
+                .getCarBrowsingMode()
                 .orElseThrow(() -> new DataNotFoundException("Car browsing mode not found in session"));
         log.debug("Loaded from session: carBrowsingMode={}", carBrowsingMode);
 
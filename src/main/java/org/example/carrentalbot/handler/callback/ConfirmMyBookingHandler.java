@@ -12,9 +12,10 @@ import org.example.carrentalbot.model.Booking;
 import org.example.carrentalbot.model.enums.NotificationType;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.BookingService;
+import org.example.carrentalbot.session.ChatSession;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.math.RoundingMode;
@@ -63,9 +64,9 @@ public class ConfirmMyBookingHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -94,18 +95,20 @@ public class ConfirmMyBookingHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'confirm my booking' flow");
 
-        UUID bookingId = sessionService
-                .getUUID(chatId, "bookingId")
+        ChatSession session = sessionService.getSession(chatId);
+
+        UUID bookingId = session
+                .getBookingId()
                 .orElseThrow(() -> new DataNotFoundException("Booking id not found in message or session"));
         log.debug("Loaded from session: bookingId={}", bookingId);
 
-        String phone = sessionService
-                .getString(chatId, "phone")
+        String phone = session
+                .getPhone()
                 .orElse(null);
         log.debug("Loaded from session: phone={}", phone);
 
-        String email = sessionService
-                .getString(chatId, "email")
+        String email = session
+                .getEmail()
                 .orElse(null);
         log.debug("Loaded from session: email={}", email);
 
@@ -150,7 +153,7 @@ public class ConfirmMyBookingHandler implements CallbackHandler {
 
         InlineKeyboardMarkupDto replyMarkup = keyboardFactory.buildToMainMenuKeyboard();
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
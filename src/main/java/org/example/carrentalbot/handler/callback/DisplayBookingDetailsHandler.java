@@ -9,6 +9,7 @@ import org.example.carrentalbot.exception.DataNotFoundException;
 import org.example.carrentalbot.model.Car;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.*;
+import org.example.carrentalbot.session.ChatSession;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
 import org.example.carrentalbot.util.TelegramClient;
@@ -94,28 +95,30 @@ public class DisplayBookingDetailsHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'display booking details' flow");
 
-        UUID carId = sessionService
-                .getUUID(chatId, "carId")
+        ChatSession session = sessionService.getSession(chatId);
+
+        UUID carId = session
+                .getCarId()
                 .orElseThrow(() -> new DataNotFoundException("Car id not found in session"));
         log.debug("Loaded from session: carId={}", carId);
 
-        LocalDate startDate = sessionService
-                .getLocalDate(chatId, "startDate")
+        LocalDate startDate = session
+                .getStartDate()
                 .orElseThrow(() -> new DataNotFoundException("Start date not found in session"));
         log.debug("Loaded from session: startDate={}", startDate);
 
-        LocalDate endDate = sessionService
-                .getLocalDate(chatId, "endDate")
+        LocalDate endDate = session
+                .getEndDate()
                 .orElseThrow(() -> new DataNotFoundException("End date not found in session"));
         log.debug("Loaded from session: endDate={}", endDate);
 
-        String phone = sessionService
-                .getString(chatId, "phone")
+        String phone = session
+                .getPhone()
                 .orElseThrow(() -> new DataNotFoundException("Phone not found in session"));
         log.debug("Loaded from session: phone={}", phone);
 
-        String email = sessionService
-                .getString(chatId, "email")
+        String email = session
+                .getEmail()
                 .orElseThrow(() -> new DataNotFoundException("Email not found in session"));
         log.debug("Loaded from session: email={}", email);
 
@@ -124,12 +127,11 @@ public class DisplayBookingDetailsHandler implements CallbackHandler {
         BigDecimal dailyRate = car.getDailyRate().setScale(0, RoundingMode.HALF_UP);
 
         Integer totalDays = bookingService.calculateTotalDays(startDate, endDate);
-        sessionService.put(chatId, "totalDays", totalDays);
-        log.debug("Session updated: 'totalDays' set to {}", totalDays);
-
         BigDecimal totalCost = bookingService.calculateTotalCost(dailyRate, totalDays);
-        sessionService.put(chatId, "totalCost", totalCost);
-        log.debug("Session updated: 'totalCost' set to {}", totalCost);
+
+        session.setTotalDays(totalDays);
+        session.setTotalCost(totalCost);
+        log.debug("Session updated: 'totalDays' set to {}, 'totalCost' set to {}", totalDays, totalCost);
 
         String text = String.format("""
                          <b>Your booking details:</b>
@@ -126,8 +126,8 @@ public class DisplayCarDetailsHandler implements CallbackHandler {
         UUID fromCallback = extractCarIdFromCallback(callbackData);
         log.debug("Extracted from callback: car id={}", fromCallback);
 
-        UUID fromSession = sessionService
-                .getUUID(chatId, "carId")
+        UUID fromSession = sessionService.getSession(chatId)
+                .getCarId()
                 .orElse(null);
         log.debug("Loaded from session: carId={}", fromSession);
 
@@ -138,7 +138,7 @@ public class DisplayCarDetailsHandler implements CallbackHandler {
         UUID result = (fromCallback != null) ? fromCallback : fromSession;
 
         if (!result.equals(fromSession)) {
-            sessionService.put(chatId, "carId", result);
+            sessionService.getSession(chatId).setCarId(result);
             log.debug("Session updated: 'carId' set to {}", result);
         } else {
             log.debug("Session unchanged: 'carId' remains {}", result);
@@ -177,8 +177,8 @@ public class DisplayCarDetailsHandler implements CallbackHandler {
      * @throws DataNotFoundException if browsing mode is missing
      */
     private Map.Entry<String, String> getDataForKeyboard(Long chatId) {
-        CarBrowsingMode carBrowsingMode = sessionService
-                .getCarBrowsingMode(chatId, "carBrowsingMode")
+        CarBrowsingMode carBrowsingMode = sessionService.getSession(chatId)
+                .getCarBrowsingMode()
                 .orElseThrow(() -> new DataNotFoundException("Car browsing mode not found in session"));
         log.debug("Loaded from session: carBrowsingMode={}", carBrowsingMode);
 
@@ -12,7 +12,7 @@ import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.BookingService;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.math.RoundingMode;
@@ -57,9 +57,9 @@ public class DisplayMyBookingDetailsHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -124,7 +124,7 @@ public class DisplayMyBookingDetailsHandler implements CallbackHandler {
 
         InlineKeyboardMarkupDto replyMarkup = keyboardFactory.buildMyBookingDetailsKeyboard();
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
@@ -142,8 +142,8 @@ public class DisplayMyBookingDetailsHandler implements CallbackHandler {
         UUID fromCallback = extractBookingIdFromCallback(callbackData);
         log.debug("Extracted from callback: booking id={}", fromCallback);
 
-        UUID fromSession = sessionService
-                .getUUID(chatId, "bookingId")
+        UUID fromSession = sessionService.getSession(chatId)
+                .getBookingId()
                 .orElse(null);
         log.debug("Loaded from session: bookingId={}", fromSession);
 
@@ -154,7 +154,7 @@ public class DisplayMyBookingDetailsHandler implements CallbackHandler {
         UUID result = (fromCallback != null) ? fromCallback : fromSession;
 
         if (!result.equals(fromSession)) {
-            sessionService.put(chatId, "bookingId", result);
+            sessionService.getSession(chatId).setBookingId(result);
             log.debug("Session updated: 'bookingId' set to {}", result);
         } else {
             log.debug("Session unchanged: 'bookingId' remains {}", result);
@@ -11,7 +11,7 @@ import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.BookingService;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
@@ -56,9 +56,9 @@ public class DisplayMyBookingsHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -86,14 +86,14 @@ public class DisplayMyBookingsHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'display my bookings' flow");
 
-        sessionService.put(chatId, "flowContext", FlowContext.MY_BOOKINGS_FLOW);
+        sessionService.getSession(chatId).setFlowContext(FlowContext.MY_BOOKINGS_FLOW);
         log.debug("Session updated: 'flowContext' set to {}", FlowContext.MY_BOOKINGS_FLOW);
 
         List<Booking> bookings = bookingService.getBookingsByCustomerTelegramId(callbackQuery.getFrom().getId());
         log.info("Fetched {} bookings for user: telegram user id={}", bookings.size(), callbackQuery.getFrom().getId());
 
         if (bookings.isEmpty()) {
-            telegramClient.sendMessage(SendMessageDto.builder()
+            messageRenderer.render(callbackQuery, SendMessageDto.builder()
                     .chatId(chatId.toString())
                     .text("📭 You have no bookings at the moment.")
                     .parseMode("HTML")
@@ -122,7 +122,7 @@ public class DisplayMyBookingsHandler implements CallbackHandler {
 
             InlineKeyboardMarkupDto replyMarkup = keyboardFactory.buildMyBookingsKeyboard(booking.getId());
 
-            telegramClient.sendMessage(SendMessageDto.builder()
+            messageRenderer.render(callbackQuery, SendMessageDto.builder()
                     .chatId(chatId.toString())
                     .text(text)
                     .parseMode("HTML")
@@ -9,7 +9,7 @@ import org.example.carrentalbot.exception.DataNotFoundException;
 import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.util.EnumSet;
@@ -45,9 +45,9 @@ public class EditBookingHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * {@inheritDoc}
@@ -76,13 +76,13 @@ public class EditBookingHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'edit booking' flow");
 
-        FlowContext flowContext = sessionService
-                .getFlowContext(chatId, "flowContext")
+        FlowContext flowContext = sessionService.getSession(chatId)
+                .getFlowContext()
                 .orElseThrow(() -> new DataNotFoundException("Flow context not found in session"));
         log.debug("Loaded from session: flowContext={}", flowContext);
 
         if (flowContext == FlowContext.BOOKING_FLOW) {
-            sessionService.put(chatId, "flowContext", FlowContext.EDIT_BOOKING_FLOW);
+            sessionService.getSession(chatId).setFlowContext(FlowContext.EDIT_BOOKING_FLOW);
             log.debug("Session updated: 'flowContext' set to {}", FlowContext.EDIT_BOOKING_FLOW);
         }
 
@@ -98,7 +98,7 @@ public class EditBookingHandler implements CallbackHandler {
 
         InlineKeyboardMarkupDto replyMarkup = keyboardFactory.buildEditBookingKeyboard(DisplayBookingDetailsHandler.KEY);
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
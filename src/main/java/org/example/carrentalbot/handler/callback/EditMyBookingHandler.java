@@ -12,7 +12,7 @@ import org.example.carrentalbot.model.enums.FlowContext;
 import org.example.carrentalbot.service.BookingService;
 import org.example.carrentalbot.session.SessionService;
 import org.example.carrentalbot.util.KeyboardFactory;
-import org.example.carrentalbot.util.TelegramClient;
+import org.example.carrentalbot.util.MessageRenderer;
 import org.springframework.stereotype.Service;
 
 import java.time.Clock;
@@ -56,9 +56,9 @@ public class EditMyBookingHandler implements CallbackHandler {
     private final KeyboardFactory keyboardFactory;
 
     /**
-     * Client for sending messages via the Telegram Bot API.
+     * Renderer editing the bot's last message in place or sending a new one.
      */
-    private final TelegramClient telegramClient;
+    private final MessageRenderer messageRenderer;
 
     /**
      * Clock used for time-based validation to allow testability and consistent time access.
@@ -92,8 +92,8 @@ public class EditMyBookingHandler implements CallbackHandler {
     public void handle(Long chatId, CallbackQueryDto callbackQuery) {
         log.info("Processing 'edit my booking' flow");
 
-        UUID bookingId = sessionService
-                .getUUID(chatId, "bookingId")
+        UUID bookingId = sessionService.getSession(chatId)
+                .getBookingId()
                 .orElseThrow(() -> new DataNotFoundException("Booking id not found in session"));
         log.debug("Loaded from session: bookingId={}", bookingId);
 
@@ -136,7 +136,7 @@ public class EditMyBookingHandler implements CallbackHandler {
             replyMarkup = keyboardFactory.buildEditBookingKeyboard(ConfirmMyBookingHandler.KEY);
         }
 
-        telegramClient.sendMessage(SendMessageDto.builder()
+        messageRenderer.render(callbackQuery, SendMessageDto.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .parseMode("HTML")
@@ -60,8 +60,8 @@ public class ConfirmEmailHandler implements TextHandler {
      * {@inheritDoc}
      */
     @Override
-    public boolean canHandle(String text) {
-        return text != null && EMAIL_PATTERN.matcher(text.trim()).matches();
+    public Pattern getPattern() {
+        return EMAIL_PATTERN;
     }
 
     /**
@@ -83,7 +83,7 @@ public class ConfirmEmailHandler implements TextHandler {
     public void handle(Long chatId, String email) {
         log.info("Processing 'confirm email' flow");
 
-        sessionService.put(chatId, "email", email);
+        sessionService.getSession(chatId).setEmail(email);
         log.debug("Session updated: 'email' set to {}", email);
 
         String text = String.format("""
@@ -113,8 +113,8 @@ public class ConfirmEmailHandler implements TextHandler {
      * @return callback key for next handler
      */
     private String getDataForKeyboard(Long chatId) {
-        FlowContext flowContext = sessionService
-                .getFlowContext(chatId, "flowContext")
+        FlowContext flowContext = sessionService.getSession(chatId)
+                .getFlowContext()
                 .orElseThrow(() -> new DataNotFoundException("Flow context not found in session."));
         log.debug("Loaded from session: flowContext={}", flowContext);
 
@@ -59,8 +59,8 @@ public class ConfirmPhoneHandler implements TextHandler {
      * {@inheritDoc}
      */
     @Override
-    public boolean canHandle(String text) {
-        return text != null && PHONE_PATTERN.matcher(text.trim()).matches();
+    public Pattern getPattern() {
+        return PHONE_PATTERN;
     }
 
     /**
@@ -82,7 +82,7 @@ public class ConfirmPhoneHandler implements TextHandler {
     public void handle(Long chatId, String phone) {
         log.info("Processing 'confirm phone' flow");
 
-        sessionService.put(chatId, "phone", phone);
+        sessionService.getSession(chatId).setPhone(phone);
         log.debug("Session updated: 'phone' set to {}", phone);
 
         String text = String.format("""
@@ -112,8 +112,8 @@ public class ConfirmPhoneHandler implements TextHandler {
      * @return callback key for next handler
      */
     private String getDataForKeyboard(Long chatId) {
-        FlowContext flowContext = sessionService
-                .getFlowContext(chatId, "flowContext")
+        FlowContext flowContext = sessionService.getSession(chatId)
+                .getFlowContext()
                 .orElseThrow(() -> new DataNotFoundException("Flow context not found in session."));
         log.debug("Loaded from session: flowContext={}", flowContext);
 
@@ -10,6 +10,7 @@ import org.example.carrentalbot.util.TelegramClient;
 import org.springframework.stereotype.Service;
 
 import java.util.EnumSet;
+import java.util.regex.Pattern;
 
 /**
  * Fallback text handler used when no other handler can process the input.
@@ -28,6 +29,11 @@ public class FallbackTextHandler implements TextHandler {
      */
     private static final EnumSet<FlowContext> ALLOWED_CONTEXTS = EnumSet.allOf(FlowContext.class);
 
+    /**
+     * Pattern that never matches; the fallback is selected explicitly, not by pattern.
+     */
+    private static final Pattern NO_MATCH = Pattern.compile("(?!)");
+
     /**
      * Factory for building navigation keyboards.
      */
@@ -38,6 +44,14 @@ public class FallbackTextHandler implements TextHandler {
      */
     private final TelegramClient telegramClient;
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Pattern getPattern() {
+        return NO_MATCH;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -3,6 +3,7 @@ package org.example.carrentalbot.handler.text;
 import org.example.carrentalbot.model.enums.FlowContext;
 
 import java.util.EnumSet;
+import java.util.regex.Pattern;
 
 /**
  * Contract for handling free-form text input from users.
@@ -11,14 +12,27 @@ import java.util.EnumSet;
  */
 public interface TextHandler {
 
+    /**
+     * Returns the pattern the whole (trimmed) input must match for this handler.
+     * <p>Patterns of all text handlers are combined into a single precompiled matcher
+     * per flow context, so they must not use flags, capturing groups (numbered or named)
+     * or backreferences such as {@code \1}; use non-capturing groups {@code (?:...)}.
+     * Such patterns are rejected at startup.</p>
+     *
+     * @return input pattern
+     */
+    Pattern getPattern();
+
     /**
      * Checks whether this handler can process the given text.
-     * <p>Evaluates the input string against the regex pattern.</p>
+     * <p>Evaluates the trimmed input string against the {@link #getPattern() pattern}.</p>
      *
      * @param text raw user input
      * @return {@code true} if the text can be handled, otherwise {@code false}
      */
-    boolean canHandle(String text);
+    default boolean canHandle(String text) {
+        return text != null && getPattern().matcher(text.trim()).matches();
+    }
 
     /**
      * Returns the flow contexts in which this handler is allowed to execute.
@@ -0,0 +1,32 @@
+package org.example.carrentalbot.ingest;
+
+/**
+ * Outcome of admitting an incoming update into the processing pipeline.
+ */
+public enum AdmissionResult {
+
+    /**
+     * Update was dispatched for processing.
+     */
+    ACCEPTED,
+
+    /**
+     * Update was stored in the local spill queue and will be dispatched later.
+     */
+    SPILLED,
+
+    /**
+     * Update was dropped as low priority.
+     */
+    SHED,
+
+    /**
+     * Update was not accepted; the sender should redeliver it later.
+     */
+    REJECTED,
+
+    /**
+     * Update with this id was already received; the redelivery is ignored.
+     */
+    DUPLICATE
+}
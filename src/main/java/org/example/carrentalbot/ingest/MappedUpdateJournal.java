@@ -0,0 +1,541 @@
+package org.example.carrentalbot.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.JournalProperties;
+import org.example.carrentalbot.dto.UpdateDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only {@link UpdateJournal} backed by memory-mapped segment files.
+ * <p>Each segment is a pre-allocated file of fixed size holding a sequence of records:</p>
+ * <pre>
+ *   int length | byte type | long updateId | int crc32 | byte[length] payload
+ * </pre>
+ * <p>{@code UPDATE} records carry the JSON-encoded update, {@code ACK} records have an
+ * empty payload. A zeroed header marks the end of the written part of a segment, a
+ * checksum mismatch marks a torn write.</p>
+ * <p>Writes are group-committed: appenders copy their record into the mapped segment
+ * and wait, while a single flusher thread forces all records written since the last
+ * flush to disk at once and then releases every waiting appender. An append therefore
+ * waits for one {@code force()} that it shares with all appends arriving meanwhile, not
+ * for a force of its own; how long that takes depends on the disk.</p>
+ * <p>Acknowledgements neither wait for nor request a flush. They reach the disk with
+ * the next commit of an update, on roll-over to a new segment or on close. An
+ * acknowledgement lost in a crash only makes its update replay once more.</p>
+ * <p>An {@code ACK} record is written to the active segment, which may be later than
+ * the segment holding its update. Segments are therefore deleted from the oldest one on,
+ * once all of their updates are acknowledged: a segment is never deleted while an earlier
+ * segment, whose acknowledgements it may hold, still exists.</p>
+ * <p>On startup, existing segments are scanned and unacknowledged updates are offered
+ * for replay through {@link #recoverUnacknowledged()}.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "telegram.journal", name = "enabled", havingValue = "true")
+public class MappedUpdateJournal implements UpdateJournal {
+
+    private static final byte TYPE_UPDATE = 1;
+    private static final byte TYPE_ACK = 2;
+    static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES + Long.BYTES + Integer.BYTES;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Maximum time an appender waits for its record to be committed.
+     */
+    private static final long COMMIT_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Mapper used to encode and decode journaled updates.
+     */
+    private final ObjectMapper objectMapper;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataWritten = lock.newCondition();
+    private final Condition dataCommitted = lock.newCondition();
+
+    /**
+     * Segments not yet deleted, by sequence number.
+     */
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+
+    /**
+     * Segment sequence number of every unacknowledged update, by update id.
+     */
+    private final Map<Long, Long> pendingUpdates = new HashMap<>();
+
+    private List<UpdateDto> recovered;
+    private Segment active;
+
+    /**
+     * Total number of bytes written, and committed to disk, since startup.
+     */
+    private long writtenBytes;
+    private long committedBytes;
+
+    /**
+     * Number of written bytes appenders are waiting to be committed.
+     */
+    private long requestedBytes;
+
+    /**
+     * Offset in the active segment up to which data has been forced to disk.
+     */
+    private int flushedOffset;
+
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+    public MappedUpdateJournal(ObjectMapper objectMapper, JournalProperties journalProperties) throws IOException {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(journalProperties.directory());
+        this.segmentSize = Math.toIntExact(journalProperties.segmentSize().toBytes());
+
+        Files.createDirectories(directory);
+        this.recovered = recover();
+
+        long nextSequence = segments.keySet().stream().mapToLong(Long::longValue).max().orElse(0L) + 1;
+        this.active = openSegment(nextSequence);
+
+        this.flusher = new Thread(this::flushLoop, "JournalFlusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+
+        log.info("Update journal opened in {}: {} unacknowledged updates to replay", directory, recovered.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the journal is closed or the commit times out or
+     *                               is interrupted; the update is then not journaled
+     */
+    @Override
+    public void append(UpdateDto update) {
+        appendAll(List.of(update));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>All records are written before waiting, so the batch shares a single commit.</p>
+     * <p>If the commit times out or the caller is interrupted, the records of this call
+     * are cancelled before the exception is thrown, as if they had been acknowledged: the
+     * caller reports the updates as not accepted, so they are neither replayed on the next
+     * start nor do they keep their segment from being deleted. An update redelivered by
+     * Telegram afterwards is journaled again.</p>
+     *
+     * @throws IllegalStateException if the journal is closed or the commit times out or
+     *                               is interrupted; the updates are then not journaled
+     */
+    @Override
+    public void appendAll(List<UpdateDto> updates) {
+        List<UpdateDto> journaled = new ArrayList<>(updates.size());
+        List<byte[]> payloads = new ArrayList<>(updates.size());
+        for (UpdateDto update : updates) {
+            if (update.getUpdateId() == null) {
+                log.warn("Update without id is not journaled");
+                continue;
+            }
+            try {
+                payloads.add(objectMapper.writeValueAsBytes(update));
+            } catch (JsonProcessingException exception) {
+                throw new IllegalArgumentException("Update %s cannot be serialized".formatted(update.getUpdateId()), exception);
+            }
+            journaled.add(update);
+        }
+        if (journaled.isEmpty()) {
+            return;
+        }
+
+        List<Long> written = new ArrayList<>(journaled.size());
+        lock.lock();
+        try {
+            ensureOpen();
+            for (int i = 0; i < journaled.size(); i++) {
+                long updateId = journaled.get(i).getUpdateId();
+                if (pendingUpdates.containsKey(updateId)) {
+                    continue;
+                }
+
+                write(TYPE_UPDATE, updateId, payloads.get(i));
+                pendingUpdates.put(updateId, active.sequence);
+                active.unacknowledged++;
+                written.add(updateId);
+            }
+
+            long target = writtenBytes;
+            if (requestedBytes < target) {
+                requestedBytes = target;
+                dataWritten.signal();
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COMMIT_TIMEOUT_MILLIS);
+            while (committedBytes < target) {
+                ensureOpen();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    cancel(written);
+                    throw new IllegalStateException("Timed out committing %d updates".formatted(journaled.size()));
+                }
+                dataCommitted.awaitNanos(remaining);
+            }
+        } catch (InterruptedException exception) {
+            cancel(written);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while committing %d updates".formatted(journaled.size()), exception);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels records whose commit failed by acknowledging them.
+     * <p>Must be called while holding the lock.</p>
+     */
+    private void cancel(List<Long> updateIds) {
+        if (!running) {
+            return;
+        }
+        updateIds.forEach(this::release);
+        log.warn("Cancelled {} journal records after a failed commit", updateIds.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Acknowledgements after the journal has been closed are ignored; the affected
+     * updates are replayed on the next start.</p>
+     */
+    @Override
+    public void acknowledge(UpdateDto update) {
+        if (update.getUpdateId() == null) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            release(update.getUpdateId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the {@code ACK} record of a pending update and deletes the segments that
+     * are no longer needed.
+     * <p>Must be called while holding the lock.</p>
+     */
+    private void release(long updateId) {
+        Long sequence = pendingUpdates.remove(updateId);
+        if (sequence == null) {
+            return;
+        }
+
+        write(TYPE_ACK, updateId, new byte[0]);
+
+        Segment segment = segments.get(sequence);
+        if (segment != null && --segment.unacknowledged == 0) {
+            deleteAcknowledgedSegments();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UpdateDto> recoverUnacknowledged() {
+        lock.lock();
+        try {
+            List<UpdateDto> result = recovered;
+            recovered = List.of();
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a record into the active segment, rolling over to a new segment if needed.
+     * <p>Must be called while holding the lock.</p>
+     */
+    private void write(byte type, long updateId, byte[] payload) {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Journal record of %d bytes exceeds segment size".formatted(recordSize));
+        }
+
+        if (active.position + recordSize > segmentSize - HEADER_SIZE) {
+            roll();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        MappedByteBuffer buffer = active.buffer;
+        int offset = active.position;
+        buffer.put(offset + HEADER_SIZE, payload);
+        buffer.putLong(offset + Integer.BYTES + Byte.BYTES, updateId);
+        buffer.putInt(offset + Integer.BYTES + Byte.BYTES + Long.BYTES, (int) crc.getValue());
+        buffer.put(offset + Integer.BYTES, type);
+        buffer.putInt(offset, payload.length);
+
+        active.position += recordSize;
+        writtenBytes += recordSize;
+    }
+
+    /**
+     * Forces the active segment to disk and continues in a new one.
+     * <p>Must be called while holding the lock.</p>
+     */
+    private void roll() {
+        Segment previous = active;
+        previous.buffer.force();
+        committedBytes = writtenBytes;
+        dataCommitted.signalAll();
+
+        active = openSegment(previous.sequence + 1);
+        flushedOffset = 0;
+
+        deleteAcknowledgedSegments();
+    }
+
+    /**
+     * Deletes fully acknowledged segments, starting with the oldest one.
+     * <p>Stops at the first segment that still has an unacknowledged update, or at the
+     * active segment, so that no segment is deleted before an earlier one.</p>
+     * <p>Must be called while holding the lock.</p>
+     */
+    private void deleteAcknowledgedSegments() {
+        while (!segments.isEmpty()) {
+            Segment oldest = segments.firstEntry().getValue();
+            if (oldest == active || oldest.unacknowledged > 0) {
+                return;
+            }
+            deleteSegment(oldest);
+        }
+    }
+
+    /**
+     * Flusher loop forcing written data to disk in groups.
+     */
+    private void flushLoop() {
+        while (running) {
+            Segment segment;
+            int from;
+            int to;
+            long target;
+
+            lock.lock();
+            try {
+                while (running && committedBytes >= requestedBytes) {
+                    dataWritten.awaitUninterruptibly();
+                }
+                if (!running) {
+                    return;
+                }
+                segment = active;
+                from = flushedOffset;
+                to = segment.position;
+                target = writtenBytes;
+            } finally {
+                lock.unlock();
+            }
+
+            if (to > from) {
+                segment.buffer.force(from, to - from);
+            }
+
+            lock.lock();
+            try {
+                if (segment == active) {
+                    flushedOffset = to;
+                }
+                committedBytes = Math.max(committedBytes, target);
+                dataCommitted.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Scans existing segments and collects unacknowledged updates in append order.
+     * <p>Fully acknowledged segments are deleted from the oldest one on.</p>
+     */
+    private List<UpdateDto> recover() throws IOException {
+        Map<Long, UpdateDto> unacknowledged = new LinkedHashMap<>();
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted(Comparator.comparingLong(MappedUpdateJournal::sequenceOf))
+                    .toList();
+        }
+
+        for (Path file : files) {
+            long sequence = sequenceOf(file);
+            Segment segment = mapSegment(file, sequence);
+            scan(segment, unacknowledged);
+            segments.put(sequence, segment);
+        }
+
+        for (Map.Entry<Long, UpdateDto> entry : unacknowledged.entrySet()) {
+            Long sequence = pendingUpdates.get(entry.getKey());
+            segments.get(sequence).unacknowledged++;
+        }
+
+        deleteAcknowledgedSegments();
+
+        return new ArrayList<>(unacknowledged.values());
+    }
+
+    /**
+     * Reads all valid records of a segment into the recovery state.
+     */
+    private void scan(Segment segment, Map<Long, UpdateDto> unacknowledged) {
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+
+        while (offset + HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(offset);
+            byte type = buffer.get(offset + Integer.BYTES);
+            if (type != TYPE_UPDATE && type != TYPE_ACK) {
+                break;
+            }
+            if (length < 0 || offset + HEADER_SIZE + length > segmentSize) {
+                log.warn("Corrupt journal record in segment {} at offset {}", segment.sequence, offset);
+                break;
+            }
+
+            long updateId = buffer.getLong(offset + Integer.BYTES + Byte.BYTES);
+            int checksum = buffer.getInt(offset + Integer.BYTES + Byte.BYTES + Long.BYTES);
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_SIZE, payload);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Torn journal record in segment {} at offset {}", segment.sequence, offset);
+                break;
+            }
+
+            if (type == TYPE_UPDATE) {
+                try {
+                    unacknowledged.put(updateId, objectMapper.readValue(payload, UpdateDto.class));
+                    pendingUpdates.put(updateId, segment.sequence);
+                } catch (IOException exception) {
+                    log.error("Unreadable journaled update {} skipped", updateId, exception);
+                }
+            } else {
+                unacknowledged.remove(updateId);
+                pendingUpdates.remove(updateId);
+            }
+
+            offset += HEADER_SIZE + length;
+        }
+
+        segment.position = offset;
+    }
+
+    private Segment openSegment(long sequence) {
+        Path file = directory.resolve(SEGMENT_PREFIX + sequence + SEGMENT_SUFFIX);
+        try {
+            Segment segment = mapSegment(file, sequence);
+            segments.put(sequence, segment);
+            return segment;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to open journal segment " + file, exception);
+        }
+    }
+
+    private Segment mapSegment(Path file, long sequence) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (raf.length() < segmentSize) {
+                raf.setLength(segmentSize);
+            }
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(sequence, file, buffer);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        segments.remove(segment.sequence);
+        try {
+            Files.deleteIfExists(segment.file);
+            log.debug("Deleted fully acknowledged journal segment {}", segment.sequence);
+        } catch (IOException exception) {
+            log.warn("Failed to delete journal segment {}", segment.file, exception);
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void ensureOpen() {
+        if (!running) {
+            throw new IllegalStateException("Update journal is closed");
+        }
+    }
+
+    /**
+     * Stops the flusher and forces all written data to disk.
+     */
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            active.buffer.force();
+            committedBytes = writtenBytes;
+            dataWritten.signalAll();
+            dataCommitted.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Update journal closed with {} unacknowledged updates", pendingUpdates.size());
+    }
+
+    /**
+     * Memory-mapped segment file.
+     */
+    private static final class Segment {
+
+        private final long sequence;
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int unacknowledged;
+
+        private Segment(long sequence, Path file, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+}
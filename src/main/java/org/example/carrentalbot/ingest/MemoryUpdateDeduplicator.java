@@ -0,0 +1,138 @@
+package org.example.carrentalbot.ingest;
+
+import org.example.carrentalbot.config.DeduplicationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * In-process {@link UpdateDeduplicator} remembering a bounded window of recent update ids.
+ * <p>Ids are kept in a ring buffer in arrival order; when the ring is full the oldest id
+ * is evicted. Membership is answered by an open-addressing hash table of primitive
+ * {@code long} values with linear probing, so registration is O(1) and does not
+ * allocate. The table is exact: unlike a Bloom filter it never reports a fresh update
+ * as a duplicate, and evicted ids can be removed from it.</p>
+ * <p>Each table entry also holds the ring slot of its id. A forgotten id is cleared from
+ * its slot, so that the slot cannot evict the id once it is registered again.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "telegram.dedup", name = "mode", havingValue = "MEMORY", matchIfMissing = true)
+public class MemoryUpdateDeduplicator implements UpdateDeduplicator {
+
+    /**
+     * Marker of an unused slot; Telegram update ids are positive.
+     */
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] ring;
+    private final long[] table;
+    private final int[] slots;
+    private final int mask;
+
+    /**
+     * Next ring slot to write, and number of ids currently held in the ring.
+     */
+    private int head;
+    private int size;
+
+    public MemoryUpdateDeduplicator(DeduplicationProperties deduplicationProperties) {
+        int windowSize = deduplicationProperties.windowSize();
+        if (windowSize < 1) {
+            throw new IllegalStateException("telegram.dedup.window-size must be positive");
+        }
+
+        this.ring = new long[windowSize];
+        Arrays.fill(ring, EMPTY);
+
+        int capacity = Integer.highestOneBit(Math.max(2, windowSize * 2 - 1)) << 1;
+        this.table = new long[capacity];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(table, EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean register(long updateId) {
+        if (find(updateId) >= 0) {
+            return false;
+        }
+
+        if (size == ring.length) {
+            if (ring[head] != EMPTY) {
+                remove(find(ring[head]));
+            }
+        } else {
+            size++;
+        }
+        ring[head] = updateId;
+        insert(updateId, head);
+        head = (head + 1) % ring.length;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The ring slot of a forgotten id is cleared but stays in the ring; it is reused
+     * once it is the oldest slot.</p>
+     */
+    @Override
+    public synchronized void forget(long updateId) {
+        int i = find(updateId);
+        if (i >= 0) {
+            ring[slots[i]] = EMPTY;
+            remove(i);
+        }
+    }
+
+    private int home(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the table index of a key, or {@code -1} if the key is not in the table.
+     */
+    private int find(long key) {
+        for (int i = home(key); table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long key, int slot) {
+        int i = home(key);
+        while (table[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+        slots[i] = slot;
+    }
+
+    /**
+     * Removes the entry at the given table index using backward-shift deletion, which
+     * keeps probe chains intact without tombstones.
+     */
+    private void remove(int i) {
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (table[j] == EMPTY) {
+                break;
+            }
+            int k = home(table[j]);
+            boolean staysInPlace = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+            if (!staysInPlace) {
+                table[i] = table[j];
+                slots[i] = slots[j];
+                i = j;
+            }
+        }
+        table[i] = EMPTY;
+    }
+}
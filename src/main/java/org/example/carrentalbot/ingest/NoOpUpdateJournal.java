@@ -0,0 +1,38 @@
+package org.example.carrentalbot.ingest;
+
+import org.example.carrentalbot.dto.UpdateDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@link UpdateJournal} used when journaling is disabled.
+ * <p>Accepted updates only live in memory until they are processed.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "telegram.journal", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpUpdateJournal implements UpdateJournal {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void append(UpdateDto update) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acknowledge(UpdateDto update) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UpdateDto> recoverUnacknowledged() {
+        return List.of();
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.carrentalbot.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.example.carrentalbot.config.DeduplicationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis-backed {@link UpdateDeduplicator} shared by all application instances.
+ * <p>Each seen update id is stored under a key prefixed with {@code update:} using
+ * {@code SET NX} with the configured expiry, so registration is a single round trip.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "telegram.dedup", name = "mode", havingValue = "REDIS")
+public class RedisUpdateDeduplicator implements UpdateDeduplicator {
+
+    /**
+     * Redis key prefix for seen update ids.
+     */
+    private static final String KEY_PREFIX = "update:";
+
+    /**
+     * Redis template used for update id tracking.
+     */
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * Deduplication settings.
+     */
+    private final DeduplicationProperties deduplicationProperties;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean register(long updateId) {
+        Boolean added = redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + updateId, "1", deduplicationProperties.ttl());
+        return Boolean.TRUE.equals(added);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forget(long updateId) {
+        redisTemplate.delete(KEY_PREFIX + updateId);
+    }
+}
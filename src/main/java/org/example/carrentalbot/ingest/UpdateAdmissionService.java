@@ -0,0 +1,38 @@
+package org.example.carrentalbot.ingest;
+
+import org.example.carrentalbot.dto.UpdateDto;
+
+import java.util.List;
+
+/**
+ * Admission control in front of the update processing pipeline.
+ * <p>Decides, based on the current processing backlog and the configured overflow
+ * policy, whether an incoming update is dispatched, deferred, dropped or rejected.</p>
+ */
+public interface UpdateAdmissionService {
+
+    /**
+     * Attempts to admit a single update for processing.
+     *
+     * @param update non-null Telegram update
+     * @return outcome of the admission
+     */
+    AdmissionResult admit(UpdateDto update);
+
+    /**
+     * Attempts to admit a batch of updates for processing.
+     * <p>Capacity is granted to a prefix of the batch, so once an update is not dispatched
+     * no later update of the batch is dispatched either.</p>
+     *
+     * @param updates non-null Telegram updates
+     * @return outcome of the admission for each update, in batch order
+     */
+    List<AdmissionResult> admitAll(List<UpdateDto> updates);
+
+    /**
+     * Returns the delay after which rejected updates should be redelivered.
+     *
+     * @return retry delay in seconds
+     */
+    int getRetryAfterSeconds();
+}
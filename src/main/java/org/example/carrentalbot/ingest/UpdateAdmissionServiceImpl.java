@@ -0,0 +1,267 @@
+package org.example.carrentalbot.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.AdmissionProperties;
+import org.example.carrentalbot.dto.UpdateDto;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Default implementation of {@link UpdateAdmissionService}.
+ * <p>An update is dispatched while the number of pending updates reported by the
+ * {@link UpdateDispatcher} stays below the configured limit and the executor accepts
+ * the work. Otherwise the configured {@link AdmissionProperties.OverflowPolicy} applies:</p>
+ * <ul>
+ *   <li>{@code SPILL} — the update is appended to a bounded local queue that is drained
+ *       as soon as capacity frees up; when the spill queue is full the update is rejected</li>
+ *   <li>{@code SHED} — updates of low-priority kinds are dropped, all others are rejected</li>
+ *   <li>{@code REJECT} — the update is rejected</li>
+ * </ul>
+ * <p>While the spill queue is not empty, new updates are appended behind it so that
+ * updates of one chat are never reordered.</p>
+ * <p>Batches are admitted as a whole: the prefix that fits under the pending limit is
+ * handed to the dispatcher in a single call and the overflow policy applies to the rest.</p>
+ * <p>Admission outcomes are published as the {@code telegram.updates.admission} counter
+ * tagged by {@code result}, together with gauges for the pending and spilled updates.
+ * Duplicates never reach admission control; they are counted by the
+ * {@link UpdateIngestionService}.</p>
+ */
+@Slf4j
+@Component
+public class UpdateAdmissionServiceImpl implements UpdateAdmissionService {
+
+    /**
+     * Dispatcher processing admitted updates.
+     */
+    private final UpdateDispatcher updateDispatcher;
+
+    /**
+     * Admission limits and overflow policy.
+     */
+    private final AdmissionProperties admissionProperties;
+
+    /**
+     * Updates deferred under the {@code SPILL} policy, guarded by its own monitor.
+     */
+    private final Deque<UpdateDto> spillQueue = new ArrayDeque<>();
+
+    /**
+     * Admission outcome counters.
+     */
+    private final Map<AdmissionResult, Counter> counters = new EnumMap<>(AdmissionResult.class);
+
+    public UpdateAdmissionServiceImpl(UpdateDispatcher updateDispatcher,
+                                      AdmissionProperties admissionProperties,
+                                      MeterRegistry meterRegistry) {
+        this.updateDispatcher = updateDispatcher;
+        this.admissionProperties = admissionProperties;
+
+        for (AdmissionResult result : EnumSet.complementOf(EnumSet.of(AdmissionResult.DUPLICATE))) {
+            counters.put(result, Counter.builder("telegram.updates.admission")
+                    .description("Incoming Telegram updates by admission outcome")
+                    .tag("result", result.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        Gauge.builder("telegram.updates.pending", updateDispatcher, UpdateDispatcher::getPendingCount)
+                .description("Dispatched Telegram updates that have not finished processing")
+                .register(meterRegistry);
+
+        Gauge.builder("telegram.updates.spilled", this, UpdateAdmissionServiceImpl::getSpillSize)
+                .description("Telegram updates waiting in the local spill queue")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AdmissionResult admit(UpdateDto update) {
+        AdmissionResult result = doAdmit(update);
+        counters.get(result).increment();
+
+        if (result != AdmissionResult.ACCEPTED) {
+            log.warn("Update {} not dispatched: result={}, pending={}, spilled={}",
+                    update.getUpdateId(), result, updateDispatcher.getPendingCount(), getSpillSize());
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<AdmissionResult> admitAll(List<UpdateDto> updates) {
+        List<AdmissionResult> results = doAdmitAll(updates);
+
+        int notDispatched = 0;
+        for (AdmissionResult result : results) {
+            counters.get(result).increment();
+            if (result != AdmissionResult.ACCEPTED) {
+                notDispatched++;
+            }
+        }
+
+        if (notDispatched > 0) {
+            log.warn("{} of {} batched updates not dispatched: pending={}, spilled={}",
+                    notDispatched, updates.size(), updateDispatcher.getPendingCount(), getSpillSize());
+        }
+        return results;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRetryAfterSeconds() {
+        return admissionProperties.retryAfterSeconds();
+    }
+
+    private AdmissionResult doAdmit(UpdateDto update) {
+        if (admissionProperties.overflowPolicy() == AdmissionProperties.OverflowPolicy.SPILL) {
+            synchronized (spillQueue) {
+                drainSpillQueue();
+                if (!spillQueue.isEmpty()) {
+                    return spill(update);
+                }
+                return tryDispatch(update) ? AdmissionResult.ACCEPTED : spill(update);
+            }
+        }
+
+        if (tryDispatch(update)) {
+            return AdmissionResult.ACCEPTED;
+        }
+
+        if (admissionProperties.overflowPolicy() == AdmissionProperties.OverflowPolicy.SHED
+                && admissionProperties.lowPriorityKinds().contains(UpdateKind.of(update))) {
+            return AdmissionResult.SHED;
+        }
+
+        return AdmissionResult.REJECTED;
+    }
+
+    private List<AdmissionResult> doAdmitAll(List<UpdateDto> updates) {
+        List<AdmissionResult> results = new ArrayList<>(updates.size());
+
+        if (admissionProperties.overflowPolicy() == AdmissionProperties.OverflowPolicy.SPILL) {
+            synchronized (spillQueue) {
+                drainSpillQueue();
+                if (!spillQueue.isEmpty()) {
+                    updates.forEach(update -> results.add(spill(update)));
+                    return results;
+                }
+                Set<UpdateDto> dispatched = tryDispatchAll(updates);
+                for (UpdateDto update : updates) {
+                    results.add(dispatched.contains(update) ? AdmissionResult.ACCEPTED : spill(update));
+                }
+                return results;
+            }
+        }
+
+        Set<UpdateDto> dispatched = tryDispatchAll(updates);
+        for (UpdateDto update : updates) {
+            if (dispatched.contains(update)) {
+                results.add(AdmissionResult.ACCEPTED);
+            } else if (admissionProperties.overflowPolicy() == AdmissionProperties.OverflowPolicy.SHED
+                    && admissionProperties.lowPriorityKinds().contains(UpdateKind.of(update))) {
+                results.add(AdmissionResult.SHED);
+            } else {
+                results.add(AdmissionResult.REJECTED);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Dispatches the longest prefix of the batch the pending limit allows.
+     *
+     * @return identity set of the dispatched updates
+     */
+    private Set<UpdateDto> tryDispatchAll(List<UpdateDto> updates) {
+        int capacity = admissionProperties.maxPendingUpdates() - updateDispatcher.getPendingCount();
+        if (capacity <= 0) {
+            return Set.of();
+        }
+
+        List<UpdateDto> admitted = updates.subList(0, Math.min(capacity, updates.size()));
+        Set<UpdateDto> dispatched = Collections.newSetFromMap(new IdentityHashMap<>());
+        dispatched.addAll(admitted);
+        updateDispatcher.dispatchAll(admitted).forEach(dispatched::remove);
+        return dispatched;
+    }
+
+    /**
+     * Dispatches the update if the pending limit allows it.
+     *
+     * @return {@code true} if the update was dispatched
+     */
+    private boolean tryDispatch(UpdateDto update) {
+        if (updateDispatcher.getPendingCount() >= admissionProperties.maxPendingUpdates()) {
+            return false;
+        }
+
+        try {
+            updateDispatcher.dispatch(update);
+            return true;
+        } catch (RejectedExecutionException exception) {
+            log.warn("Executor rejected update {}: {}", update.getUpdateId(), exception.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Appends the update to the spill queue if it has capacity.
+     * <p>Must be called while holding the spill queue monitor.</p>
+     */
+    private AdmissionResult spill(UpdateDto update) {
+        if (spillQueue.size() >= admissionProperties.spillCapacity()) {
+            return AdmissionResult.REJECTED;
+        }
+        spillQueue.addLast(update);
+        return AdmissionResult.SPILLED;
+    }
+
+    /**
+     * Dispatches spilled updates in arrival order while capacity is available.
+     * <p>Must be called while holding the spill queue monitor.</p>
+     */
+    private void drainSpillQueue() {
+        UpdateDto update;
+        while ((update = spillQueue.peekFirst()) != null && tryDispatch(update)) {
+            spillQueue.pollFirst();
+        }
+    }
+
+    /**
+     * Periodically drains the spill queue when no new updates arrive.
+     */
+    @Scheduled(fixedDelay = 200)
+    public void drainSpillQueuePeriodically() {
+        synchronized (spillQueue) {
+            if (!spillQueue.isEmpty()) {
+                drainSpillQueue();
+            }
+        }
+    }
+
+    private int getSpillSize() {
+        synchronized (spillQueue) {
+            return spillQueue.size();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.carrentalbot.ingest;
+
+/**
+ * Detects Telegram updates that are delivered more than once.
+ * <p>Telegram redelivers webhook updates whose delivery timed out or failed, so the
+ * same {@code update_id} can arrive several times.</p>
+ */
+public interface UpdateDeduplicator {
+
+    /**
+     * Records the given update id as seen.
+     *
+     * @param updateId Telegram update identifier
+     * @return {@code true} if the id was not seen before, {@code false} for a duplicate
+     */
+    boolean register(long updateId);
+
+    /**
+     * Removes the given update id, so that a later redelivery is accepted again.
+     * <p>Used when an update was registered but could not be admitted.</p>
+     *
+     * @param updateId Telegram update identifier
+     */
+    void forget(long updateId);
+}
@@ -0,0 +1,38 @@
+package org.example.carrentalbot.ingest;
+
+import org.example.carrentalbot.dto.UpdateDto;
+
+import java.util.List;
+
+/**
+ * Contract for handing incoming Telegram updates over to asynchronous processing.
+ * <p>Implementations guarantee that updates belonging to the same chat are processed
+ * strictly in submission order, while updates of different chats may be processed
+ * in parallel.</p>
+ */
+public interface UpdateDispatcher {
+
+    /**
+     * Schedules a single update for processing and returns immediately.
+     *
+     * @param update non-null Telegram update
+     */
+    void dispatch(UpdateDto update);
+
+    /**
+     * Schedules a batch of updates for processing and returns immediately.
+     * <p>Updates of the same chat keep their relative order. Updates that cannot be
+     * scheduled because the executor rejects the work are returned to the caller.</p>
+     *
+     * @param updates non-null Telegram updates
+     * @return updates that were not scheduled, in batch order; empty if all were scheduled
+     */
+    List<UpdateDto> dispatchAll(List<UpdateDto> updates);
+
+    /**
+     * Returns the number of dispatched updates whose processing has not finished yet.
+     *
+     * @return current number of pending updates across all chats
+     */
+    int getPendingCount();
+}
@@ -0,0 +1,318 @@
+package org.example.carrentalbot.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.DispatcherProperties;
+import org.example.carrentalbot.dto.UpdateDto;
+import org.example.carrentalbot.exception.CustomAsyncExceptionHandler;
+import org.example.carrentalbot.handler.GlobalHandler;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Striped implementation of {@link UpdateDispatcher}.
+ * <p>Each update is hashed by its {@code chatId} into one of a fixed number of lanes.
+ * A lane is a single-consumer queue: at most one drain task per lane is running on the
+ * shared {@code telegramExecutor} at any time, so updates of one chat never run
+ * concurrently and never overtake each other. Different lanes drain in parallel.</p>
+ * <p>Drain tasks process a bounded number of updates before yielding their pool thread,
+ * so a busy chat cannot starve the other lanes. If the executor rejects the continuation,
+ * the drain task keeps its lane and goes on draining it on its current thread, so updates
+ * already queued in a lane are never left without a drain task.</p>
+ * <p>Batches are grouped by lane first: every lane receives its share of the batch at
+ * once and is scheduled at most once, and the MDC context is captured once per batch.</p>
+ */
+@Slf4j
+@Component
+public class UpdateDispatcherImpl implements UpdateDispatcher {
+
+    /**
+     * Maximum number of updates a lane processes before re-submitting itself.
+     */
+    private static final int DRAIN_BATCH_SIZE = 16;
+
+    /**
+     * Method reported to the async exception handler when processing fails.
+     */
+    private static final Method HANDLE_UPDATE_METHOD;
+
+    static {
+        try {
+            HANDLE_UPDATE_METHOD = GlobalHandler.class.getMethod("handleUpdate", UpdateDto.class);
+        } catch (NoSuchMethodException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    /**
+     * Central dispatcher executing the update handlers.
+     */
+    private final GlobalHandler globalHandler;
+
+    /**
+     * Shared executor the lane drain tasks run on.
+     */
+    private final Executor executor;
+
+    /**
+     * Handler notifying the user about unexpected processing failures.
+     */
+    private final CustomAsyncExceptionHandler asyncExceptionHandler;
+
+    /**
+     * Journal acknowledging updates once processing has finished.
+     */
+    private final UpdateJournal updateJournal;
+
+    /**
+     * Serial lanes updates are striped across.
+     */
+    private final Lane[] lanes;
+
+    /**
+     * Number of dispatched updates that have not finished processing.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public UpdateDispatcherImpl(GlobalHandler globalHandler,
+                                @Qualifier("telegramExecutor") Executor executor,
+                                CustomAsyncExceptionHandler asyncExceptionHandler,
+                                UpdateJournal updateJournal,
+                                DispatcherProperties dispatcherProperties) {
+
+        if (dispatcherProperties.lanes() < 1) {
+            throw new IllegalStateException("telegram.dispatcher.lanes must be positive");
+        }
+
+        this.globalHandler = globalHandler;
+        this.executor = executor;
+        this.asyncExceptionHandler = asyncExceptionHandler;
+        this.updateJournal = updateJournal;
+        this.lanes = new Lane[dispatcherProperties.lanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane();
+        }
+
+        log.info("Update dispatcher initialized with {} lanes", lanes.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws RejectedExecutionException if the executor cannot accept the lane drain task
+     */
+    @Override
+    public void dispatch(UpdateDto update) {
+        pending.incrementAndGet();
+        try {
+            laneFor(update).submit(new Entry(update, MDC.getCopyOfContextMap()));
+        } catch (RejectedExecutionException exception) {
+            pending.decrementAndGet();
+            throw exception;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UpdateDto> dispatchAll(List<UpdateDto> updates) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+
+        Map<Lane, List<Entry>> groups = new LinkedHashMap<>();
+        for (UpdateDto update : updates) {
+            groups.computeIfAbsent(laneFor(update), lane -> new ArrayList<>())
+                    .add(new Entry(update, context));
+        }
+
+        Map<UpdateDto, Boolean> rejected = new IdentityHashMap<>();
+        groups.forEach((lane, entries) -> {
+            pending.addAndGet(entries.size());
+            try {
+                lane.submitAll(entries);
+            } catch (RejectedExecutionException exception) {
+                pending.addAndGet(-entries.size());
+                entries.forEach(entry -> rejected.put(entry.update(), Boolean.TRUE));
+                log.warn("Executor rejected {} updates of a batch: {}", entries.size(), exception.getMessage());
+            }
+        });
+
+        if (rejected.isEmpty()) {
+            return List.of();
+        }
+        return updates.stream().filter(rejected::containsKey).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Selects the lane for the given update based on its chat.
+     * <p>Updates without a chat are spread by their update id.</p>
+     */
+    private Lane laneFor(UpdateDto update) {
+        Long chatId = extractChatId(update);
+        long key = chatId != null ? chatId
+                : update.getUpdateId() != null ? update.getUpdateId() : 0L;
+
+        int hash = Long.hashCode(key);
+        hash ^= (hash >>> 16);
+        return lanes[Math.floorMod(hash, lanes.length)];
+    }
+
+    /**
+     * Extracts the chat identifier from the given update.
+     *
+     * @param update incoming Telegram update
+     * @return chat identifier or {@code null} if unavailable
+     */
+    private Long extractChatId(UpdateDto update) {
+        if (update.getMessage() != null && update.getMessage().getChat() != null) {
+            return update.getMessage().getChat().getId();
+        }
+        if (update.getCallbackQuery() != null
+                && update.getCallbackQuery().getMessage() != null
+                && update.getCallbackQuery().getMessage().getChat() != null) {
+            return update.getCallbackQuery().getMessage().getChat().getId();
+        }
+        return null;
+    }
+
+    /**
+     * Processes a single update on the current lane thread.
+     * <p>Restores the MDC captured at submission time and routes uncaught failures
+     * to the {@link CustomAsyncExceptionHandler}, matching {@code @Async} semantics.
+     * The update is acknowledged in the {@link UpdateJournal} afterwards, whether or not
+     * processing succeeded.</p>
+     */
+    private void process(Entry entry) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        try {
+            if (entry.context() != null) {
+                MDC.setContextMap(entry.context());
+            } else {
+                MDC.clear();
+            }
+            MDC.put("thread", Thread.currentThread().getName());
+
+            globalHandler.handleUpdate(entry.update());
+        } catch (Throwable exception) {
+            asyncExceptionHandler.handleUncaughtException(exception, HANDLE_UPDATE_METHOD, entry.update());
+        } finally {
+            acknowledge(entry.update());
+            pending.decrementAndGet();
+            if (previous != null) {
+                MDC.setContextMap(previous);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+
+    private void acknowledge(UpdateDto update) {
+        try {
+            updateJournal.acknowledge(update);
+        } catch (RuntimeException exception) {
+            log.error("Failed to acknowledge update {} in journal", update.getUpdateId(), exception);
+        }
+    }
+
+    /**
+     * Pending update together with the MDC context of its submitter.
+     */
+    private record Entry(UpdateDto update, Map<String, String> context) {
+    }
+
+    /**
+     * Single-consumer queue drained by at most one executor task at a time.
+     */
+    private final class Lane implements Runnable {
+
+        private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private void submit(Entry entry) {
+            queue.add(entry);
+            try {
+                schedule();
+            } catch (RejectedExecutionException exception) {
+                queue.remove(entry);
+                throw exception;
+            }
+        }
+
+        private void submitAll(List<Entry> entries) {
+            queue.addAll(entries);
+            try {
+                schedule();
+            } catch (RejectedExecutionException exception) {
+                queue.removeAll(entries);
+                throw exception;
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException exception) {
+                    scheduled.set(false);
+                    throw exception;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                try {
+                    Entry entry;
+                    int processed = 0;
+                    while (processed++ < DRAIN_BATCH_SIZE && (entry = queue.poll()) != null) {
+                        process(entry);
+                    }
+                } finally {
+                    scheduled.set(false);
+                }
+            } while (!queue.isEmpty() && !reschedule());
+        }
+
+        /**
+         * Hands the remaining updates of the lane to a new drain task.
+         *
+         * @return {@code true} if a drain task is scheduled, {@code false} if the executor
+         *         rejected it and the current thread has taken the lane over instead
+         */
+        private boolean reschedule() {
+            try {
+                schedule();
+                return true;
+            } catch (RejectedExecutionException exception) {
+                if (!scheduled.compareAndSet(false, true)) {
+                    return true;
+                }
+                log.warn("Executor rejected update lane with {} pending updates, draining it on the current thread: {}",
+                        queue.size(), exception.getMessage());
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.carrentalbot.ingest;
+
+import org.example.carrentalbot.dto.UpdateDto;
+
+import java.util.List;
+
+/**
+ * Entry point of the update processing pipeline for all ingestion sources.
+ * <p>Implementations record incoming updates durably, apply admission control and
+ * hand admitted updates over to the {@link UpdateDispatcher}.</p>
+ */
+public interface UpdateIngestionService {
+
+    /**
+     * Ingests a single update received from Telegram.
+     * <p>When this method returns with a result other than {@link AdmissionResult#REJECTED},
+     * the update is guaranteed to be processed, even across a restart of the application.</p>
+     *
+     * @param update non-null Telegram update
+     * @return outcome of the admission
+     */
+    AdmissionResult ingest(UpdateDto update);
+
+    /**
+     * Ingests a batch of updates received together, in order.
+     * <p>Gives the same guarantees as {@link #ingest(UpdateDto)} for every update of the batch.</p>
+     *
+     * @param updates non-null Telegram updates
+     * @return outcome of the admission for each update, in batch order
+     */
+    default List<AdmissionResult> ingestAll(List<UpdateDto> updates) {
+        return updates.stream().map(this::ingest).toList();
+    }
+
+    /**
+     * Returns the delay after which rejected updates should be redelivered.
+     *
+     * @return retry delay in seconds
+     */
+    int getRetryAfterSeconds();
+}
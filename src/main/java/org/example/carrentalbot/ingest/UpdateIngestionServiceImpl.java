@@ -0,0 +1,173 @@
+package org.example.carrentalbot.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.dto.UpdateDto;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Default implementation of {@link UpdateIngestionService}.
+ * <p>Redelivered updates are detected by their {@code update_id} through the
+ * {@link UpdateDeduplicator} and dropped before any further work is done.
+ * Rejected updates are forgotten again so that Telegram's later redelivery is accepted.
+ * Dropped duplicates are counted by the {@code telegram.updates.duplicates} counter.</p>
+ * <p>Every other update is appended to the {@link UpdateJournal} before it is admitted.
+ * Updates that end up shed or rejected are acknowledged right away; all others are
+ * acknowledged by the {@link UpdateDispatcher} once processing has finished.</p>
+ * <p>Batches are journaled with a single commit and admitted as a whole, so that the
+ * dispatcher receives them in one call.</p>
+ * <p>On application startup, updates left unacknowledged by a previous run are
+ * replayed directly through the dispatcher.</p>
+ */
+@Slf4j
+@Component
+public class UpdateIngestionServiceImpl implements UpdateIngestionService {
+
+    /**
+     * Detector of redelivered updates.
+     */
+    private final UpdateDeduplicator updateDeduplicator;
+
+    /**
+     * Durable record of accepted updates.
+     */
+    private final UpdateJournal updateJournal;
+
+    /**
+     * Admission control deciding whether updates are dispatched.
+     */
+    private final UpdateAdmissionService updateAdmissionService;
+
+    /**
+     * Dispatcher used to replay recovered updates.
+     */
+    private final UpdateDispatcher updateDispatcher;
+
+    /**
+     * Counter of dropped duplicate updates.
+     */
+    private final Counter duplicateCounter;
+
+    public UpdateIngestionServiceImpl(UpdateDeduplicator updateDeduplicator,
+                                      UpdateJournal updateJournal,
+                                      UpdateAdmissionService updateAdmissionService,
+                                      UpdateDispatcher updateDispatcher,
+                                      MeterRegistry meterRegistry) {
+        this.updateDeduplicator = updateDeduplicator;
+        this.updateJournal = updateJournal;
+        this.updateAdmissionService = updateAdmissionService;
+        this.updateDispatcher = updateDispatcher;
+        this.duplicateCounter = Counter.builder("telegram.updates.duplicates")
+                .description("Redelivered Telegram updates dropped as duplicates")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AdmissionResult ingest(UpdateDto update) {
+        Long updateId = update.getUpdateId();
+        if (updateId != null && !updateDeduplicator.register(updateId)) {
+            duplicateCounter.increment();
+            log.info("Dropping duplicate update {}", updateId);
+            return AdmissionResult.DUPLICATE;
+        }
+
+        try {
+            updateJournal.append(update);
+        } catch (RuntimeException exception) {
+            forget(updateId);
+            throw exception;
+        }
+
+        AdmissionResult result = updateAdmissionService.admit(update);
+        if (result == AdmissionResult.SHED || result == AdmissionResult.REJECTED) {
+            updateJournal.acknowledge(update);
+        }
+        if (result == AdmissionResult.REJECTED) {
+            forget(updateId);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<AdmissionResult> ingestAll(List<UpdateDto> updates) {
+        AdmissionResult[] results = new AdmissionResult[updates.size()];
+        List<UpdateDto> fresh = new ArrayList<>(updates.size());
+        List<Integer> positions = new ArrayList<>(updates.size());
+
+        for (int i = 0; i < updates.size(); i++) {
+            UpdateDto update = updates.get(i);
+            Long updateId = update.getUpdateId();
+            if (updateId != null && !updateDeduplicator.register(updateId)) {
+                duplicateCounter.increment();
+                log.info("Dropping duplicate update {}", updateId);
+                results[i] = AdmissionResult.DUPLICATE;
+            } else {
+                fresh.add(update);
+                positions.add(i);
+            }
+        }
+
+        if (!fresh.isEmpty()) {
+            try {
+                updateJournal.appendAll(fresh);
+            } catch (RuntimeException exception) {
+                fresh.forEach(update -> forget(update.getUpdateId()));
+                throw exception;
+            }
+
+            List<AdmissionResult> admitted = updateAdmissionService.admitAll(fresh);
+            for (int i = 0; i < fresh.size(); i++) {
+                UpdateDto update = fresh.get(i);
+                AdmissionResult result = admitted.get(i);
+                if (result == AdmissionResult.SHED || result == AdmissionResult.REJECTED) {
+                    updateJournal.acknowledge(update);
+                }
+                if (result == AdmissionResult.REJECTED) {
+                    forget(update.getUpdateId());
+                }
+                results[positions.get(i)] = result;
+            }
+        }
+        return List.of(results);
+    }
+
+    private void forget(Long updateId) {
+        if (updateId != null) {
+            updateDeduplicator.forget(updateId);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRetryAfterSeconds() {
+        return updateAdmissionService.getRetryAfterSeconds();
+    }
+
+    /**
+     * Replays updates that were journaled but not processed before the last shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayUnacknowledged() {
+        List<UpdateDto> updates = updateJournal.recoverUnacknowledged();
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        log.info("Replaying {} unacknowledged updates from journal", updates.size());
+        updates.forEach(updateDispatcher::dispatch);
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.carrentalbot.ingest;
+
+import org.example.carrentalbot.dto.UpdateDto;
+
+import java.util.List;
+
+/**
+ * Durable record of incoming updates that have been accepted but not yet fully processed.
+ * <p>An update is appended before its receipt is confirmed to Telegram and acknowledged
+ * once processing has finished. Updates that were never acknowledged, for example because
+ * the application stopped while they were still queued, are recovered on the next start.</p>
+ */
+public interface UpdateJournal {
+
+    /**
+     * Durably records the given update.
+     * <p>Returns only after the record has been committed to stable storage.</p>
+     *
+     * @param update non-null Telegram update
+     */
+    void append(UpdateDto update);
+
+    /**
+     * Durably records the given updates in order.
+     * <p>Returns only after all records have been committed to stable storage.</p>
+     *
+     * @param updates non-null Telegram updates
+     */
+    default void appendAll(List<UpdateDto> updates) {
+        updates.forEach(this::append);
+    }
+
+    /**
+     * Marks the given update as fully processed.
+     *
+     * @param update previously appended Telegram update
+     */
+    void acknowledge(UpdateDto update);
+
+    /**
+     * Returns the updates that were appended but not acknowledged before the last shutdown.
+     * <p>The result is produced once at startup; subsequent calls return an empty list.</p>
+     *
+     * @return unacknowledged updates in append order
+     */
+    List<UpdateDto> recoverUnacknowledged();
+}
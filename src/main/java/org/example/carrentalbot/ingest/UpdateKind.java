@@ -0,0 +1,49 @@
+package org.example.carrentalbot.ingest;
+
+import org.example.carrentalbot.dto.UpdateDto;
+
+/**
+ * Coarse classification of incoming Telegram updates used for prioritization.
+ */
+public enum UpdateKind {
+
+    /**
+     * Message starting with {@code /}.
+     */
+    COMMAND,
+
+    /**
+     * Inline keyboard interaction.
+     */
+    CALLBACK,
+
+    /**
+     * Free-form text message.
+     */
+    TEXT,
+
+    /**
+     * Any update the bot does not act upon (unsupported types, empty messages).
+     */
+    OTHER;
+
+    /**
+     * Classifies the given update.
+     *
+     * @param update incoming Telegram update
+     * @return kind of the update
+     */
+    public static UpdateKind of(UpdateDto update) {
+        if (update.getCallbackQuery() != null) {
+            return CALLBACK;
+        }
+        if (update.getMessage() != null && update.getMessage().getText() != null) {
+            String text = update.getMessage().getText().trim();
+            if (text.isEmpty()) {
+                return OTHER;
+            }
+            return text.startsWith("/") ? COMMAND : TEXT;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.carrentalbot.ingest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.PollingProperties;
+import org.example.carrentalbot.config.TelegramBotProperties;
+import org.example.carrentalbot.dto.UpdateDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Receives Telegram updates by long polling {@code getUpdates} as an alternative to the webhook.
+ * <p>A single poller thread fetches batches of up to {@code limit} updates and hands them
+ * to the same {@link UpdateIngestionService} the webhook uses. Ingestion only enqueues the
+ * updates on the dispatcher lanes, so the next {@code getUpdates} request is issued while
+ * the previous batch is still being handled.</p>
+ * <p>The offset of the next update is stored in a local file after every batch, so
+ * a restart resumes where the previous run stopped. When admission control rejects an
+ * update, the rest of the batch is left unconfirmed and fetched again after the
+ * retry-after delay, mirroring Telegram's webhook redelivery.</p>
+ * <p>Polling and webhooks are mutually exclusive in the Bot API, so any configured
+ * webhook is removed when polling starts.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "telegram.polling", name = "enabled", havingValue = "true")
+public class UpdatePoller {
+
+    /**
+     * Extra read time granted on top of the long-poll timeout before a request is considered lost.
+     */
+    private static final Duration READ_TIMEOUT_MARGIN = Duration.ofSeconds(10);
+
+    /**
+     * Update types requested from Telegram; matches what the handlers support.
+     */
+    private static final List<String> ALLOWED_UPDATES = List.of("message", "callback_query");
+
+    /**
+     * Pipeline journaling, admitting and dispatching fetched updates.
+     */
+    private final UpdateIngestionService updateIngestionService;
+
+    /**
+     * Polling settings.
+     */
+    private final PollingProperties pollingProperties;
+
+    /**
+     * HTTP client with a read timeout long enough for long-poll requests; shares the
+     * connections of the {@code telegramHttpClient}.
+     */
+    private final RestTemplate restTemplate;
+
+    /**
+     * Base API URL of the bot.
+     */
+    private final String apiBase;
+
+    /**
+     * File storing the next offset.
+     */
+    private final Path offsetFile;
+
+    /**
+     * Offset of the next update to fetch; only accessed by the poller thread.
+     */
+    private long offset;
+
+    private volatile boolean running;
+    private Thread pollerThread;
+
+    public UpdatePoller(UpdateIngestionService updateIngestionService,
+                        TelegramBotProperties telegramBotProperties,
+                        PollingProperties pollingProperties,
+                        RestTemplateBuilder restTemplateBuilder,
+                        HttpClient telegramHttpClient) {
+
+        if (pollingProperties.limit() < 1 || pollingProperties.limit() > 100) {
+            throw new IllegalStateException("telegram.polling.limit must be between 1 and 100");
+        }
+
+        this.updateIngestionService = updateIngestionService;
+        this.pollingProperties = pollingProperties;
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(telegramHttpClient);
+        requestFactory.setReadTimeout(pollingProperties.timeout().plus(READ_TIMEOUT_MARGIN));
+        this.restTemplate = restTemplateBuilder
+                .requestFactory(() -> requestFactory)
+                .build();
+        this.apiBase = telegramBotProperties.botApiBase();
+        this.offsetFile = Path.of(pollingProperties.offsetFile());
+        this.offset = readOffset();
+    }
+
+    /**
+     * Starts the poller thread once the application is ready to process updates.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        pollerThread = new Thread(this::run, "TelegramPoller");
+        pollerThread.setDaemon(true);
+        pollerThread.start();
+        log.info("Long polling started at offset {}", offset);
+    }
+
+    /**
+     * Stops polling; a batch fetched during shutdown is left unconfirmed.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        pollerThread.interrupt();
+        try {
+            pollerThread.join(READ_TIMEOUT_MARGIN.toMillis());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Long polling stopped at offset {}", offset);
+    }
+
+    private void run() {
+        deleteWebhook();
+
+        while (running) {
+            try {
+                List<UpdateDto> updates = fetchUpdates();
+                if (!running) {
+                    break;
+                }
+                ingest(updates);
+            } catch (RestClientException | UncheckedIOException exception) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Polling failed, retrying in {}: {}", pollingProperties.errorBackoff(), exception.getMessage());
+                sleep(pollingProperties.errorBackoff());
+            } catch (RuntimeException exception) {
+                log.error("Failed to ingest polled updates, retrying in {}", pollingProperties.errorBackoff(), exception);
+                sleep(pollingProperties.errorBackoff());
+            }
+        }
+    }
+
+    /**
+     * Removes the webhook, which would otherwise make {@code getUpdates} fail with a conflict.
+     * <p>Pending updates are kept so that they are delivered to the poller.</p>
+     */
+    private void deleteWebhook() {
+        try {
+            restTemplate.postForEntity(apiBase + "/deleteWebhook",
+                    Map.of("drop_pending_updates", false), String.class);
+        } catch (RestClientException exception) {
+            log.warn("Failed to delete webhook before polling: {}", exception.getMessage());
+        }
+    }
+
+    private List<UpdateDto> fetchUpdates() {
+        Map<String, Object> request = Map.of(
+                "offset", offset,
+                "limit", pollingProperties.limit(),
+                "timeout", pollingProperties.timeout().toSeconds(),
+                "allowed_updates", ALLOWED_UPDATES);
+
+        GetUpdatesResponse response = restTemplate.postForObject(
+                apiBase + "/getUpdates", request, GetUpdatesResponse.class);
+
+        if (response == null || !response.ok()) {
+            throw new RestClientException("getUpdates failed: "
+                    + (response != null ? response.description() : "empty response"));
+        }
+        return response.result() != null ? response.result() : List.of();
+    }
+
+    /**
+     * Ingests the batch in order and confirms every update up to the first rejected one.
+     */
+    private void ingest(List<UpdateDto> updates) {
+        long next = offset;
+        boolean rejected = false;
+        try {
+            for (UpdateDto update : updates) {
+                if (updateIngestionService.ingest(update) == AdmissionResult.REJECTED) {
+                    rejected = true;
+                    break;
+                }
+                if (update.getUpdateId() != null) {
+                    next = Math.max(next, update.getUpdateId() + 1);
+                }
+            }
+        } finally {
+            if (next != offset) {
+                offset = next;
+                writeOffset(next);
+            }
+        }
+
+        if (rejected) {
+            sleep(Duration.ofSeconds(updateIngestionService.getRetryAfterSeconds()));
+        }
+    }
+
+    private long readOffset() {
+        if (!Files.exists(offsetFile)) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(Files.readString(offsetFile).trim());
+        } catch (IOException | NumberFormatException exception) {
+            log.warn("Ignoring unreadable polling offset file {}: {}", offsetFile, exception.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Replaces the offset file atomically so a crash never leaves a partial value behind.
+     */
+    private void writeOffset(long value) {
+        try {
+            Path parent = offsetFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "polling", ".tmp");
+            Files.writeString(temp, Long.toString(value));
+            Files.move(temp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to store polling offset", exception);
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Response envelope of the {@code getUpdates} method.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record GetUpdatesResponse(boolean ok, List<UpdateDto> result, String description) {
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.carrentalbot.outbound;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Schedules outgoing Bot API calls within Telegram's rate limits.
+ * <p>Calls are queued by priority and sent once both the global and the per-chat rate
+ * allow it. Calls to the same chat are sent one at a time, in the order they were
+ * submitted within their priority.</p>
+ */
+public interface OutboundScheduler {
+
+    /**
+     * Queues a Bot API call addressed to the given chat.
+     * <p>The call must not block; it starts the request and returns its future. It is
+     * repeated when it fails with a {@link org.example.carrentalbot.exception.TelegramApiException}
+     * for {@code 429 Too Many Requests}, after the delay Telegram asks for, and when it
+     * fails with an {@link java.io.IOException}; each case up to its configured number of
+     * attempts, after which the call fails with its last error.</p>
+     *
+     * @param chatId chat the call sends to
+     * @param priority priority of the call
+     * @param call starts the Bot API call
+     * @param <T> result type of the call
+     * @return future completed with the result of the call, or exceptionally if it failed
+     *         permanently or could not be queued
+     */
+    <T> CompletableFuture<T> submit(String chatId, SendPriority priority, Supplier<CompletableFuture<T>> call);
+}
@@ -0,0 +1,523 @@
+package org.example.carrentalbot.outbound;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.OutboundProperties;
+import org.example.carrentalbot.exception.TelegramApiException;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Token bucket implementation of {@link OutboundScheduler}.
+ * <p>A single dispatcher thread starts queued calls when a token is available in the
+ * global bucket and in the bucket of the target chat. Calls are asynchronous, so the
+ * dispatcher never waits for a response; their completion frees the chat again.
+ * Interactive calls are considered before bulk calls, and within a priority calls are
+ * considered in submission order, skipping chats that are not ready yet.</p>
+ * <p>A chat has at most one call in flight, so its messages arrive in order. A failed
+ * call that is repeated goes back to the head of its queue and blocks its chat for the
+ * retry delay; for {@code 429 Too Many Requests} the delay is the {@code retry_after}
+ * Telegram sends. A {@code 429} on a bulk call also pauses all bulk calls for that
+ * delay, so a reminder burst backs off as a whole while interactive replies continue.
+ * Calls that cannot reach the Bot API and calls answered with {@code 429} are repeated
+ * up to separate limits and then fail.</p>
+ * <p>States of idle chats are removed periodically, whether or not calls are queued.</p>
+ */
+@Slf4j
+@Component
+public class OutboundSchedulerImpl implements OutboundScheduler {
+
+    /**
+     * Longest time the dispatcher sleeps without a change.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Interval between removals of idle chat states.
+     */
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * Rate limits and retry settings.
+     */
+    private final OutboundProperties outboundProperties;
+
+    /**
+     * Source of the current time on the {@link System#nanoTime()} scale.
+     */
+    private final LongSupplier nanoClock;
+
+    /**
+     * Guards all scheduling state below.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when a call is queued or a chat becomes free.
+     */
+    private final Condition changed = lock.newCondition();
+
+    private final Map<SendPriority, Deque<Request<?>>> queues = new EnumMap<>(SendPriority.class);
+
+    /**
+     * Time until which a priority is paused after a {@code 429}.
+     */
+    private final Map<SendPriority, Long> pausedUntil = new EnumMap<>(SendPriority.class);
+
+    /**
+     * State of every chat with queued or recent calls.
+     */
+    private final Map<String, Chat> chats = new HashMap<>();
+
+    private final TokenBucket globalBucket;
+
+    /**
+     * Number of calls waiting in the queues.
+     */
+    private int queued;
+
+    private long lastSweep;
+
+    /**
+     * Calls answered with {@code 429 Too Many Requests}.
+     */
+    private final Counter throttledCounter;
+
+    private volatile boolean running;
+    private Thread dispatcherThread;
+
+    @Autowired
+    public OutboundSchedulerImpl(OutboundProperties outboundProperties,
+                                 MeterRegistry meterRegistry) {
+        this(outboundProperties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * Creates a scheduler reading the time from the given clock, e.g. a fake one in tests.
+     *
+     * @param outboundProperties rate limits and retry settings
+     * @param meterRegistry registry of the scheduler metrics
+     * @param nanoClock source of the current time on the {@link System#nanoTime()} scale
+     */
+    OutboundSchedulerImpl(OutboundProperties outboundProperties,
+                          MeterRegistry meterRegistry,
+                          LongSupplier nanoClock) {
+
+        if (outboundProperties.globalRate() <= 0 || outboundProperties.chatRate() <= 0) {
+            throw new IllegalStateException("telegram.outbound rates must be positive");
+        }
+        if (outboundProperties.globalBurst() < 1 || outboundProperties.chatBurst() < 1) {
+            throw new IllegalStateException("telegram.outbound bursts must be positive");
+        }
+        if (outboundProperties.maxAttempts() < 1 || outboundProperties.maxThrottledAttempts() < 1) {
+            throw new IllegalStateException("telegram.outbound attempts must be positive");
+        }
+
+        this.outboundProperties = outboundProperties;
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        this.lastSweep = now;
+        this.globalBucket = new TokenBucket(outboundProperties.globalRate(), outboundProperties.globalBurst(), now);
+
+        for (SendPriority priority : SendPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            pausedUntil.put(priority, now);
+            Gauge.builder("telegram.outbound.queued", this, scheduler -> scheduler.getQueued(priority))
+                    .description("Outgoing Telegram messages waiting for their rate limit")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+
+        this.throttledCounter = Counter.builder("telegram.outbound.throttled")
+                .description("Outgoing Telegram messages answered with 429 Too Many Requests")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the dispatcher thread once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatcherThread = new Thread(this::run, "TelegramOutbound");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+        log.info("Outbound scheduler started: {}/s global, {}/s per chat",
+                outboundProperties.globalRate(), outboundProperties.chatRate());
+    }
+
+    /**
+     * Stops the dispatcher thread; calls still queued are failed.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        dispatcherThread.interrupt();
+        try {
+            dispatcherThread.join(TimeUnit.NANOSECONDS.toMillis(MAX_WAIT_NANOS));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.lock();
+        try {
+            if (queued > 0) {
+                log.warn("Outbound scheduler stopped with {} unsent messages", queued);
+            }
+            for (Deque<Request<?>> queue : queues.values()) {
+                queue.forEach(request -> request.future.completeExceptionally(
+                        new RejectedExecutionException("Outbound scheduler stopped")));
+                queue.clear();
+            }
+            queued = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> CompletableFuture<T> submit(String chatId, SendPriority priority, Supplier<CompletableFuture<T>> call) {
+        lock.lock();
+        try {
+            if (queued >= outboundProperties.maxQueued()) {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("Outbound queue is full (" + queued + " messages)"));
+            }
+
+            Chat chat = chats.computeIfAbsent(chatId, id -> new Chat(outboundProperties, nanoClock.getAsLong()));
+            Request<T> request = new Request<>(chat, priority, call, MDC.getCopyOfContextMap());
+            chat.pending++;
+            queues.get(priority).addLast(request);
+            queued++;
+            changed.signal();
+            return request.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calls of the given priority waiting to be sent.
+     */
+    private int getQueued(SendPriority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        lock.lock();
+        try {
+            while (running) {
+                long wakeAt = startReady();
+                long delay = wakeAt - nanoClock.getAsLong();
+                if (delay > 0) {
+                    changed.awaitNanos(delay);
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts every queued call that may be sent now; the dispatcher thread does this on
+     * every wake-up.
+     *
+     * @return time at which a queued call may become ready
+     */
+    long dispatchReady() {
+        lock.lock();
+        try {
+            return startReady();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts queued calls until none may be sent now.
+     * <p>Must be called while holding the lock once; it is released while a call starts.</p>
+     *
+     * @return time at which a queued call may become ready
+     */
+    private long startReady() {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            sweep(now);
+            long wakeAt = now + MAX_WAIT_NANOS;
+
+            Request<?> next = null;
+            long globalReadyAt = globalBucket.readyAt(now);
+            if (queued > 0 && globalReadyAt - now > 0) {
+                return Math.min(wakeAt, globalReadyAt);
+            }
+            for (SendPriority priority : SendPriority.values()) {
+                long priorityReadyAt = pausedUntil.get(priority);
+                if (priorityReadyAt - now > 0) {
+                    wakeAt = Math.min(wakeAt, priorityReadyAt);
+                    continue;
+                }
+                Iterator<Request<?>> requests = queues.get(priority).iterator();
+                while (requests.hasNext()) {
+                    Request<?> request = requests.next();
+                    long readyAt = request.chat.readyAt(now);
+                    if (readyAt - now <= 0) {
+                        requests.remove();
+                        next = request;
+                        break;
+                    }
+                    wakeAt = Math.min(wakeAt, readyAt);
+                }
+                if (next != null) {
+                    break;
+                }
+            }
+
+            if (next == null) {
+                return wakeAt;
+            }
+
+            queued--;
+            globalBucket.take(now);
+            next.chat.bucket.take(now);
+            next.chat.inFlight = true;
+
+            lock.unlock();
+            try {
+                start(next);
+            } finally {
+                lock.lock();
+            }
+        }
+    }
+
+    /**
+     * Starts a call and arranges for its completion to be handled.
+     */
+    private <T> void start(Request<T> request) {
+        CompletableFuture<T> call;
+        try {
+            call = request.call.get();
+        } catch (RuntimeException exception) {
+            call = CompletableFuture.failedFuture(exception);
+        }
+        call.whenComplete((result, exception) -> onComplete(request, result, exception));
+    }
+
+    /**
+     * Completes a call, or queues it again if it failed transiently.
+     * <p>Runs on the thread that completed the call, with the MDC context of the submitter.</p>
+     */
+    private <T> void onComplete(Request<T> request, T result, Throwable exception) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        if (request.context != null) {
+            MDC.setContextMap(request.context);
+        }
+        try {
+            if (exception == null) {
+                complete(request);
+                request.future.complete(result);
+                return;
+            }
+
+            Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                    ? exception.getCause()
+                    : exception;
+
+            if (cause instanceof TelegramApiException apiException && apiException.isTooManyRequests()) {
+                Duration retryAfter = apiException.getRetryAfter() != null
+                        ? Duration.ofSeconds(apiException.getRetryAfter())
+                        : outboundProperties.retryDelay();
+                throttledCounter.increment();
+                if (++request.throttledAttempts < outboundProperties.maxThrottledAttempts()) {
+                    log.warn("Telegram rate limit hit for {} message (attempt {}), retrying in {}",
+                            request.priority.name().toLowerCase(), request.throttledAttempts, retryAfter);
+                    requeue(request, retryAfter, true);
+                    return;
+                }
+                log.error("Telegram rate limit hit for {} message {} times, giving up",
+                        request.priority.name().toLowerCase(), request.throttledAttempts);
+            }
+
+            if (cause instanceof IOException && ++request.attempts < outboundProperties.maxAttempts()) {
+                log.warn("Failed to reach Telegram (attempt {}), retrying in {}: {}",
+                        request.attempts, outboundProperties.retryDelay(), cause.toString());
+                requeue(request, outboundProperties.retryDelay(), false);
+                return;
+            }
+
+            complete(request);
+            request.future.completeExceptionally(cause);
+        } finally {
+            if (previous != null) {
+                MDC.setContextMap(previous);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+
+    /**
+     * Puts a call back at the head of its queue and blocks its chat for the given delay.
+     *
+     * @param throttled whether Telegram asked to slow down; pauses bulk calls as a whole
+     */
+    private void requeue(Request<?> request, Duration delay, boolean throttled) {
+        lock.lock();
+        try {
+            long until = nanoClock.getAsLong() + delay.toNanos();
+            request.chat.inFlight = false;
+            if (until - request.chat.blockedUntil > 0) {
+                request.chat.blockedUntil = until;
+            }
+            if (throttled && request.priority == SendPriority.BULK) {
+                pausedUntil.merge(SendPriority.BULK, until, (current, next) -> next - current > 0 ? next : current);
+            }
+            queues.get(request.priority).addFirst(request);
+            queued++;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the chat of a call that will not be repeated.
+     */
+    private void complete(Request<?> request) {
+        lock.lock();
+        try {
+            request.chat.inFlight = false;
+            request.chat.pending--;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the state of chats without calls whose rate limit has fully recovered.
+     * <p>Checked on every pass of the dispatcher, which wakes up at least once a second
+     * also while calls are queued; the removal itself runs once per sweep interval.</p>
+     */
+    private void sweep(long now) {
+        if (now - lastSweep < SWEEP_INTERVAL_NANOS) {
+            return;
+        }
+        lastSweep = now;
+        chats.values().removeIf(chat -> chat.pending == 0 && chat.blockedUntil - now <= 0 && chat.bucket.isFull(now));
+    }
+
+    /**
+     * Rate limit state of one chat.
+     */
+    private static final class Chat {
+
+        private final TokenBucket bucket;
+
+        /**
+         * Whether a call to the chat is executing.
+         */
+        private boolean inFlight;
+
+        /**
+         * Time until which no call is sent to the chat.
+         */
+        private long blockedUntil;
+
+        /**
+         * Calls to the chat that are queued or executing.
+         */
+        private int pending;
+
+        private Chat(OutboundProperties outboundProperties, long now) {
+            this.bucket = new TokenBucket(outboundProperties.chatRate(), outboundProperties.chatBurst(), now);
+            this.blockedUntil = now;
+        }
+
+        /**
+         * Returns the time at which the next call to the chat may be sent.
+         * <p>A chat with a call in flight is ready no earlier than the next wake-up; its
+         * completion signals the dispatcher.</p>
+         */
+        private long readyAt(long now) {
+            if (inFlight) {
+                return now + MAX_WAIT_NANOS;
+            }
+            long bucketReadyAt = bucket.readyAt(now);
+            return blockedUntil - bucketReadyAt > 0 ? blockedUntil : bucketReadyAt;
+        }
+    }
+
+    /**
+     * Queued Bot API call.
+     */
+    private static final class Request<T> {
+
+        private final Chat chat;
+        private final SendPriority priority;
+        private final Supplier<CompletableFuture<T>> call;
+
+        /**
+         * MDC context of the submitter.
+         */
+        private final Map<String, String> context;
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        /**
+         * Failed attempts to reach the Bot API; only accessed on completion of the call.
+         */
+        private int attempts;
+
+        /**
+         * Attempts answered with {@code 429 Too Many Requests}; only accessed on completion of the call.
+         */
+        private int throttledAttempts;
+
+        private Request(Chat chat, SendPriority priority, Supplier<CompletableFuture<T>> call, Map<String, String> context) {
+            this.chat = chat;
+            this.priority = priority;
+            this.call = call;
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.carrentalbot.outbound;
+
+/**
+ * Priority of an outgoing Telegram message.
+ * <p>Constants are declared from highest to lowest priority.</p>
+ */
+public enum SendPriority {
+
+    /**
+     * Reply to a user interaction; sent before any bulk message.
+     */
+    INTERACTIVE,
+
+    /**
+     * Message not requested by the user, such as a booking reminder; sent when no
+     * interactive message is ready.
+     */
+    BULK
+}
@@ -0,0 +1,65 @@
+package org.example.carrentalbot.outbound;
+
+/**
+ * Token bucket on the {@link System#nanoTime()} scale.
+ * <p>Tokens are refilled continuously at a fixed rate up to the capacity; every sent
+ * message takes one. Not thread-safe; guarded by the owning scheduler.</p>
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double nanosPerToken;
+    private double tokens;
+    private long updatedAt;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param ratePerSecond tokens refilled per second
+     * @param capacity maximum number of tokens
+     * @param now current time
+     */
+    TokenBucket(double ratePerSecond, int capacity, long now) {
+        this.capacity = capacity;
+        this.nanosPerToken = 1_000_000_000d / ratePerSecond;
+        this.tokens = capacity;
+        this.updatedAt = now;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - updatedAt) / nanosPerToken);
+        updatedAt = now;
+    }
+
+    /**
+     * Returns the time at which a token is available.
+     *
+     * @param now current time
+     * @return {@code now} if a token is available, otherwise the time of the next refill
+     */
+    long readyAt(long now) {
+        refill(now);
+        return tokens >= 1 ? now : now + (long) Math.ceil((1 - tokens) * nanosPerToken);
+    }
+
+    /**
+     * Takes a token; callers check {@link #readyAt(long)} first.
+     *
+     * @param now current time
+     */
+    void take(long now) {
+        refill(now);
+        tokens -= 1;
+    }
+
+    /**
+     * Tells whether the bucket has been refilled completely.
+     *
+     * @param now current time
+     * @return {@code true} if no token is missing
+     */
+    boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.carrentalbot.record;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the rental period of a booking.
+ * <p>Used to mark the days a car is booked without loading the bookings themselves.</p>
+ *
+ * @param startDate first day of the rental (inclusive)
+ * @param endDate last day of the rental (inclusive)
+ */
+public record BookingPeriod(LocalDate startDate, LocalDate endDate) {}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.carrentalbot.dto.SendMessageDto;
 import org.example.carrentalbot.model.Reminder;
 import org.example.carrentalbot.email.EmailServiceImpl;
+import org.example.carrentalbot.outbound.SendPriority;
 import org.example.carrentalbot.util.TelegramClient;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
@@ -37,6 +38,7 @@ public class ReminderDeliveryImpl implements ReminderDelivery {
 
     /**
      * Sends the reminder via Telegram.
+     * <p>Reminders are bulk traffic and yield to interactive replies.</p>
      *
      * @param reminder the reminder to send
      */
@@ -62,7 +64,7 @@ public class ReminderDeliveryImpl implements ReminderDelivery {
                 .chatId(reminder.getBooking().getCustomer().getChatId().toString())
                 .text(text)
                 .parseMode("HTML")
-                .build());
+                .build(), SendPriority.BULK);
     }
 
     /**
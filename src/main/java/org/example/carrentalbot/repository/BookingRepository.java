@@ -1,6 +1,7 @@
 package org.example.carrentalbot.repository;
 
 import org.example.carrentalbot.model.Booking;
+import org.example.carrentalbot.record.BookingPeriod;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -46,6 +47,27 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    /**
+     * Retrieves the periods of the confirmed bookings of a car that intersect the given range.
+     *
+     * @param carId the car identifier
+     * @param from first day of the range
+     * @param to last day of the range
+     * @return list of {@link BookingPeriod} of the intersecting bookings
+     */
+    @Query(value = """
+                SELECT new org.example.carrentalbot.record.BookingPeriod(b.startDate, b.endDate)
+                FROM Booking b
+                WHERE b.car.id = :carId
+                  AND b.status = org.example.carrentalbot.model.enums.BookingStatus.CONFIRMED
+                  AND b.startDate <= :to
+                  AND b.endDate >= :from
+            """)
+    List<BookingPeriod> findConfirmedPeriods(
+            @Param("carId") UUID carId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
     /**
      * Retrieves all bookings for a given customer.
      * <p>Fetches associated car data eagerly.</p>
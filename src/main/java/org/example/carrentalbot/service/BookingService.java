@@ -5,6 +5,7 @@ import org.example.carrentalbot.model.Booking;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -22,6 +23,16 @@ public interface BookingService {
      */
     boolean isCarAvailable(UUID carId, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Collects the days within the given range on which a car is booked.
+     *
+     * @param carId the unique identifier of the car
+     * @param from the first day of the range
+     * @param to the last day of the range
+     * @return the booked days within the range
+     */
+    Set<LocalDate> getBookedDates(UUID carId, LocalDate from, LocalDate to);
+
     /**
      * Creates a new booking after validating car availability for the selected period.
      *
@@ -9,6 +9,7 @@ import org.example.carrentalbot.model.Car;
 import org.example.carrentalbot.model.Customer;
 import org.example.carrentalbot.model.enums.BookingStatus;
 import org.example.carrentalbot.model.enums.CarStatus;
+import org.example.carrentalbot.record.BookingPeriod;
 import org.example.carrentalbot.repository.BookingRepository;
 import org.example.carrentalbot.repository.CarRepository;
 import org.example.carrentalbot.repository.CustomerRepository;
@@ -19,8 +20,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -47,6 +50,20 @@ public class BookingServiceImpl implements BookingService {
         return !hasOverlap;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<LocalDate> getBookedDates(UUID carId, LocalDate from, LocalDate to) {
+        Set<LocalDate> bookedDates = new HashSet<>();
+        for (BookingPeriod period : bookingRepository.findConfirmedPeriods(carId, from, to)) {
+            LocalDate first = period.startDate().isBefore(from) ? from : period.startDate();
+            LocalDate last = period.endDate().isAfter(to) ? to : period.endDate();
+            first.datesUntil(last.plusDays(1)).forEach(bookedDates::add);
+        }
+        return bookedDates;
+    }
+
     /**
      * {@inheritDoc}
      * @throws DataNotFoundException if the car or customer does not exist
@@ -0,0 +1,261 @@
+package org.example.carrentalbot.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.model.enums.CarBrowsingMode;
+import org.example.carrentalbot.model.enums.CarCategory;
+import org.example.carrentalbot.model.enums.FlowContext;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Typed, in-memory state of one chat session.
+ * <p>Holds the fields declared in {@link SessionField}. A session is loaded as a unit by
+ * {@link SessionService#getSession(Long)} and validated once while loading: values that
+ * do not match the schema are dropped and logged. Handlers read and change the fields
+ * in memory; changes are written back as a unit.</p>
+ * <p>Not thread-safe; a session is used by the thread processing an update of its chat.</p>
+ */
+@Slf4j
+public final class ChatSession {
+
+    private final Long chatId;
+
+    private final EnumMap<SessionField, Object> values = new EnumMap<>(SessionField.class);
+
+    /**
+     * Version of the session in the store when it was loaded or last written;
+     * {@code 0} if it was never stored.
+     */
+    private long version;
+
+    /**
+     * Hash fields of an earlier storage layout, removed when the session is written.
+     */
+    private final Set<String> legacyFields = new HashSet<>();
+
+    /**
+     * Whether the session was changed since it was loaded or written.
+     */
+    private boolean modified;
+
+    /**
+     * Whether the whole session was cleared since it was loaded or written.
+     */
+    private boolean cleared;
+
+    private ChatSession(Long chatId) {
+        this.chatId = chatId;
+    }
+
+    /**
+     * Creates an empty session.
+     *
+     * @param chatId chat identifier
+     * @param version version of the stored session, {@code 0} if none is stored
+     * @return empty session
+     */
+    static ChatSession empty(Long chatId, long version) {
+        ChatSession session = new ChatSession(chatId);
+        session.version = version;
+        return session;
+    }
+
+    /**
+     * Creates a session from stored values and validates them against the schema.
+     * <p>Values of legacy sessions are converted from their string form. Fields that are
+     * unknown or cannot be converted are dropped, and the session is marked as modified
+     * so that the cleanup is written back.</p>
+     *
+     * @param chatId chat identifier
+     * @param stored stored values, indexed by field name
+     * @param version version of the stored session
+     * @param legacyFields hash fields of an earlier storage layout
+     * @return validated session
+     */
+    static ChatSession of(Long chatId, Map<String, Object> stored, long version, Set<String> legacyFields) {
+        ChatSession session = new ChatSession(chatId);
+        session.version = version;
+        session.legacyFields.addAll(legacyFields);
+
+        stored.forEach((key, value) -> {
+            SessionField field = SessionField.byKey(key);
+            if (field == null) {
+                log.warn("Dropping unknown session field '{}' for chatId {}", key, chatId);
+                session.modified = true;
+                return;
+            }
+
+            try {
+                session.values.put(field, field.convert(value));
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                log.error("Invalid {} format in Redis for chatId {} field '{}': {}",
+                        field.type().getSimpleName(), chatId, key, value, ex);
+                session.modified = true;
+            }
+        });
+        return session;
+    }
+
+    public Long getChatId() {
+        return chatId;
+    }
+
+    public Optional<FlowContext> getFlowContext() {
+        return get(SessionField.FLOW_CONTEXT, FlowContext.class);
+    }
+
+    public void setFlowContext(FlowContext flowContext) {
+        set(SessionField.FLOW_CONTEXT, flowContext);
+    }
+
+    public Optional<CarBrowsingMode> getCarBrowsingMode() {
+        return get(SessionField.CAR_BROWSING_MODE, CarBrowsingMode.class);
+    }
+
+    public void setCarBrowsingMode(CarBrowsingMode carBrowsingMode) {
+        set(SessionField.CAR_BROWSING_MODE, carBrowsingMode);
+    }
+
+    public Optional<CarCategory> getCarCategory() {
+        return get(SessionField.CAR_CATEGORY, CarCategory.class);
+    }
+
+    public void setCarCategory(CarCategory carCategory) {
+        set(SessionField.CAR_CATEGORY, carCategory);
+    }
+
+    public Optional<UUID> getCarId() {
+        return get(SessionField.CAR_ID, UUID.class);
+    }
+
+    public void setCarId(UUID carId) {
+        set(SessionField.CAR_ID, carId);
+    }
+
+    public Optional<LocalDate> getStartDate() {
+        return get(SessionField.START_DATE, LocalDate.class);
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        set(SessionField.START_DATE, startDate);
+    }
+
+    public Optional<LocalDate> getEndDate() {
+        return get(SessionField.END_DATE, LocalDate.class);
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        set(SessionField.END_DATE, endDate);
+    }
+
+    public Optional<Integer> getTotalDays() {
+        return get(SessionField.TOTAL_DAYS, Integer.class);
+    }
+
+    public void setTotalDays(Integer totalDays) {
+        set(SessionField.TOTAL_DAYS, totalDays);
+    }
+
+    public Optional<BigDecimal> getTotalCost() {
+        return get(SessionField.TOTAL_COST, BigDecimal.class);
+    }
+
+    public void setTotalCost(BigDecimal totalCost) {
+        set(SessionField.TOTAL_COST, totalCost);
+    }
+
+    public Optional<String> getPhone() {
+        return get(SessionField.PHONE, String.class);
+    }
+
+    public void setPhone(String phone) {
+        set(SessionField.PHONE, phone);
+    }
+
+    public Optional<String> getEmail() {
+        return get(SessionField.EMAIL, String.class);
+    }
+
+    public void setEmail(String email) {
+        set(SessionField.EMAIL, email);
+    }
+
+    public Optional<UUID> getBookingId() {
+        return get(SessionField.BOOKING_ID, UUID.class);
+    }
+
+    public void setBookingId(UUID bookingId) {
+        set(SessionField.BOOKING_ID, bookingId);
+    }
+
+    /**
+     * Removes all fields of the session.
+     */
+    public void clear() {
+        values.clear();
+        legacyFields.clear();
+        cleared = true;
+        modified = true;
+    }
+
+    private <T> Optional<T> get(SessionField field, Class<T> type) {
+        return Optional.ofNullable(type.cast(values.get(field)));
+    }
+
+    /**
+     * Sets a field; a {@code null} value removes it.
+     */
+    private void set(SessionField field, Object value) {
+        Object previous = value != null ? values.put(field, value) : values.remove(field);
+        if (!Objects.equals(previous, value)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Returns the session values indexed by stored field name.
+     */
+    Map<String, Object> toValues() {
+        Map<String, Object> stored = new HashMap<>(values.size() * 2);
+        values.forEach((field, value) -> stored.put(field.key(), value));
+        return stored;
+    }
+
+    Set<String> legacyFields() {
+        return legacyFields;
+    }
+
+    long version() {
+        return version;
+    }
+
+    boolean isModified() {
+        return modified;
+    }
+
+    boolean isCleared() {
+        return cleared;
+    }
+
+    /**
+     * Marks the current state as written.
+     *
+     * @param newVersion version of the session in the store after the write
+     */
+    void markWritten(long newVersion) {
+        version = newVersion;
+        legacyFields.clear();
+        modified = false;
+        cleared = false;
+    }
+}
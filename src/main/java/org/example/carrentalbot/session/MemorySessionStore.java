@@ -0,0 +1,224 @@
+package org.example.carrentalbot.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.SessionStoreProperties;
+import org.example.carrentalbot.exception.SessionConflictException;
+import org.example.carrentalbot.model.enums.FlowContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-heap {@link SessionStore} for single-node deployments and tests.
+ * <p>Sessions are kept as immutable value maps in a concurrent map, so access costs a
+ * map lookup and no serialization. Each write refreshes the expiration of the session,
+ * chosen by the flow the session is in.</p>
+ * <p>Expired sessions are removed by a hashed timer wheel: every write schedules a
+ * timeout in the slot of its expiration tick, and each tick only visits the timeouts
+ * of one slot. Timeouts more than one revolution ahead stay in their slot, and timeouts
+ * superseded by a later write are discarded when their slot is visited. Reads also check
+ * the expiration, so an expired session is not returned while its slot is pending.</p>
+ * <p>Writes are compare-and-set on the version of the session, like in
+ * {@link RedisSessionStore}. No lock is taken: the sessions live on a single node, where
+ * the {@link org.example.carrentalbot.ingest.UpdateDispatcher} already processes the
+ * updates of a chat one at a time.</p>
+ * <p>Sessions are lost on restart and are not shared between nodes.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "session.store", name = "mode", havingValue = "MEMORY")
+public class MemorySessionStore implements SessionStore {
+
+    private final Map<Long, Entry> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Counter the session versions are taken from.
+     */
+    private final AtomicLong versions = new AtomicLong();
+
+    private final ConcurrentLinkedQueue<Timeout>[] wheel;
+    private final int mask;
+
+    private final SessionStoreProperties sessionStoreProperties;
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Last tick whose slot was visited; only accessed by the expiry task.
+     */
+    private long processedTick;
+
+    @SuppressWarnings("unchecked")
+    public MemorySessionStore(SessionStoreProperties sessionStoreProperties) {
+        if (sessionStoreProperties.wheelSize() < 1) {
+            throw new IllegalStateException("session.store.wheel-size must be positive");
+        }
+        if (sessionStoreProperties.tick().isNegative() || sessionStoreProperties.tick().isZero()) {
+            throw new IllegalStateException("session.store.tick must be positive");
+        }
+
+        int slots = Integer.highestOneBit(Math.max(2, sessionStoreProperties.wheelSize() * 2 - 1));
+        this.wheel = new ConcurrentLinkedQueue[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = slots - 1;
+        this.sessionStoreProperties = sessionStoreProperties;
+        this.tickNanos = sessionStoreProperties.tick().toNanos();
+
+        log.info("In-memory session store enabled: ttl={}, flowTtl={}, tick={}, slots={}",
+                sessionStoreProperties.ttl(), sessionStoreProperties.flowTtl(), sessionStoreProperties.tick(), slots);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Returns at once; see the class description.</p>
+     */
+    @Override
+    public SessionLock lock(Long chatId) {
+        return () -> { };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ChatSession load(Long chatId) {
+        Entry entry = sessions.get(chatId);
+        if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) {
+            return ChatSession.empty(chatId, 0L);
+        }
+        return ChatSession.of(chatId, entry.values(), entry.version(), Set.of());
+    }
+
+    /**
+     * Writes the given session if it was changed and is still at the version it was loaded at.
+     * <p>A deleted session is kept as an empty entry until it expires, so that its
+     * version is not reused.</p>
+     *
+     * @param session session to write
+     * @throws SessionConflictException if the session was changed concurrently
+     */
+    @Override
+    public void write(ChatSession session) {
+        if (!session.isModified()) {
+            return;
+        }
+
+        Long chatId = session.getChatId();
+        Map<String, Object> values = Map.copyOf(session.toValues());
+        long ttlNanos = sessionStoreProperties.ttlFor(session.getFlowContext().orElse(null)).toNanos();
+        long expiresAt = System.nanoTime() + ttlNanos;
+        long version = versions.incrementAndGet();
+
+        Entry written = sessions.compute(chatId, (id, current) -> {
+            long currentVersion = current != null && current.expiresAt() - System.nanoTime() > 0 ? current.version() : 0L;
+            if (currentVersion != session.version()) {
+                return current;
+            }
+            return new Entry(values, version, expiresAt);
+        });
+        if (written == null || written.version() != version) {
+            throw new SessionConflictException(chatId);
+        }
+
+        wheel[(int) (tickOf(expiresAt) & mask)].add(new Timeout(chatId, expiresAt));
+        session.markWritten(version);
+    }
+
+    /**
+     * Counts the live sessions and inspects the first ones in map order.
+     * <p>The size of a session is the length of its encoded record, as it would be stored
+     * in Redis.</p>
+     *
+     * @param sampleSize maximum number of sessions to inspect
+     * @return sample of the stored sessions
+     */
+    @Override
+    public SessionSample sample(int sampleSize) {
+        long now = System.nanoTime();
+        long keys = 0;
+        int sampled = 0;
+        int empty = 0;
+        long bytes = 0;
+        long ttlSeconds = 0;
+        Map<FlowContext, Integer> flows = new EnumMap<>(FlowContext.class);
+
+        for (Entry entry : sessions.values()) {
+            long remaining = entry.expiresAt() - now;
+            if (remaining <= 0) {
+                continue;
+            }
+            keys++;
+            if (sampled >= sampleSize) {
+                continue;
+            }
+
+            sampled++;
+            ttlSeconds += TimeUnit.NANOSECONDS.toSeconds(remaining);
+            if (entry.values().isEmpty()) {
+                empty++;
+                continue;
+            }
+            bytes += SessionCodec.encode(entry.values()).length;
+            if (entry.values().get(SessionField.FLOW_CONTEXT.key()) instanceof FlowContext flow) {
+                flows.merge(flow, 1, Integer::sum);
+            }
+        }
+        return new SessionSample(keys, sampled, empty, bytes, ttlSeconds, flows);
+    }
+
+    /**
+     * Advances the timer wheel to the current tick and removes expired sessions.
+     */
+    @Scheduled(fixedRateString = "${session.store.tick:1s}")
+    public void expire() {
+        long now = System.nanoTime();
+        long currentTick = (now - startNanos) / tickNanos;
+        if (currentTick - processedTick > wheel.length) {
+            processedTick = currentTick - wheel.length;
+        }
+
+        while (processedTick < currentTick) {
+            processedTick++;
+            Iterator<Timeout> timeouts = wheel[(int) (processedTick & mask)].iterator();
+            while (timeouts.hasNext()) {
+                Timeout timeout = timeouts.next();
+                if (timeout.expiresAt() - now > 0) {
+                    continue;
+                }
+                timeouts.remove();
+                sessions.computeIfPresent(timeout.chatId(),
+                        (chatId, entry) -> entry.expiresAt() - now <= 0 ? null : entry);
+            }
+        }
+    }
+
+    /**
+     * Returns the first tick at or after the given time.
+     */
+    private long tickOf(long nanos) {
+        return (nanos - startNanos + tickNanos - 1) / tickNanos;
+    }
+
+    /**
+     * Stored session values, their version and expiration on the {@link System#nanoTime()} scale.
+     */
+    private record Entry(Map<String, Object> values, long version, long expiresAt) {
+    }
+
+    /**
+     * Scheduled expiration check of a chat session.
+     */
+    private record Timeout(Long chatId, long expiresAt) {
+    }
+}
@@ -0,0 +1,429 @@
+package org.example.carrentalbot.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.SessionStoreProperties;
+import org.example.carrentalbot.exception.SessionConflictException;
+import org.example.carrentalbot.model.enums.FlowContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis-backed {@link SessionStore} using Hash structures.
+ * Session data is stored in Redis hashes under keys prefixed with {@code chat:}.
+ * Each session has a sliding expiration refreshed on every write, chosen by the
+ * flow the session is in.
+ * <p>All values of a session are kept in a single compact binary record (see
+ * {@link SessionCodec}) in the {@value #RECORD_FIELD} field of the hash. Sessions written
+ * by earlier versions keep one string field per value; they remain readable and are
+ * migrated to the record on their next write.</p>
+ * <p>Every hash carries a version in the {@value #VERSION_FIELD} field. Writes are
+ * compare-and-set on that version, so a session loaded before a concurrent write of the
+ * same chat cannot overwrite it; the stale writer gets a {@link SessionConflictException}.</p>
+ * <p>While an update is processed, it holds the lock of its chat: a {@code session-lock:}
+ * key with a random token and a lease. Updates of one chat on different nodes therefore
+ * run one after another and each loads the session the previous one wrote; the version
+ * check only rejects a write whose lease expired while its update was still running.</p>
+ * <p>If the {@link SessionNearCache} is enabled, sessions are additionally served
+ * from process memory, and writes publish invalidations so that other nodes drop their copy.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "session.store", name = "mode", havingValue = "REDIS", matchIfMissing = true)
+public class RedisSessionStore implements SessionStore {
+
+    /**
+     * Redis key prefix for session storage.
+     */
+    private static final String SESSION_PREFIX = "chat:";
+
+    /**
+     * Redis key prefix for the per-chat session locks; kept outside {@code chat:} so that
+     * the sampler does not count locks as sessions.
+     */
+    private static final String LOCK_PREFIX = "session-lock:";
+
+    /**
+     * Longest pause between two attempts to acquire a held lock.
+     */
+    private static final long MAX_LOCK_BACKOFF_MILLIS = 100;
+
+    /**
+     * Hash field holding the binary session record.
+     */
+    static final String RECORD_FIELD = "_s";
+
+    /**
+     * Hash field holding the version of the session.
+     */
+    static final String VERSION_FIELD = "_v";
+
+    /**
+     * Compare-and-set write of a session.
+     * <p>KEYS: session hash. ARGV: expected version, clear flag, TTL seconds, session
+     * record (empty if the session is deleted), invalidation channel and message prefix
+     * (empty if not published), then the legacy fields to delete. Returns the new version,
+     * or {@code -1} if the expected version does not match.</p>
+     * <p>The script only touches the hash of its chat, so it runs on the node owning that
+     * key in Redis Cluster and writes of different chats share no key. The new version is
+     * the stored one plus one, but at least the current server time in microseconds: a
+     * hash recreated after deletion or expiry starts above every version it had before, so
+     * a stale writer can never match it. A deleted session keeps its version field until
+     * it expires.</p>
+     */
+    private static final RedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], '%2$s') or '0'
+            if current ~= ARGV[1] then return -1 end
+            local time = redis.call('TIME')
+            local version = math.max(tonumber(current) + 1, tonumber(time[1]) * 1000000 + tonumber(time[2]))
+            local stamp = string.format('%%d', version)
+            if ARGV[2] == '1' then redis.call('DEL', KEYS[1]) end
+            for i = 7, #ARGV do redis.call('HDEL', KEYS[1], ARGV[i]) end
+            if ARGV[4] == '' then
+              redis.call('HDEL', KEYS[1], '%1$s')
+            else
+              redis.call('HSET', KEYS[1], '%1$s', ARGV[4])
+            end
+            redis.call('HSET', KEYS[1], '%2$s', stamp)
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            if ARGV[5] ~= '' then redis.call('PUBLISH', ARGV[5], ARGV[6] .. ':' .. stamp) end
+            return version
+            """.formatted(RECORD_FIELD, VERSION_FIELD), Long.class);
+
+    /**
+     * Release of a lock, only if it is still held with the given token.
+     * <p>KEYS: lock key. ARGV: token. Returns the number of deleted keys.</p>
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end
+            return 0
+            """, Long.class);
+
+    private static final RedisSerializer<Long> VERSION_RESULT = new GenericToStringSerializer<>(Long.class);
+
+    private static final byte[] NO_RECORD = new byte[0];
+
+    /**
+     * Number of keys requested per {@code SCAN} call when sampling.
+     */
+    private static final int SCAN_COUNT = 1000;
+
+    /**
+     * Redis template used for session persistence.
+     */
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * Optional in-process cache of sessions; {@code null} if disabled.
+     */
+    private final SessionNearCache nearCache;
+
+    /**
+     * Expiration settings of session data in Redis.
+     */
+    private final SessionStoreProperties sessionStoreProperties;
+
+    public RedisSessionStore(RedisTemplate<String, Object> redisTemplate,
+                             ObjectProvider<SessionNearCache> nearCache,
+                             SessionStoreProperties sessionStoreProperties) {
+        Duration lease = sessionStoreProperties.lockLease();
+        Duration wait = sessionStoreProperties.lockWait();
+        if (lease.isNegative() || lease.isZero() || wait.isNegative() || wait.isZero()) {
+            throw new IllegalStateException("session.store.lock-lease and lock-wait must be positive");
+        }
+
+        this.redisTemplate = redisTemplate;
+        this.nearCache = nearCache.getIfAvailable();
+        this.sessionStoreProperties = sessionStoreProperties;
+    }
+
+    private String key(Long chatId) {
+        return SESSION_PREFIX + chatId;
+    }
+
+    /**
+     * Acquires the lock of the given chat with {@code SET NX PX}, retrying with a growing
+     * pause while another update holds it.
+     * <p>With the near-cache enabled, the stored version of the session is read in the same
+     * round trip and an older cached copy is dropped, since the invalidation published by
+     * the previous holder may not have arrived yet.</p>
+     *
+     * @param chatId chat identifier
+     * @return lock that deletes the key if it still holds this token
+     * @throws SessionConflictException if the lock was not acquired within {@code lock-wait}
+     */
+    @Override
+    public SessionLock lock(Long chatId) {
+        byte[] lockKey = utf8(LOCK_PREFIX + chatId);
+        byte[] sessionKey = utf8(key(chatId));
+        byte[] versionField = utf8(VERSION_FIELD);
+        String token = UUID.randomUUID().toString();
+        Expiration lease = Expiration.from(sessionStoreProperties.lockLease());
+        long deadline = System.nanoTime() + sessionStoreProperties.lockWait().toNanos();
+        long backoffMillis = 5;
+
+        while (true) {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().set(lockKey, utf8(token), lease, RedisStringCommands.SetOption.ifAbsent());
+                if (nearCache != null) {
+                    connection.hashCommands().hGet(sessionKey, versionField);
+                }
+                return null;
+            }, RedisSerializer.string());
+
+            if (Boolean.TRUE.equals(results.get(0))) {
+                if (nearCache != null && results.get(1) instanceof String stamp) {
+                    nearCache.invalidate(chatId, parseVersion(chatId, stamp));
+                }
+                return () -> unlock(chatId, token);
+            }
+
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw new SessionConflictException(chatId);
+            }
+            try {
+                Thread.sleep(Math.min(backoffMillis, remainingMillis));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SessionConflictException(chatId);
+            }
+            backoffMillis = Math.min(backoffMillis * 2, MAX_LOCK_BACKOFF_MILLIS);
+        }
+    }
+
+    private void unlock(Long chatId, String token) {
+        Long released = redisTemplate.execute(UNLOCK_SCRIPT, RedisSerializer.byteArray(), VERSION_RESULT,
+                List.of(LOCK_PREFIX + chatId), utf8(token));
+        if (released == null || released == 0) {
+            log.warn("Session lock of chat {} expired before it was released", chatId);
+        }
+    }
+
+    /**
+     * Loads the session of the given chat from the near-cache or from Redis.
+     *
+     * @param chatId chat session identifier
+     * @return validated session
+     */
+    @Override
+    public ChatSession load(Long chatId) {
+        SessionNearCache.Entry cached = nearCache != null ? nearCache.get(chatId) : null;
+        if (cached != null) {
+            return ChatSession.of(chatId, cached.values(), cached.version(), Set.of());
+        }
+
+        Set<String> legacyFields = new HashSet<>();
+        Map<String, Object> values = read(chatId, legacyFields);
+        Object stamp = values.remove(VERSION_FIELD);
+        long version = stamp != null ? parseVersion(chatId, stamp.toString()) : 0L;
+
+        if (nearCache != null) {
+            nearCache.put(chatId, values, version);
+        }
+        return ChatSession.of(chatId, values, version, legacyFields);
+    }
+
+    private long parseVersion(Long chatId, String stamp) {
+        try {
+            return Long.parseLong(stamp);
+        } catch (NumberFormatException ex) {
+            log.error("Invalid session version in Redis for chatId {}: {}", chatId, stamp);
+            return 0L;
+        }
+    }
+
+    /**
+     * Reads and decodes the session hash of the given chat.
+     * <p>Values of the session record and legacy string fields are merged; the names of
+     * legacy fields are collected so that they are removed on the next write.</p>
+     *
+     * @param chatId chat session identifier
+     * @param legacyFields receives the names of legacy string fields
+     * @return decoded session hash, including the version field if present
+     */
+    private Map<String, Object> read(Long chatId, Set<String> legacyFields) {
+        String key = key(chatId);
+        byte[] rawKey = utf8(key);
+        Map<byte[], byte[]> hash = redisTemplate.execute(
+                (RedisCallback<Map<byte[], byte[]>>) connection -> connection.hashCommands().hGetAll(rawKey));
+        return decode(key, hash, legacyFields);
+    }
+
+    /**
+     * Decodes a raw session hash.
+     *
+     * @param key Redis key of the hash, for logging
+     * @param hash raw hash fields and values; may be {@code null}
+     * @param legacyFields receives the names of legacy string fields
+     * @return decoded session hash, including the version field if present
+     */
+    static Map<String, Object> decode(String key, Map<byte[], byte[]> hash, Set<String> legacyFields) {
+        Map<String, Object> values = new HashMap<>();
+        byte[] record = null;
+        if (hash != null) {
+            for (Map.Entry<byte[], byte[]> entry : hash.entrySet()) {
+                String field = new String(entry.getKey(), StandardCharsets.UTF_8);
+                if (RECORD_FIELD.equals(field)) {
+                    record = entry.getValue();
+                    continue;
+                }
+                values.put(field, new String(entry.getValue(), StandardCharsets.UTF_8));
+                if (!VERSION_FIELD.equals(field)) {
+                    legacyFields.add(field);
+                }
+            }
+        }
+
+        if (record != null) {
+            try {
+                values.putAll(SessionCodec.decode(record));
+            } catch (IllegalArgumentException ex) {
+                log.error("Discarding unreadable session record in {}", key, ex);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Writes the given session if it was changed and is still at the version it was loaded at.
+     * <p>The write is a single compare-and-set script: it fails without changes if the
+     * stored version differs, otherwise it applies the change, stamps a new version,
+     * refreshes the expiration for the current flow of the session and, with the near-cache enabled, publishes the
+     * invalidation for other nodes.</p>
+     *
+     * @param session session to write
+     * @throws SessionConflictException if the session was changed concurrently
+     */
+    @Override
+    public void write(ChatSession session) {
+        if (!session.isModified()) {
+            return;
+        }
+
+        Long chatId = session.getChatId();
+        Map<String, Object> values = session.toValues();
+        byte[] record = values.isEmpty() ? NO_RECORD : SessionCodec.encode(values);
+        Map.Entry<String, String> invalidation = nearCache != null ? nearCache.invalidation(chatId) : null;
+
+        List<byte[]> args = new ArrayList<>(6 + session.legacyFields().size());
+        args.add(utf8(String.valueOf(session.version())));
+        args.add(utf8(session.isCleared() ? "1" : "0"));
+        Duration ttl = sessionStoreProperties.ttlFor(session.getFlowContext().orElse(null));
+        args.add(utf8(String.valueOf(ttl.toSeconds())));
+        args.add(record);
+        args.add(utf8(invalidation != null ? invalidation.getKey() : ""));
+        args.add(utf8(invalidation != null ? invalidation.getValue() : ""));
+        session.legacyFields().forEach(field -> args.add(utf8(field)));
+
+        Long version = redisTemplate.execute(WRITE_SCRIPT, RedisSerializer.byteArray(), VERSION_RESULT,
+                List.of(key(chatId)), args.toArray());
+
+        if (version == null || version < 0) {
+            if (nearCache != null) {
+                nearCache.evict(chatId);
+            }
+            throw new SessionConflictException(chatId);
+        }
+
+        if (nearCache != null) {
+            nearCache.put(chatId, values, version);
+        }
+        session.markWritten(version);
+    }
+
+    /**
+     * Counts the session hashes with {@code SCAN} and inspects the first ones returned.
+     * <p>{@code SCAN} walks the keyspace in small steps without blocking the server; keys
+     * are returned in hash table order, which makes the inspected sessions an unbiased
+     * sample. Hashes that expire between the scan and the read are skipped. The size of a
+     * hash is the length of its field names and values, without Redis overhead.</p>
+     *
+     * @param sampleSize maximum number of sessions to inspect
+     * @return sample of the stored sessions
+     */
+    @Override
+    public SessionSample sample(int sampleSize) {
+        ScanOptions options = ScanOptions.scanOptions().match(SESSION_PREFIX + "*").count(SCAN_COUNT).build();
+
+        return redisTemplate.execute((RedisCallback<SessionSample>) connection -> {
+            long keys = 0;
+            int sampled = 0;
+            int empty = 0;
+            long bytes = 0;
+            long ttlSeconds = 0;
+            Map<FlowContext, Integer> flows = new EnumMap<>(FlowContext.class);
+
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    byte[] rawKey = cursor.next();
+                    keys++;
+                    if (sampled >= sampleSize) {
+                        continue;
+                    }
+
+                    Map<byte[], byte[]> hash = connection.hashCommands().hGetAll(rawKey);
+                    Long ttl = connection.keyCommands().ttl(rawKey);
+                    if (hash == null || hash.isEmpty()) {
+                        continue;
+                    }
+                    sampled++;
+                    ttlSeconds += ttl != null && ttl > 0 ? ttl : 0;
+
+                    Map<String, Object> values = decode(new String(rawKey, StandardCharsets.UTF_8), hash, new HashSet<>());
+                    values.remove(VERSION_FIELD);
+                    if (values.isEmpty()) {
+                        empty++;
+                        continue;
+                    }
+                    for (Map.Entry<byte[], byte[]> entry : hash.entrySet()) {
+                        bytes += entry.getKey().length + entry.getValue().length;
+                    }
+                    FlowContext flow = flowOf(values);
+                    if (flow != null) {
+                        flows.merge(flow, 1, Integer::sum);
+                    }
+                }
+            }
+            return new SessionSample(keys, sampled, empty, bytes, ttlSeconds, flows);
+        });
+    }
+
+    private static FlowContext flowOf(Map<String, Object> values) {
+        Object value = values.get(SessionField.FLOW_CONTEXT.key());
+        if (value == null) {
+            return null;
+        }
+        try {
+            return (FlowContext) SessionField.FLOW_CONTEXT.convert(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.carrentalbot.session;
+
+import org.example.carrentalbot.model.enums.CarBrowsingMode;
+import org.example.carrentalbot.model.enums.CarCategory;
+import org.example.carrentalbot.model.enums.FlowContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of a whole chat session into a single record.
+ * <p>Layout: a format byte, the number of entries, then per entry the
+ * {@linkplain SessionField#id() id of the field} as one byte followed by a type tag and
+ * its payload:</p>
+ * <ul>
+ *   <li>session enums — constant name, decoded as a string that {@link ChatSession}
+ *   converts like a legacy value</li>
+ *   <li>{@link UUID} — 16 bytes</li>
+ *   <li>{@link LocalDate} — epoch day as an int</li>
+ *   <li>{@link Integer} — 4 bytes</li>
+ *   <li>{@link BigDecimal} — scale byte and unscaled long; text if it does not fit</li>
+ *   <li>{@link String} — length-prefixed UTF-8</li>
+ * </ul>
+ * <p>Entries with an id that is not part of the schema are skipped, and an enum constant
+ * that no longer exists only drops its own field, so sessions survive schema changes.</p>
+ */
+final class SessionCodec {
+
+    private static final byte FORMAT = 1;
+
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_UUID = 2;
+    private static final byte TAG_DATE = 3;
+    private static final byte TAG_INTEGER = 4;
+    private static final byte TAG_DECIMAL = 5;
+    private static final byte TAG_DECIMAL_TEXT = 6;
+    private static final byte TAG_ENUM = 7;
+
+    private SessionCodec() {
+    }
+
+    /**
+     * Encodes the given session values.
+     *
+     * @param values session values of supported types, indexed by {@linkplain SessionField#key() field name}
+     * @return binary record
+     * @throws IllegalArgumentException if a field is not part of the schema or a value type is not supported
+     */
+    static byte[] encode(Map<String, Object> values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + values.size() * 24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeShort(values.size());
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                SessionField field = SessionField.byKey(entry.getKey());
+                if (field == null) {
+                    throw new IllegalArgumentException("Unknown session field: " + entry.getKey());
+                }
+                out.writeByte(field.id());
+                writeValue(out, entry.getValue());
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a session record.
+     *
+     * @param record binary record produced by {@link #encode(Map)}
+     * @return mutable map of session values, indexed by {@linkplain SessionField#key() field name}
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    static Map<String, Object> decode(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte format = in.readByte();
+            if (format != FORMAT) {
+                throw new IllegalArgumentException("Unsupported session record format " + format);
+            }
+
+            int size = in.readUnsignedShort();
+            Map<String, Object> values = new HashMap<>(Math.max(16, size * 2));
+            for (int i = 0; i < size; i++) {
+                String key = keyOf(in.readUnsignedByte());
+                Object value = readValue(in);
+                if (key != null) {
+                    values.put(key, value);
+                }
+            }
+            return values;
+        } catch (IOException | DateTimeException | NumberFormatException exception) {
+            throw new IllegalArgumentException("Malformed session record", exception);
+        }
+    }
+
+    private static String keyOf(int id) {
+        SessionField field = SessionField.byId(id);
+        return field != null ? field.key() : null;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String string) {
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(TAG_STRING);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        } else if (value instanceof UUID uuid) {
+            out.writeByte(TAG_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof LocalDate date) {
+            out.writeByte(TAG_DATE);
+            out.writeInt(Math.toIntExact(date.toEpochDay()));
+        } else if (value instanceof Integer integer) {
+            out.writeByte(TAG_INTEGER);
+            out.writeInt(integer);
+        } else if (value instanceof BigDecimal decimal) {
+            BigInteger unscaled = decimal.unscaledValue();
+            if (unscaled.bitLength() < Long.SIZE && decimal.scale() >= Byte.MIN_VALUE && decimal.scale() <= Byte.MAX_VALUE) {
+                out.writeByte(TAG_DECIMAL);
+                out.writeByte(decimal.scale());
+                out.writeLong(unscaled.longValue());
+            } else {
+                out.writeByte(TAG_DECIMAL_TEXT);
+                out.writeUTF(decimal.toString());
+            }
+        } else if (value instanceof FlowContext || value instanceof CarCategory || value instanceof CarBrowsingMode) {
+            out.writeByte(TAG_ENUM);
+            out.writeUTF(((Enum<?>) value).name());
+        } else {
+            throw new IllegalArgumentException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case TAG_STRING -> {
+                int length = in.readInt();
+                if (length < 0 || length > in.available()) {
+                    throw new IOException("Invalid string length " + length);
+                }
+                byte[] utf8 = new byte[length];
+                in.readFully(utf8);
+                yield new String(utf8, StandardCharsets.UTF_8);
+            }
+            case TAG_UUID -> new UUID(in.readLong(), in.readLong());
+            case TAG_DATE -> LocalDate.ofEpochDay(in.readInt());
+            case TAG_INTEGER -> in.readInt();
+            case TAG_DECIMAL -> {
+                int scale = in.readByte();
+                yield BigDecimal.valueOf(in.readLong(), scale);
+            }
+            case TAG_DECIMAL_TEXT -> new BigDecimal(in.readUTF());
+            case TAG_ENUM -> in.readUTF();
+            default -> throw new IOException("Unknown session value tag " + tag);
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.carrentalbot.session;
+
+import org.example.carrentalbot.model.enums.CarBrowsingMode;
+import org.example.carrentalbot.model.enums.CarCategory;
+import org.example.carrentalbot.model.enums.FlowContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Declared schema of a {@link ChatSession}.
+ * <p>Each field has the numeric id it is stored under in a session record, its name and
+ * its value type. The name is the key of the field in session value maps and the hash
+ * field of sessions written by earlier versions, which kept one string per session field;
+ * the parser converts those string values.</p>
+ * <p>Ids and names are persisted: they must not be changed, and the id of a removed
+ * field must not be reused.</p>
+ */
+enum SessionField {
+
+    FLOW_CONTEXT(1, "flowContext", FlowContext.class, FlowContext::valueOf),
+    CAR_BROWSING_MODE(2, "carBrowsingMode", CarBrowsingMode.class, CarBrowsingMode::valueOf),
+    CAR_CATEGORY(3, "carCategory", CarCategory.class, CarCategory::valueOf),
+    CAR_ID(4, "carId", UUID.class, UUID::fromString),
+    START_DATE(5, "startDate", LocalDate.class, LocalDate::parse),
+    END_DATE(6, "endDate", LocalDate.class, LocalDate::parse),
+    TOTAL_DAYS(7, "totalDays", Integer.class, Integer::valueOf),
+    TOTAL_COST(8, "totalCost", BigDecimal.class, BigDecimal::new),
+    PHONE(9, "phone", String.class, Function.identity()),
+    EMAIL(10, "email", String.class, Function.identity()),
+    BOOKING_ID(11, "bookingId", UUID.class, UUID::fromString);
+
+    private static final Map<String, SessionField> BY_KEY = Stream.of(values())
+            .collect(Collectors.toUnmodifiableMap(SessionField::key, Function.identity()));
+
+    private static final Map<Integer, SessionField> BY_ID = Stream.of(values())
+            .collect(Collectors.toUnmodifiableMap(SessionField::id, Function.identity()));
+
+    /**
+     * Id the field is stored under in a session record; fits into an unsigned byte.
+     */
+    private final int id;
+
+    /**
+     * Name the field is stored under.
+     */
+    private final String key;
+
+    /**
+     * Type of the field value.
+     */
+    private final Class<?> type;
+
+    /**
+     * Parser for string values of legacy sessions.
+     */
+    private final Function<String, ?> parser;
+
+    SessionField(int id, String key, Class<?> type, Function<String, ?> parser) {
+        this.id = id;
+        this.key = key;
+        this.type = type;
+        this.parser = parser;
+    }
+
+    int id() {
+        return id;
+    }
+
+    String key() {
+        return key;
+    }
+
+    Class<?> type() {
+        return type;
+    }
+
+    /**
+     * Converts a stored value to the type of this field.
+     *
+     * @param value stored value, either of the field type or its string form
+     * @return value of the field type
+     * @throws IllegalArgumentException if the value cannot be converted
+     */
+    Object convert(Object value) {
+        if (type.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof String string) {
+            return parser.apply(string);
+        }
+        throw new IllegalArgumentException("Unexpected value type " + value.getClass().getName());
+    }
+
+    /**
+     * Looks up a field by the name it is stored under.
+     *
+     * @param key stored field name
+     * @return field, or {@code null} if the name is not part of the schema
+     */
+    static SessionField byKey(String key) {
+        return BY_KEY.get(key);
+    }
+
+    /**
+     * Looks up a field by the id it is stored under.
+     *
+     * @param id stored field id
+     * @return field, or {@code null} if the id is not part of the schema
+     */
+    static SessionField byId(int id) {
+        return BY_ID.get(id);
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.carrentalbot.session;
+
+/**
+ * Exclusive access to the session of one chat, acquired by {@link SessionStore#lock(Long)}.
+ * <p>Held by a {@link SessionScope} from before its session is loaded until after it is
+ * written, so that updates of one chat processed on different nodes do not interleave.</p>
+ */
+public interface SessionLock extends AutoCloseable {
+
+    /**
+     * Releases the lock.
+     */
+    @Override
+    void close();
+}
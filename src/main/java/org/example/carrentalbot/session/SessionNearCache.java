@@ -0,0 +1,176 @@
+package org.example.carrentalbot.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.SessionCacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-process near-cache of decoded chat sessions in front of Redis.
+ * <p>Every session write stamps the hash with a new version in the
+ * {@value RedisSessionStore#VERSION_FIELD} field and publishes an invalidation message in the same script (see
+ * {@link RedisSessionStore}). Other nodes evict their copy of the chat when they receive
+ * the message; the writing node updates its copy in place.</p>
+ * <p>Versions protect against races between loading and invalidation: an invalidation
+ * received while a load is in flight leaves a marker with its version, and the loaded
+ * hash is only cached if it is at least as new.</p>
+ * <p>Entries are evicted in least recently used order beyond the configured size and
+ * expire after the configured time to live.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "session.near-cache", name = "enabled", havingValue = "true")
+public class SessionNearCache implements MessageListener {
+
+    /**
+     * Pub/sub channel carrying session invalidations as {@code chatId:nodeId:version}.
+     */
+    private static final String CHANNEL = "session:invalidate";
+
+    /**
+     * Identifier of this node, used to ignore its own invalidations.
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final long ttlNanos;
+
+    /**
+     * Cached sessions in access order, guarded by its own monitor.
+     */
+    private final LinkedHashMap<Long, Entry> entries;
+
+    public SessionNearCache(RedisMessageListenerContainer listenerContainer,
+                            SessionCacheProperties sessionCacheProperties) {
+
+        if (sessionCacheProperties.maxEntries() < 1) {
+            throw new IllegalStateException("session.near-cache.max-entries must be positive");
+        }
+
+        int maxEntries = sessionCacheProperties.maxEntries();
+        this.ttlNanos = sessionCacheProperties.ttl().toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        log.info("Session near-cache enabled: maxEntries={}, ttl={}", maxEntries, sessionCacheProperties.ttl());
+    }
+
+    /**
+     * Returns the cached session of the given chat.
+     *
+     * @param chatId chat identifier
+     * @return cached session with immutable values, or {@code null} if the chat is not cached
+     */
+    Entry get(Long chatId) {
+        synchronized (entries) {
+            Entry entry = entries.get(chatId);
+            if (entry == null || entry.values() == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.loadedAt() > ttlNanos) {
+                entries.remove(chatId);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Returns the pub/sub channel and message prefix announcing a write of the given chat.
+     * <p>The writer appends the new version to the prefix.</p>
+     *
+     * @param chatId chat identifier
+     * @return channel and message prefix
+     */
+    Map.Entry<String, String> invalidation(Long chatId) {
+        return Map.entry(CHANNEL, chatId + ":" + nodeId);
+    }
+
+    /**
+     * Caches a session loaded from or written to Redis, unless a newer version is already known.
+     *
+     * @param chatId chat identifier
+     * @param values session values
+     * @param version version of the session in Redis
+     */
+    void put(Long chatId, Map<String, Object> values, long version) {
+        Map<String, Object> immutable = Map.copyOf(values);
+        synchronized (entries) {
+            Entry entry = entries.get(chatId);
+            if (entry == null || entry.version() <= version) {
+                entries.put(chatId, new Entry(immutable, version, System.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * Drops the local copy of a session, e.g. after a write failed on a stale version.
+     *
+     * @param chatId chat identifier
+     */
+    void evict(Long chatId) {
+        synchronized (entries) {
+            Entry entry = entries.get(chatId);
+            if (entry != null && entry.values() != null) {
+                entries.remove(chatId);
+            }
+        }
+    }
+
+    /**
+     * Evicts the chat named by an invalidation published by another node.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split(":", 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed session invalidation '{}'", body);
+            return;
+        }
+        if (nodeId.equals(parts[1])) {
+            return;
+        }
+
+        try {
+            invalidate(Long.valueOf(parts[0]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException exception) {
+            log.warn("Ignoring malformed session invalidation '{}'", body);
+        }
+    }
+
+    /**
+     * Drops the cached session if it is older than the given version, and remembers that
+     * version so that a stale load is not cached.
+     *
+     * @param chatId chat identifier
+     * @param version version of the session in Redis
+     */
+    void invalidate(Long chatId, long version) {
+        synchronized (entries) {
+            Entry entry = entries.get(chatId);
+            if (entry == null || entry.version() < version) {
+                entries.put(chatId, new Entry(null, version, System.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * Cached session; {@code values} is {@code null} for an invalidation marker.
+     */
+    record Entry(Map<String, Object> values, long version, long loadedAt) {
+    }
+}
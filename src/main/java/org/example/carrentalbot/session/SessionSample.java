@@ -0,0 +1,25 @@
+package org.example.carrentalbot.session;
+
+import org.example.carrentalbot.model.enums.FlowContext;
+
+import java.util.Map;
+
+/**
+ * Result of sampling the sessions of a {@link SessionStore}.
+ * <p>The key count covers the whole store; all other figures only cover the sampled
+ * sessions and are scaled up by {@link SessionSampler}.</p>
+ *
+ * @param keys number of stored session keys, including deleted sessions that have not expired yet
+ * @param sampled number of sessions inspected
+ * @param empty number of inspected sessions without values
+ * @param bytes stored size of the inspected sessions with values
+ * @param ttlSeconds remaining expiration of all inspected sessions, summed up
+ * @param flows number of inspected sessions per flow; sessions without a flow are not counted
+ */
+public record SessionSample(long keys,
+                            int sampled,
+                            int empty,
+                            long bytes,
+                            long ttlSeconds,
+                            Map<FlowContext, Integer> flows) {
+}
@@ -0,0 +1,161 @@
+package org.example.carrentalbot.session;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.SessionSamplerProperties;
+import org.example.carrentalbot.model.enums.FlowContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples the {@link SessionStore} and publishes the result as gauges.
+ * <p>Each run counts the stored session keys and inspects up to
+ * {@code session.sampler.sample-size} of them. Figures of the inspected sessions are
+ * scaled up to the key count:</p>
+ * <ul>
+ *     <li>{@code session.store.keys} – stored session keys, including deleted sessions
+ *     that have not expired yet</li>
+ *     <li>{@code session.store.sessions} – estimated sessions with values</li>
+ *     <li>{@code session.store.size.avg} – average stored size of a session with values</li>
+ *     <li>{@code session.store.ttl.avg} – average remaining expiration of a session</li>
+ *     <li>{@code session.store.flow} – estimated sessions per flow, tagged with the flow</li>
+ * </ul>
+ * <p>Every run also logs a summary, which helps to tune the expiration per flow
+ * ({@code session.store.flow-ttl}).</p>
+ * <p>Runs on a thread of its own rather than the shared {@code @Scheduled} pool: a
+ * {@code SCAN} over all session keys takes as long as the keyspace is large, and must
+ * not delay the admission spill drain, session expiry or reminders scheduled there.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "session.sampler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SessionSampler {
+
+    private final SessionStore sessionStore;
+    private final SessionSamplerProperties sessionSamplerProperties;
+
+    /**
+     * Result of the last run; empty until the first run completes.
+     */
+    private volatile SessionSample last = new SessionSample(0, 0, 0, 0, 0, Map.of());
+
+    /**
+     * Single thread the runs are scheduled on.
+     */
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SessionSampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SessionSampler(SessionStore sessionStore,
+                          SessionSamplerProperties sessionSamplerProperties,
+                          MeterRegistry meterRegistry) {
+        if (sessionSamplerProperties.sampleSize() < 1) {
+            throw new IllegalStateException("session.sampler.sample-size must be positive");
+        }
+        if (sessionSamplerProperties.interval().toMillis() < 1) {
+            throw new IllegalStateException("session.sampler.interval must be positive");
+        }
+        this.sessionStore = sessionStore;
+        this.sessionSamplerProperties = sessionSamplerProperties;
+
+        Gauge.builder("session.store.keys", this, sampler -> sampler.last.keys())
+                .description("Stored chat session keys")
+                .register(meterRegistry);
+
+        Gauge.builder("session.store.sessions", this, SessionSampler::estimatedSessions)
+                .description("Estimated stored chat sessions with values")
+                .register(meterRegistry);
+
+        Gauge.builder("session.store.size.avg", this, SessionSampler::averageSize)
+                .description("Average stored size of a chat session with values")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        Gauge.builder("session.store.ttl.avg", this, SessionSampler::averageTtl)
+                .description("Average remaining expiration of a stored chat session")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        for (FlowContext flow : FlowContext.values()) {
+            Gauge.builder("session.store.flow", this, sampler -> sampler.estimatedSessions(flow))
+                    .description("Estimated stored chat sessions by flow")
+                    .tag("flow", flow.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Schedules the runs once the application is ready, one interval apart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = sessionSamplerProperties.interval().toMillis();
+        executor.scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Session sampler started: every {}, sample size {}",
+                sessionSamplerProperties.interval(), sessionSamplerProperties.sampleSize());
+    }
+
+    /**
+     * Stops the runs; a run in progress is interrupted.
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Samples the session store and logs a summary.
+     * <p>Failures are logged and leave the previous result in place.</p>
+     */
+    public void sample() {
+        try {
+            last = sessionStore.sample(sessionSamplerProperties.sampleSize());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to sample chat sessions", ex);
+            return;
+        }
+
+        log.info("Session sample: keys={}, sampled={}, sessions~{}, avgSize={}B, avgTtl={}s, flows={}",
+                last.keys(), last.sampled(), Math.round(estimatedSessions()),
+                Math.round(averageSize()), Math.round(averageTtl()), last.flows());
+    }
+
+    private double estimatedSessions() {
+        SessionSample sample = last;
+        return scale(sample, sample.sampled() - sample.empty());
+    }
+
+    private double estimatedSessions(FlowContext flow) {
+        SessionSample sample = last;
+        return scale(sample, sample.flows().getOrDefault(flow, 0));
+    }
+
+    /**
+     * Scales a count of inspected sessions to all stored sessions.
+     */
+    private static double scale(SessionSample sample, int count) {
+        return sample.sampled() > 0 ? (double) count * sample.keys() / sample.sampled() : 0;
+    }
+
+    private double averageSize() {
+        SessionSample sample = last;
+        int withValues = sample.sampled() - sample.empty();
+        return withValues > 0 ? (double) sample.bytes() / withValues : 0;
+    }
+
+    private double averageTtl() {
+        SessionSample sample = last;
+        return sample.sampled() > 0 ? (double) sample.ttlSeconds() / sample.sampled() : 0;
+    }
+}
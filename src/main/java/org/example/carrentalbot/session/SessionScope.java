@@ -0,0 +1,15 @@
+package org.example.carrentalbot.session;
+
+/**
+ * Scope in which session access for one chat is served from a local snapshot.
+ * <p>Opened by {@link SessionService#openScope(Long)} on the thread processing an update.
+ * Closing the scope writes all buffered changes back in a single round trip.</p>
+ */
+public interface SessionScope extends AutoCloseable {
+
+    /**
+     * Flushes buffered session changes and ends the scope.
+     */
+    @Override
+    void close();
+}
@@ -1,107 +1,55 @@
 package org.example.carrentalbot.session;
 
-import org.example.carrentalbot.model.enums.CarBrowsingMode;
-import org.example.carrentalbot.model.enums.CarCategory;
-import org.example.carrentalbot.model.enums.FlowContext;
-
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.util.Optional;
-import java.util.UUID;
-
 /**
  * Service interface for managing user session data across distributed instances.
  * Provides a type-safe API for storing and retrieving temporary data
  * associated with a chat session, enabling multistep conversational flows
  * in a stateless environment.
+ * <p>A session is loaded and stored as a unit in the form of a {@link ChatSession}.</p>
  */
 public interface SessionService {
 
     /**
-     * Stores a value in the session under the specified field.
-     *
-     * @param chatId the chat session identifier
-     * @param field the session key
-     * @param value the value to store (must be serializable)
-     */
-    void put(Long chatId, String field, Object value);
-
-    /**
-     * Retrieves a String value from the session.
+     * Returns the session of the given chat.
+     * <p>Inside a scope of the chat, the session of the scope is returned: it is loaded
+     * once on first access, and changes made to it are written when the scope is closed.
+     * Outside a scope, a detached copy is loaded; changes to it are only written by
+     * {@link #saveSession(ChatSession)}.</p>
      *
      * @param chatId the chat session identifier
-     * @param field the session key
-     * @return the {@link Optional} containing the {@link String} value, or empty if not found
+     * @return the session, empty if none is stored
      */
-    Optional<String> getString(Long chatId, String field);
+    ChatSession getSession(Long chatId);
 
     /**
-     * Retrieves a UUID value from the session.
+     * Writes the given session if it was changed and refreshes its expiration.
+     * <p>Not needed for the session of an open scope, which is written when the
+     * scope is closed.</p>
      *
-     * @param chatId the chat session identifier
-     * @param field the session key
-     * @return the {@link Optional} containing the {@link UUID}, or empty if not found
+     * @param session the session to write
      */
-    Optional<UUID> getUUID(Long chatId, String field);
+    void saveSession(ChatSession session);
 
     /**
-     * Retrieves a LocalDate value from the session.
-     *
-     * @param chatId the chat session identifier
-     * @param field the session key
-     * @return the {@link Optional} containing the {@link LocalDate}, or empty if not found
-     */
-    Optional<LocalDate> getLocalDate(Long chatId, String field);
-
-    /**
-     * Retrieves an Integer value from the session.
-     *
-     * @param chatId the chat session identifier
-     * @param field the session key
-     * @return the {@link Optional} containing the {@link Integer}, or empty if not found
-     */
-    Optional<Integer> getInteger(Long chatId, String field);
-
-    /**
-     * Retrieves a BigDecimal value from the session.
-     *
-     * @param chatId the chat session identifier
-     * @param field the session key
-     * @return the {@link Optional} containing the {@link BigDecimal}, or empty if not found
-     */
-    Optional<BigDecimal> getBigDecimal(Long chatId, String field);
-
-    /**
-     * Retrieves a CarCategory value from the session.
-     *
-     * @param chatId the chat session identifier
-     * @param field the session key
-     * @return the {@link Optional} containing the {@link CarCategory}, or empty if not found
-     */
-    Optional<CarCategory> getCarCategory(Long chatId, String field);
-
-    /**
-     * Retrieves the FlowContext value from the session.
-     *
-     * @param chatId the chat session identifier
-     * @param field the session key
-     * @return the {@link Optional} containing the {@link FlowContext}, or empty if not found
-     */
-    Optional<FlowContext> getFlowContext(Long chatId, String field);
-
-    /**
-     * Retrieves the CarBrowsingMode value from the session.
+     * Clears all session data for the given chat.
      *
      * @param chatId the chat session identifier
-     * @param field the session key
-     * @return the {@link Optional} containing the {@link CarBrowsingMode}, or empty if not found
      */
-    Optional<CarBrowsingMode> getCarBrowsingMode(Long chatId, String field);
+    void deleteAll(Long chatId);
 
     /**
-     * Clears all session data for the given chat.
+     * Opens a session scope for the given chat on the current thread.
+     * <p>Until the scope is closed, {@link #getSession(Long)} for this chat returns the same
+     * session, loaded once on first access, and its changes are written together when the
+     * scope is closed. Access to other chats and from other threads is not affected.</p>
+     * <p>The scope holds the lock of the chat until it is closed; opening waits while
+     * another update of the chat holds it.</p>
+     * <p>If a scope is already open on the current thread, the returned scope does nothing.</p>
      *
      * @param chatId the chat session identifier
+     * @return scope to be closed when processing of the update has finished
+     * @throws org.example.carrentalbot.exception.SessionConflictException if the lock of the
+     *         chat could not be acquired
      */
-    void deleteAll(Long chatId);
+    SessionScope openScope(Long chatId);
 }
@@ -2,23 +2,16 @@ package org.example.carrentalbot.session;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.carrentalbot.model.enums.CarBrowsingMode;
-import org.example.carrentalbot.model.enums.CarCategory;
-import org.example.carrentalbot.model.enums.FlowContext;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.example.carrentalbot.exception.SessionConflictException;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.Duration;
-import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
-import java.util.Optional;
-import java.util.UUID;
-
 /**
- * Redis-backed implementation of {@link SessionService} using Hash structures.
- * Session data is stored in Redis hashes under keys prefixed with {@code chat:}.
- * Each session has a sliding expiration controlled by a fixed TTL.
+ * Implementation of {@link SessionService} on top of the configured {@link SessionStore}.
+ * <p>Inside a {@link SessionScope}, the session of the scoped chat is loaded once on first
+ * access and served from memory afterwards. Changes are written back as a unit when the
+ * scope is closed.</p>
+ * <p>A scope holds the {@link SessionLock} of its chat from opening to closing, so no
+ * other update of the chat loads the session before the changes of this one are written.</p>
  */
 @Slf4j
 @Service
@@ -26,262 +19,133 @@ import java.util.UUID;
 public class SessionServiceImpl implements SessionService {
 
     /**
-     * Redis key prefix for session storage.
+     * Storage backend of chat sessions.
      */
-    private static final String SESSION_PREFIX = "chat:";
+    private final SessionStore sessionStore;
 
     /**
-     * Default expiration time for session data in Redis.
+     * Scope of the current thread, if one is open.
      */
-    private static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    private final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
 
     /**
-     * Redis template used for session persistence.
+     * Returns the scope of the current thread if it belongs to the given chat.
      */
-    private final RedisTemplate<String, Object> redisTemplate;
-
-    private String key(Long chatId) {
-        return SESSION_PREFIX + chatId;
+    private Scope scopeFor(Long chatId) {
+        Scope scope = currentScope.get();
+        return scope != null && scope.chatId.equals(chatId) ? scope : null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void put(Long chatId, String field, Object value) {
+    public SessionScope openScope(Long chatId) {
         if (chatId == null) {
             throw new IllegalArgumentException("chatId cannot be null");
         }
-        if (field == null) {
-            throw new IllegalArgumentException("field cannot be null");
-        }
-        if (value == null) {
-            return;
+        if (currentScope.get() != null) {
+            return () -> { };
         }
-        String serialized = (value instanceof String) ? (String) value : serializeValue(value);
-        String redisKey = key(chatId);
 
-        redisTemplate.opsForHash().put(redisKey, field, serialized);
-        redisTemplate.expire(redisKey, DEFAULT_TTL);
+        Scope scope = new Scope(chatId, sessionStore.lock(chatId));
+        currentScope.set(scope);
+        return scope;
     }
 
     /**
-     * Converts supported types into a String representation for Redis storage.
-     * Supported types include enums, UUID, LocalDate, Integer, and BigDecimal.
-     *
-     * @throws IllegalArgumentException if the type is not supported
+     * {@inheritDoc}
      */
-    private String serializeValue(Object value) {
-
-        if (value instanceof Enum<?>) {
-            return ((Enum<?>) value).name();
-        }
-
-        if (value instanceof UUID) {
-            return value.toString();
-        }
-
-        if (value instanceof LocalDate) {
-            return value.toString();
-        }
-
-        if (value instanceof Integer) {
-            return value.toString();
-        }
-
-        if (value instanceof BigDecimal) {
-            return ((BigDecimal) value).toPlainString();
+    @Override
+    public ChatSession getSession(Long chatId) {
+        if (chatId == null) {
+            throw new IllegalArgumentException("chatId cannot be null");
         }
 
-        throw new IllegalArgumentException(
-                "Unsupported value type: " + value.getClass().getName()
-        );
+        Scope scope = scopeFor(chatId);
+        return scope != null ? scope.session() : sessionStore.load(chatId);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Optional<String> getString(Long chatId, String field) {
-        return Optional.ofNullable((String) redisTemplate.opsForHash().get(key(chatId), field));
+    public void saveSession(ChatSession session) {
+        Scope scope = scopeFor(session.getChatId());
+        if (scope != null && scope.session == session) {
+            return;
+        }
+        sessionStore.write(session);
     }
 
     /**
-     * Retrieves and parses a UUID value from the session.
-     * <p>If the stored value is invalid, the field is removed from the session.</p>
-     *
-     * @param chatId chat session identifier
-     * @param field session key
-     * @return the {@link Optional} containing the {@link UUID}, or empty if not found
-     * @throws IllegalArgumentException if the serialization fails
+     * {@inheritDoc}
      */
     @Override
-    public Optional<UUID> getUUID(Long chatId, String field) {
-        return getString(chatId, field)
-                .flatMap(val -> {
-                    try {
-                        return Optional.of(UUID.fromString(val));
-                    } catch (IllegalArgumentException ex) {
-                        log.error("Invalid UUID format in Redis for chatId {} field '{}': {}", chatId, field, val, ex);
-                        delete(chatId, field);
-                        return Optional.empty();
-                    }
-                });
-    }
+    public void deleteAll(Long chatId) {
+        Scope scope = scopeFor(chatId);
+        if (scope != null) {
+            scope.session().clear();
+            return;
+        }
 
-    /**
-     * Retrieves and parses a LocalDate value from the session.
-     * <p>If the stored value is invalid, the field is removed from the session.</p>
-     *
-     * @param chatId chat session identifier
-     * @param field session key
-     * @return the {@link Optional} containing the {@link LocalDate}, or empty if not found
-     * @throws IllegalArgumentException if the serialization fails
-     */
-    @Override
-    public Optional<LocalDate> getLocalDate(Long chatId, String field) {
-        return getString(chatId, field)
-                .flatMap(val -> {
-                    try {
-                        return Optional.of(LocalDate.parse(val));
-                    } catch (DateTimeParseException ex) {
-                        log.error("Invalid date format in Redis for chatId {} field '{}': {}", chatId, field, val, ex);
-                        delete(chatId, field);
-                        return Optional.empty();
-                    }
-                });
+        ChatSession session = sessionStore.load(chatId);
+        session.clear();
+        sessionStore.write(session);
     }
 
     /**
-     * Retrieves and parses an Integer value from the session.
-     * <p>If the stored value is invalid, the field is removed from the session.</p>
-     *
-     * @param chatId chat session identifier
-     * @param field session key
-     * @return the {@link Optional} containing the {@link Integer}, or empty if not found
-     * @throws IllegalArgumentException if the serialization fails
+     * Session scope of one chat, bound to the thread that opened it.
      */
-    @Override
-    public Optional<Integer> getInteger(Long chatId, String field) {
-        return getString(chatId, field)
-                .flatMap(val -> {
-                    try {
-                        return Optional.of(Integer.valueOf(val));
-                    } catch (NumberFormatException ex) {
-                        log.error("Invalid big decimal format in Redis for chatId {} field '{}': {}", chatId, field, val, ex);
-                        delete(chatId, field);
-                        return Optional.empty();
-                    }
-                });
-    }
+    private final class Scope implements SessionScope {
 
-    /**
-     * Retrieves and parses a BigDecimal value from the session.
-     * <p>If the stored value is invalid, the field is removed from the session.</p>
-     *
-     * @param chatId chat session identifier
-     * @param field session key
-     * @return the {@link Optional} containing the {@link BigDecimal}, or empty if not found
-     * @throws IllegalArgumentException if the serialization fails
-     */
-    @Override
-    public Optional<BigDecimal> getBigDecimal(Long chatId, String field) {
-        return getString(chatId, field)
-                .flatMap(val -> {
-                    try {
-                        return Optional.of(new BigDecimal(val));
-                    } catch (NumberFormatException ex) {
-                        log.error("Invalid big decimal format in Redis for chatId {} field '{}': {}", chatId, field, val, ex);
-                        delete(chatId, field);
-                        return Optional.empty();
-                    }
-                });
-    }
+        private final Long chatId;
 
-    /**
-     * Retrieves and parses a CarCategory value from the session.
-     * <p>If the stored value is invalid, the field is removed from the session.</p>
-     *
-     * @param chatId chat session identifier
-     * @param field session key
-     * @return the {@link Optional} containing the {@link CarCategory}, or empty if not found
-     * @throws IllegalArgumentException if the serialization fails
-     */
-    @Override
-    public Optional<CarCategory> getCarCategory(Long chatId, String field) {
-        return getString(chatId, field)
-                .flatMap(val -> {
-                    try {
-                        return Optional.of(CarCategory.valueOf(val));
-                    } catch (IllegalArgumentException ex) {
-                        log.error("Invalid CarCategory enum format in Redis for chatId {} field '{}': {}", chatId, field, val, ex);
-                        delete(chatId, field);
-                        return Optional.empty();
-                    }
-                });
-    }
+        /**
+         * Lock of the chat, released when the scope is closed.
+         */
+        private final SessionLock lock;
 
-    /**
-     * Retrieves and parses a FlowContext value from the session.
-     * <p>If the stored value is invalid, the field is removed from the session.</p>
-     *
-     * @param chatId chat session identifier
-     * @param field session key
-     * @return the {@link Optional} containing the {@link FlowContext}, or empty if not found
-     * @throws IllegalArgumentException if the serialization fails
-     */
-    @Override
-    public Optional<FlowContext> getFlowContext(Long chatId, String field) {
-        return getString(chatId, field)
-                .flatMap(val -> {
-                    try {
-                        return Optional.of(FlowContext.valueOf(val));
-                    } catch (IllegalArgumentException ex) {
-                        log.error("Invalid FlowContext enum format in Redis for chatId {} field '{}': {}", chatId, field, val, ex);
-                        delete(chatId, field);
-                        return Optional.empty();
-                    }
-                });
-    }
+        /**
+         * Session of the chat; {@code null} until first access.
+         */
+        private ChatSession session;
 
-    /**
-     * Retrieves and parses a CarBrowsingMode value from the session.
-     * <p>If the stored value is invalid, the field is removed from the session.</p>
-     *
-     * @param chatId chat session identifier
-     * @param field session key
-     * @return the {@link Optional} containing the {@link CarBrowsingMode}, or empty if not found
-     * @throws IllegalArgumentException if the serialization fails
-     */
-    @Override
-    public Optional<CarBrowsingMode> getCarBrowsingMode(Long chatId, String field) {
-        return getString(chatId, field)
-                .flatMap(val -> {
-                    try {
-                        return Optional.of(CarBrowsingMode.valueOf(val));
-                    } catch (IllegalArgumentException ex) {
-                        log.error("Invalid CarBrowsingMode enum format in Redis for chatId {} field '{}': {}", chatId, field, val, ex);
-                        delete(chatId, field);
-                        return Optional.empty();
-                    }
-                });
-    }
+        private Scope(Long chatId, SessionLock lock) {
+            this.chatId = chatId;
+            this.lock = lock;
+        }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void deleteAll(Long chatId) {
-        redisTemplate.delete(key(chatId));
-    }
+        private ChatSession session() {
+            if (session == null) {
+                session = sessionStore.load(chatId);
+            }
+            return session;
+        }
 
-    /**
-     * Removes a specific field from the session hash.
-     *
-     * @param chatId chat session identifier
-     * @param field  session key
-     */
-    private void delete(Long chatId, String field) {
-        redisTemplate.opsForHash().delete(key(chatId), field);
+        /**
+         * Writes the session back if it was changed, unbinds the scope and releases the lock.
+         * <p>A write can only be rejected as stale if the lock lease expired while the update
+         * was processed. Its changes are then dropped and logged, not thrown: the update has
+         * already had its effects, and an exception here would replace or hide the outcome of
+         * the processing itself.</p>
+         */
+        @Override
+        public void close() {
+            currentScope.remove();
+            try {
+                if (session != null) {
+                    sessionStore.write(session);
+                }
+            } catch (SessionConflictException ex) {
+                log.error("Session lock of chat {} expired during processing, session changes were dropped", chatId);
+            } finally {
+                try {
+                    lock.close();
+                } catch (RuntimeException ex) {
+                    log.error("Failed to release the session lock of chat {}", chatId, ex);
+                }
+            }
+        }
     }
 }
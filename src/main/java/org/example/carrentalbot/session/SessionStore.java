@@ -0,0 +1,49 @@
+package org.example.carrentalbot.session;
+
+import org.example.carrentalbot.exception.SessionConflictException;
+
+/**
+ * Storage backend of chat sessions used by {@link SessionService}.
+ * <p>Sessions are loaded and written as a unit. The backend is selected with
+ * {@code session.store.mode}.</p>
+ */
+public interface SessionStore {
+
+    /**
+     * Acquires exclusive access to the session of the given chat.
+     * <p>Waits while another update of the chat holds the lock, up to
+     * {@code session.store.lock-wait}. The lock is released when closed, or expires after
+     * {@code session.store.lock-lease} if its holder fails.</p>
+     *
+     * @param chatId chat identifier
+     * @return lock to close once the session has been written
+     * @throws SessionConflictException if the lock could not be acquired in time
+     */
+    SessionLock lock(Long chatId);
+
+    /**
+     * Loads the session of the given chat.
+     *
+     * @param chatId chat identifier
+     * @return validated session, empty if none is stored or it has expired
+     */
+    ChatSession load(Long chatId);
+
+    /**
+     * Writes the given session if it was changed and refreshes its expiration.
+     * <p>An empty session is deleted.</p>
+     *
+     * @param session session to write
+     * @throws SessionConflictException if the session was changed since it was loaded
+     */
+    void write(ChatSession session);
+
+    /**
+     * Counts the stored sessions and inspects up to the given number of them.
+     * <p>Intended for periodic monitoring; the cost grows with the number of stored sessions.</p>
+     *
+     * @param sampleSize maximum number of sessions to inspect
+     * @return sample of the stored sessions
+     */
+    SessionSample sample(int sampleSize);
+}
@@ -0,0 +1,75 @@
+package org.example.carrentalbot.util;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of asynchronous requests in flight.
+ * <p>A request is started right away if a slot is free and queued otherwise; no thread
+ * waits for a slot. Whichever thread frees a slot starts the next queued request, and
+ * the slot is held until the request's future completes.</p>
+ */
+public class AsyncRequestLimiter {
+
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a limiter allowing the given number of concurrent requests.
+     *
+     * @param maxRequests maximum number of requests in flight
+     */
+    public AsyncRequestLimiter(int maxRequests) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("maxRequests must be positive");
+        }
+        this.permits = new Semaphore(maxRequests);
+    }
+
+    /**
+     * Starts the given request as soon as a slot is free.
+     *
+     * @param request starts the request and returns its future
+     * @param <T> result type of the request
+     * @return future completed like the request's future
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        waiting.add(() -> {
+            CompletableFuture<T> started;
+            try {
+                started = request.get();
+            } catch (RuntimeException exception) {
+                started = CompletableFuture.failedFuture(exception);
+            }
+            started.whenComplete((value, exception) -> {
+                permits.release();
+                drain();
+                if (exception != null) {
+                    result.completeExceptionally(exception);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        drain();
+        return result;
+    }
+
+    /**
+     * Starts queued requests while slots are free.
+     */
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+                continue;
+            }
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.carrentalbot.util;
+
+import lombok.RequiredArgsConstructor;
+import org.example.carrentalbot.config.CalendarProperties;
+import org.example.carrentalbot.dto.InlineKeyboardMarkupDto;
+import org.example.carrentalbot.model.enums.CarBrowsingMode;
+import org.example.carrentalbot.service.BookingService;
+import org.example.carrentalbot.session.ChatSession;
+import org.example.carrentalbot.session.SessionService;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Helper component responsible for building the date picker calendars of a chat.
+ * <p>If availability-aware calendars are enabled and the user chose a car before picking
+ * dates ({@link CarBrowsingMode#ALL_CARS}), the days that car is already booked are
+ * marked as unavailable. Otherwise the plain calendar of the month is used.</p>
+ * <p>A marked calendar keeps the user from picking a booked day, but not from picking a
+ * range around one; such ranges are caught by {@link #isRangeBooked}.</p>
+ * <p>Calendars are built and cached by {@link KeyboardFactory}.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class CalendarHelper {
+
+    private final KeyboardFactory keyboardFactory;
+    private final SessionService sessionService;
+    private final BookingService bookingService;
+    private final CalendarProperties calendarProperties;
+
+    /**
+     * Builds the calendar of the given month for the chat.
+     *
+     * @param chatId chat identifier
+     * @param year calendar year
+     * @param month calendar month (1-12)
+     * @param prefix callback prefix for handling actions
+     * @return calendar keyboard
+     */
+    public InlineKeyboardMarkupDto buildCalendar(Long chatId, int year, int month, String prefix) {
+        return keyboardFactory.buildCalendar(year, month, prefix, getBookedDates(chatId, YearMonth.of(year, month)));
+    }
+
+    /**
+     * Checks whether the car chosen in the chat is booked on any day of the given range.
+     * <p>Only checked where {@link #buildCalendar} marks booked days; elsewhere the
+     * availability of the car is checked after the dates are confirmed.</p>
+     *
+     * @param chatId chat identifier
+     * @param startDate first day of the range
+     * @param endDate last day of the range
+     * @return {@code true} if a confirmed booking of the car overlaps the range
+     */
+    public boolean isRangeBooked(Long chatId, LocalDate startDate, LocalDate endDate) {
+        return chosenCar(chatId)
+                .map(carId -> !bookingService.isCarAvailable(carId, startDate, endDate))
+                .orElse(false);
+    }
+
+    /**
+     * Collects the days of the month on which the car chosen in the chat is booked.
+     *
+     * @return booked days, or an empty set if no car is chosen or the feature is disabled
+     */
+    private Set<LocalDate> getBookedDates(Long chatId, YearMonth yearMonth) {
+        return chosenCar(chatId)
+                .map(carId -> bookingService.getBookedDates(carId, yearMonth.atDay(1), yearMonth.atEndOfMonth()))
+                .orElse(Set.of());
+    }
+
+    /**
+     * Returns the car whose bookings the calendars of the chat take into account.
+     *
+     * @return car chosen before picking dates, or empty if there is none or the feature is disabled
+     */
+    private Optional<UUID> chosenCar(Long chatId) {
+        if (!calendarProperties.availabilityAware()) {
+            return Optional.empty();
+        }
+
+        ChatSession session = sessionService.getSession(chatId);
+        if (session.getCarBrowsingMode().orElse(null) != CarBrowsingMode.ALL_CARS) {
+            return Optional.empty();
+        }
+        return session.getCarId();
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.carrentalbot.util;
+
+import org.example.carrentalbot.handler.callback.CallbackHandler;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie resolving callback data to its {@link CallbackHandler}.
+ * <p>Callback data follows the {@code KEY[:payload...]} convention, so a handler
+ * is selected by walking the characters of the first {@code :}-delimited segment.
+ * A match is reported only when the segment ends exactly on a terminal node, which
+ * makes resolution deterministic regardless of handler registration order.</p>
+ * <p>The trie is built once at startup and lookups do not allocate.</p>
+ */
+final class CallbackKeyTrie {
+
+    /**
+     * Separator between the handler key and the callback payload.
+     */
+    static final char SEPARATOR = ':';
+
+    private final Node root;
+
+    private CallbackKeyTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds a trie from the given handler index.
+     * <p>Keys are rejected when they are ambiguous for callback routing:</p>
+     * <ul>
+     *   <li>blank keys or keys containing the {@code :} separator</li>
+     *   <li>keys that are a prefix of another registered key</li>
+     * </ul>
+     *
+     * @param handlers callback handlers indexed by their key
+     * @return immutable trie
+     * @throws IllegalStateException if any key is ambiguous
+     */
+    static CallbackKeyTrie of(Map<String, CallbackHandler> handlers) {
+        Builder root = new Builder();
+
+        handlers.forEach((key, handler) -> {
+            if (key == null || key.isBlank() || key.indexOf(SEPARATOR) >= 0) {
+                throw new IllegalStateException(
+                        "Invalid callback handler key '%s': must be non-blank and must not contain '%s'"
+                                .formatted(key, SEPARATOR));
+            }
+            root.insert(key, handler);
+        });
+
+        return new CallbackKeyTrie(root.freeze());
+    }
+
+    /**
+     * Resolves the handler registered for the key segment of the given callback data.
+     *
+     * @param callbackData raw callback payload
+     * @return matching handler or {@code null} if none is registered
+     */
+    CallbackHandler resolve(String callbackData) {
+        Node node = root;
+        int length = callbackData.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = callbackData.charAt(i);
+            if (c == SEPARATOR) {
+                break;
+            }
+            node = node.child(c);
+            if (node == null) {
+                return null;
+            }
+        }
+
+        return node.handler;
+    }
+
+    /**
+     * Frozen trie node with children stored in parallel sorted arrays.
+     */
+    private static final class Node {
+
+        private final char[] labels;
+        private final Node[] children;
+        private final CallbackHandler handler;
+
+        private Node(char[] labels, Node[] children, CallbackHandler handler) {
+            this.labels = labels;
+            this.children = children;
+            this.handler = handler;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    /**
+     * Mutable node used only while the trie is being built.
+     */
+    private static final class Builder {
+
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private CallbackHandler handler;
+        private String key;
+
+        private void insert(String key, CallbackHandler handler) {
+            Builder node = this;
+
+            for (int i = 0; i < key.length(); i++) {
+                if (node.handler != null) {
+                    throw ambiguous(node.key, key);
+                }
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+            }
+
+            if (node.handler != null || !node.children.isEmpty()) {
+                throw ambiguous(key, node.handler != null ? node.key : node.anyKey());
+            }
+
+            node.handler = handler;
+            node.key = key;
+        }
+
+        private String anyKey() {
+            Builder node = this;
+            while (node.handler == null) {
+                node = node.children.firstEntry().getValue();
+            }
+            return node.key;
+        }
+
+        private static IllegalStateException ambiguous(String prefix, String key) {
+            return new IllegalStateException(
+                    "Ambiguous callback handler keys: '%s' is a prefix of '%s'".formatted(prefix, key));
+        }
+
+        private Node freeze() {
+            char[] labels = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                labels[i] = entry.getKey();
+                frozen[i] = entry.getValue().freeze();
+                i++;
+            }
+
+            return new Node(labels, frozen, handler);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.carrentalbot.util;
+
+import org.example.carrentalbot.config.RenderProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the last message of each chat, as far as it was sent by this bot.
+ * <p>{@link TelegramClient} records every text message it sends or edits; a message
+ * of the user or a photo of the bot ends the tracking of the chat, since the last
+ * message is no longer a text message of the bot. {@link MessageRenderer} uses it to
+ * decide whether the message an inline button was pressed on can be edited in place.</p>
+ * <p>The text of the last message is kept as sent, so that a reply with the same text
+ * is recognized by comparing it and only its keyboard is edited.</p>
+ * <p>Messages are recorded when Telegram confirms them, which may be after a message of
+ * the user has arrived. Every send and edit therefore takes a {@link #sequence() sequence
+ * number} when it is submitted, and is only recorded if the chat was not reset, and no
+ * later message was recorded, since then.</p>
+ * <p>The tracker holds the most recently active chats in a bounded LRU map on the heap.
+ * It is neither persisted nor shared between nodes: a chat that is not tracked simply
+ * gets its next reply as a new message.</p>
+ */
+@Component
+public class ChatMessageTracker {
+
+    /**
+     * Last message or reset of each chat.
+     */
+    private final Map<Long, Entry> messages;
+
+    /**
+     * Last sequence number taken.
+     */
+    private long sequence;
+
+    public ChatMessageTracker(RenderProperties renderProperties) {
+        int maxTrackedChats = Math.max(1, renderProperties.maxTrackedChats());
+        this.messages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxTrackedChats;
+            }
+        };
+    }
+
+    /**
+     * Takes the sequence number of a message about to be sent or edited.
+     *
+     * @return number above all numbers taken before
+     */
+    public synchronized long sequence() {
+        return ++sequence;
+    }
+
+    /**
+     * Records a text message of the bot as the last message of its chat.
+     * <p>Ignored if the chat was reset, or a message submitted later was recorded, after
+     * this message took its sequence number.</p>
+     *
+     * @param chatId chat identifier
+     * @param messageId identifier of the message
+     * @param text text of the message as sent
+     * @param parseMode parsing mode of the text, or {@code null}
+     * @param sequence number taken by {@link #sequence()} when the message was submitted
+     */
+    public synchronized void record(Long chatId, Integer messageId, String text, String parseMode, long sequence) {
+        if (chatId == null || messageId == null) {
+            return;
+        }
+        Entry last = messages.get(chatId);
+        if (last == null || last.sequence() < sequence) {
+            messages.put(chatId, new Entry(sequence, new TrackedMessage(messageId, text, parseMode)));
+        }
+    }
+
+    /**
+     * Stops tracking the chat, because its last message is not a text message of the bot.
+     * <p>Messages submitted before are not recorded when they complete.</p>
+     *
+     * @param chatId chat identifier
+     */
+    public synchronized void forget(Long chatId) {
+        messages.put(chatId, new Entry(++sequence, null));
+    }
+
+    /**
+     * Returns the last message of the chat if it is the given message.
+     *
+     * @param chatId chat identifier
+     * @param messageId identifier of the message
+     * @return the tracked message, or {@code null} if it is not the last message of the chat
+     */
+    public synchronized TrackedMessage lastMessage(Long chatId, Integer messageId) {
+        Entry last = messages.get(chatId);
+        return last != null && last.message() != null && messageId != null && last.message().messageId() == messageId
+                ? last.message()
+                : null;
+    }
+
+    /**
+     * Last message of a chat and the sequence number it was submitted with; {@code message}
+     * is {@code null} if the chat was reset.
+     */
+    private record Entry(long sequence, TrackedMessage message) {
+    }
+
+    /**
+     * Last message of a chat and its text as sent.
+     */
+    public record TrackedMessage(int messageId, String text, String parseMode) {
+
+        /**
+         * Tells whether the message shows the given text.
+         *
+         * @param text text of a reply
+         * @param parseMode parsing mode of the text, or {@code null}
+         * @return {@code true} if text and parsing mode are equal to those of the message
+         */
+        public boolean hasText(String text, String parseMode) {
+            return Objects.equals(this.text, text) && Objects.equals(this.parseMode, parseMode);
+        }
+    }
+}
@@ -37,10 +37,19 @@ public class FlowContextHelper {
      * @throws InvalidFlowContextException if the current context is not permitted or missing
      */
     public void validateFlowContext(Long chatId, EnumSet<FlowContext> allowedContexts) {
-        FlowContext current = sessionService
-                .getFlowContext(chatId, "flowContext")
-                .orElse(null);
+        validateFlowContext(getCurrentFlowContext(chatId), allowedContexts);
+    }
 
+    /**
+     * Validates an already loaded flow context against the allowed contexts.
+     * <p>Applies the same rules as {@link #validateFlowContext(Long, EnumSet)} without
+     * reading the session again.</p>
+     *
+     * @param current current flow context, or {@code null} if none is set
+     * @param allowedContexts set of permitted {@link FlowContext} values for this operation
+     * @throws InvalidFlowContextException if the current context is not permitted or missing
+     */
+    public void validateFlowContext(FlowContext current, EnumSet<FlowContext> allowedContexts) {
         if (current != null && !allowedContexts.contains(current)) {
             throw new InvalidFlowContextException(current.getErrorMessage());
         }
@@ -49,4 +58,16 @@ public class FlowContextHelper {
             throw new InvalidFlowContextException("This option is not available right now.");
         }
     }
+
+    /**
+     * Loads the current flow context of the specified chat.
+     *
+     * @param chatId unique identifier of the chat/session
+     * @return current flow context, or {@code null} if none is set
+     */
+    public FlowContext getCurrentFlowContext(Long chatId) {
+        return sessionService.getSession(chatId)
+                .getFlowContext()
+                .orElse(null);
+    }
 }
@@ -1,11 +1,13 @@
 package org.example.carrentalbot.util;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.example.carrentalbot.handler.callback.CallbackHandler;
 import org.example.carrentalbot.handler.command.CommandHandler;
 import org.example.carrentalbot.handler.text.FallbackTextHandler;
 import org.example.carrentalbot.handler.text.TextHandler;
+import org.example.carrentalbot.model.enums.FlowContext;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.stereotype.Component;
 
@@ -19,9 +21,11 @@ import java.util.Map;
  * <p>Aggregates and organizes {@link CallbackHandler}, {@link CommandHandler},
  * and {@link TextHandler} beans, providing efficient access patterns for each type:</p>
  * <ul>
- *   <li><b>Callback handlers</b> — indexed by key for prefix-based resolution</li>
+ *   <li><b>Callback handlers</b> — indexed by key into an immutable trie for
+ *   resolution on the first {@code :}-delimited segment of the callback data</li>
  *   <li><b>Command handlers</b> — indexed by command for direct lookup</li>
- *   <li><b>Text handlers</b> — evaluated sequentially using {@code canHandle}</li>
+ *   <li><b>Text handlers</b> — patterns combined into one precompiled matcher per
+ *   {@link FlowContext}</li>
  * </ul>
  * <p>Each handler category defines a mandatory fallback handler that is used
  * when no specific handler matches the input.</p>
@@ -40,6 +44,12 @@ public class HandlerRegistry {
      */
     private final Map<String, CallbackHandler> callbackHandlers;
 
+    /**
+     * Prefix trie over {@link #callbackHandlers} used for callback routing.
+     */
+    @Getter(AccessLevel.NONE)
+    private final CallbackKeyTrie callbackKeyTrie;
+
     /**
      * Fallback handler used when no callback key matches.
      */
@@ -56,10 +66,16 @@ public class HandlerRegistry {
     private final CommandHandler fallbackCommandHandler;
 
     /**
-     * Ordered list of text handlers evaluated sequentially.
+     * Registered text handlers, excluding the fallback handler.
      */
     private final List<TextHandler> textHandlers;
 
+    /**
+     * Precompiled matcher over the patterns of {@link #textHandlers} used for text routing.
+     */
+    @Getter(AccessLevel.NONE)
+    private final TextHandlerMatcher textHandlerMatcher;
+
     /**
      * Fallback handler used when no text handler can process the input.
      */
@@ -70,7 +86,9 @@ public class HandlerRegistry {
      * <p>Handlers are discovered via Spring injection and grouped as follows:</p>
      * <ul>
      *   <li>Callback and command handlers are indexed into maps for fast lookup</li>
-     *   <li>Text handlers are stored as an ordered list for sequential evaluation</li>
+     *   <li>Callback keys are additionally compiled into a trie; ambiguous keys
+     *       (blank, containing {@code :}, or prefixing another key) are rejected</li>
+     *   <li>Text handler patterns are compiled into a combined matcher per flow context</li>
      * </ul>
      * <p>Fallback handlers are identified using a reserved key ({@link HandlerRegistry#FALLBACK_KEY})
      * for callback and command handlers, and by type ({@link FallbackTextHandler})
@@ -81,14 +99,15 @@ public class HandlerRegistry {
      * @param textHandlerList     all available {@link TextHandler} beans
      *
      * @throws IllegalStateException if any required fallback handler is missing
+     *                               or callback keys are ambiguous
      */
-
     public HandlerRegistry(List<CallbackHandler> callbackHandlerList,
                            List<CommandHandler> commandHandlerList,
                            List<TextHandler> textHandlerList) {
 
         CallbackRegistration callbackRegistration = registerCallbackHandlers(callbackHandlerList);
         this.callbackHandlers = callbackRegistration.handlers();
+        this.callbackKeyTrie = CallbackKeyTrie.of(callbackHandlers);
         this.fallbackCallbackHandler = callbackRegistration.fallback();
 
         CommandRegistration commandRegistration = registerCommandHandlers(commandHandlerList);
@@ -97,9 +116,43 @@ public class HandlerRegistry {
 
         TextRegistration textRegistration = registerTextHandlers(textHandlerList);
         this.textHandlers = textRegistration.handlers();
+        this.textHandlerMatcher = TextHandlerMatcher.of(textHandlers);
         this.fallbackTextHandler = textRegistration.fallback();
     }
 
+    /**
+     * Resolves the callback handler for the given callback data.
+     * <p>The handler key is matched against the segment preceding the first
+     * {@code :} in the callback data. Falls back to the fallback callback
+     * handler if no key matches.</p>
+     *
+     * @param callbackData raw, non-null callback payload
+     * @return matching handler or the fallback callback handler
+     */
+    public CallbackHandler resolveCallbackHandler(String callbackData) {
+        CallbackHandler handler = callbackKeyTrie.resolve(callbackData);
+        return handler != null ? handler : fallbackCallbackHandler;
+    }
+
+    /**
+     * Resolves the text handler for the given input.
+     * <p>Handlers allowed in the current flow context are matched first. If none of them
+     * matches, the handler matching regardless of context is returned, so that the caller's
+     * flow context validation reports the out-of-context input to the user. Falls back to
+     * the fallback text handler if no pattern matches at all.</p>
+     *
+     * @param current current flow context of the chat, or {@code null} if none
+     * @param text trimmed, non-null user input
+     * @return matching handler or the fallback text handler
+     */
+    public TextHandler resolveTextHandler(FlowContext current, String text) {
+        TextHandler handler = textHandlerMatcher.resolve(current, text);
+        if (handler == null) {
+            handler = textHandlerMatcher.resolveAny(text);
+        }
+        return handler != null ? handler : fallbackTextHandler;
+    }
+
     private CallbackRegistration registerCallbackHandlers(List<CallbackHandler> handlers) {
         Map<String, CallbackHandler> registry = new HashMap<>();
         CallbackHandler fallback = null;
@@ -137,7 +190,7 @@ public class HandlerRegistry {
             throw new IllegalStateException("No fallback callback handler defined!");
         }
 
-        return new CallbackRegistration(registry, fallback);
+        return new CallbackRegistration(Map.copyOf(registry), fallback);
     }
 
     private CommandRegistration registerCommandHandlers(List<CommandHandler> handlers) {
@@ -177,7 +230,7 @@ public class HandlerRegistry {
             throw new IllegalStateException("No fallback command handler defined!");
         }
 
-        return new CommandRegistration(registry, fallback);
+        return new CommandRegistration(Map.copyOf(registry), fallback);
     }
 
     private TextRegistration registerTextHandlers(List<TextHandler> handlers) {
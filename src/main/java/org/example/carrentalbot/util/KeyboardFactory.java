@@ -1,5 +1,8 @@
 package org.example.carrentalbot.util;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.carrentalbot.config.CalendarProperties;
+import org.example.carrentalbot.dto.EncodedKeyboardMarkupDto;
 import org.example.carrentalbot.record.CarProjection;
 import org.example.carrentalbot.dto.InlineKeyboardMarkupDto;
 import org.example.carrentalbot.dto.InlineKeyboardButtonDto;
@@ -17,7 +20,10 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -26,10 +32,78 @@ import java.util.UUID;
  * <p>This class centralizes creation of all {@link InlineKeyboardMarkupDto}
  * instances to ensure consistency of button layout, callback data structure,
  * and UI formatting across the application.</p>
+ * <p>Keyboards that do not depend on arguments are built once at startup and kept as
+ * {@link EncodedKeyboardMarkupDto}, so replies share one instance and its JSON is not
+ * serialized again for every request.</p>
+ * <p>Calendars depend only on the month, the callback prefix and the days marked as
+ * unavailable; they are built on first use and kept pre-encoded in a bounded LRU cache.</p>
  */
 @Component
 public class KeyboardFactory {
 
+    /**
+     * Mapper the keyboards are pre-encoded with; the same that serializes Bot API requests.
+     */
+    private final ObjectMapper objectMapper;
+
+    // keyboards that do not depend on arguments, pre-encoded at startup
+    private final InlineKeyboardMarkupDto mainMenuKeyboard;
+    private final InlineKeyboardMarkupDto carBrowsingModeKeyboard;
+    private final InlineKeyboardMarkupDto invalidDatesKeyboard;
+    private final InlineKeyboardMarkupDto toMainMenuKeyboard;
+    private final InlineKeyboardMarkupDto carAvailableKeyboard;
+    private final InlineKeyboardMarkupDto carUnavailableKeyboard;
+    private final InlineKeyboardMarkupDto startBookingKeyboard;
+    private final InlineKeyboardMarkupDto bookingDetailsKeyboard;
+    private final InlineKeyboardMarkupDto cancelBookingKeyboard;
+    private final InlineKeyboardMarkupDto myBookingDetailsKeyboard;
+    private final InlineKeyboardMarkupDto cancelMyBookingKeyboard;
+    private final InlineKeyboardMarkupDto helpMenuKeyboard;
+
+    /**
+     * Recently used calendars, least recently used first.
+     */
+    private final Map<CalendarKey, InlineKeyboardMarkupDto> calendars;
+
+    /**
+     * Creates the factory and builds the keyboards that never change.
+     *
+     * @param objectMapper mapper the static keyboards are pre-encoded with
+     * @param calendarProperties size of the calendar cache
+     */
+    public KeyboardFactory(ObjectMapper objectMapper, CalendarProperties calendarProperties) {
+        this.objectMapper = objectMapper;
+        int cacheSize = Math.max(1, calendarProperties.cacheSize());
+        this.calendars = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CalendarKey, InlineKeyboardMarkupDto> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.mainMenuKeyboard = encode(createMainMenuKeyboard());
+        this.carBrowsingModeKeyboard = encode(createCarBrowsingModeKeyboard());
+        this.invalidDatesKeyboard = encode(createInvalidDatesKeyboard());
+        this.toMainMenuKeyboard = encode(createToMainMenuKeyboard());
+        this.carAvailableKeyboard = encode(createCarAvailableKeyboard());
+        this.carUnavailableKeyboard = encode(createCarUnavailableKeyboard());
+        this.startBookingKeyboard = encode(createStartBookingKeyboard());
+        this.bookingDetailsKeyboard = encode(createBookingDetailsKeyboard());
+        this.cancelBookingKeyboard = encode(createCancelBookingKeyboard());
+        this.myBookingDetailsKeyboard = encode(createMyBookingDetailsKeyboard());
+        this.cancelMyBookingKeyboard = encode(createCancelMyBookingKeyboard());
+        this.helpMenuKeyboard = encode(createHelpMenuKeyboard());
+    }
+
+    /**
+     * Turns a keyboard into an immutable, pre-encoded keyboard that can be shared by all replies.
+     *
+     * @param markup keyboard to encode
+     * @return encoded keyboard
+     */
+    private InlineKeyboardMarkupDto encode(InlineKeyboardMarkupDto markup) {
+        return new EncodedKeyboardMarkupDto(markup, objectMapper);
+    }
+
     /**
      * Creates a single inline keyboard button with callback data.
      *
@@ -45,11 +119,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds the main menu keyboard shown to the user after start.
+     * Returns the main menu keyboard with navigation options, built once at startup.
      *
      * @return main menu keyboard with navigation options
      */
     public InlineKeyboardMarkupDto buildMainMenuKeyboard() {
+        return mainMenuKeyboard;
+    }
+
+    /**
+     * Builds the main menu keyboard shown to the user after start.
+     *
+     * @return main menu keyboard with navigation options
+     */
+    private InlineKeyboardMarkupDto createMainMenuKeyboard() {
 
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
@@ -96,11 +179,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds keyboard for selecting car browsing mode.
+     * Returns the browsing mode selection keyboard, built once at startup.
      *
      * @return browsing mode selection keyboard
      */
     public InlineKeyboardMarkupDto buildCarBrowsingModeKeyboard() {
+        return carBrowsingModeKeyboard;
+    }
+
+    /**
+     * Builds keyboard for selecting car browsing mode.
+     *
+     * @return browsing mode selection keyboard
+     */
+    private InlineKeyboardMarkupDto createCarBrowsingModeKeyboard() {
 
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
@@ -151,12 +243,21 @@ public class KeyboardFactory {
                 .build();
     }
 
+    /**
+     * Returns the retry or navigation keyboard, built once at startup.
+     *
+     * @return retry or navigation keyboard
+     */
+    public InlineKeyboardMarkupDto buildInvalidDatesKeyboard() {
+        return invalidDatesKeyboard;
+    }
+
     /**
      * Builds keyboard shown when selected dates are invalid.
      *
      * @return retry or navigation keyboard
      */
-    public InlineKeyboardMarkupDto buildInvalidDatesKeyboard(){
+    private InlineKeyboardMarkupDto createInvalidDatesKeyboard(){
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
                         List.of(button("🔄 Change Dates", AskForStartDateHandler.KEY)),
@@ -181,11 +282,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds keyboard with navigation back to main menu.
+     * Returns the main menu navigation keyboard, built once at startup.
      *
      * @return main menu navigation keyboard
      */
     public InlineKeyboardMarkupDto buildToMainMenuKeyboard() {
+        return toMainMenuKeyboard;
+    }
+
+    /**
+     * Builds keyboard with navigation back to main menu.
+     *
+     * @return main menu navigation keyboard
+     */
+    private InlineKeyboardMarkupDto createToMainMenuKeyboard() {
 
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
@@ -212,11 +322,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds keyboard shown when a car is available for booking.
+     * Returns the availability action keyboard, built once at startup.
      *
      * @return availability action keyboard
      */
     public InlineKeyboardMarkupDto buildCarAvailableKeyboard() {
+        return carAvailableKeyboard;
+    }
+
+    /**
+     * Builds keyboard shown when a car is available for booking.
+     *
+     * @return availability action keyboard
+     */
+    private InlineKeyboardMarkupDto createCarAvailableKeyboard() {
 
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
@@ -227,11 +346,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds keyboard shown when a car is not available for selected dates.
+     * Returns the unavailable state keyboard, built once at startup.
      *
      * @return unavailable state keyboard
      */
     public InlineKeyboardMarkupDto buildCarUnavailableKeyboard() {
+        return carUnavailableKeyboard;
+    }
+
+    /**
+     * Builds keyboard shown when a car is not available for selected dates.
+     *
+     * @return unavailable state keyboard
+     */
+    private InlineKeyboardMarkupDto createCarUnavailableKeyboard() {
 
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
@@ -242,11 +370,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds keyboard to start booking flow.
+     * Returns the start booking confirmation keyboard, built once at startup.
      *
      * @return start booking confirmation keyboard
      */
     public InlineKeyboardMarkupDto buildStartBookingKeyboard() {
+        return startBookingKeyboard;
+    }
+
+    /**
+     * Builds keyboard to start booking flow.
+     *
+     * @return start booking confirmation keyboard
+     */
+    private InlineKeyboardMarkupDto createStartBookingKeyboard() {
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
                         List.of(button("✅ Ok", AskForPhoneHandler.KEY)),
@@ -256,11 +393,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds keyboard for booking management actions.
+     * Returns the booking details keyboard, built once at startup.
      *
      * @return booking details keyboard
      */
     public InlineKeyboardMarkupDto buildBookingDetailsKeyboard() {
+        return bookingDetailsKeyboard;
+    }
+
+    /**
+     * Builds keyboard for booking management actions.
+     *
+     * @return booking details keyboard
+     */
+    private InlineKeyboardMarkupDto createBookingDetailsKeyboard() {
 
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
@@ -273,11 +419,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds confirmation keyboard for booking cancellation.
+     * Returns the cancellation confirmation keyboard, built once at startup.
      *
      * @return cancellation confirmation keyboard
      */
     public InlineKeyboardMarkupDto buildCancelBookingKeyboard() {
+        return cancelBookingKeyboard;
+    }
+
+    /**
+     * Builds confirmation keyboard for booking cancellation.
+     *
+     * @return cancellation confirmation keyboard
+     */
+    private InlineKeyboardMarkupDto createCancelBookingKeyboard() {
 
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
@@ -303,11 +458,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds keyboard for viewing a specific booking details.
+     * Returns the booking details actions keyboard, built once at startup.
      *
      * @return booking details actions keyboard
      */
     public InlineKeyboardMarkupDto buildMyBookingDetailsKeyboard() {
+        return myBookingDetailsKeyboard;
+    }
+
+    /**
+     * Builds keyboard for viewing a specific booking details.
+     *
+     * @return booking details actions keyboard
+     */
+    private InlineKeyboardMarkupDto createMyBookingDetailsKeyboard() {
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
                         List.of(button("✏️ Edit Contact Info", EditMyBookingHandler.KEY)),
@@ -335,11 +499,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds keyboard for canceling a user's booking.
+     * Returns the cancel booking confirmation keyboard, built once at startup.
      *
      * @return cancel booking confirmation keyboard
      */
     public InlineKeyboardMarkupDto buildCancelMyBookingKeyboard() {
+        return cancelMyBookingKeyboard;
+    }
+
+    /**
+     * Builds keyboard for canceling a user's booking.
+     *
+     * @return cancel booking confirmation keyboard
+     */
+    private InlineKeyboardMarkupDto createCancelMyBookingKeyboard() {
 
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
@@ -351,11 +524,20 @@ public class KeyboardFactory {
     }
 
     /**
-     * Builds help menu keyboard with navigation and external support link.
+     * Returns the help menu keyboard, built once at startup.
      *
      * @return help menu keyboard
      */
     public InlineKeyboardMarkupDto buildHelpMenuKeyboard() {
+        return helpMenuKeyboard;
+    }
+
+    /**
+     * Builds help menu keyboard with navigation and external support link.
+     *
+     * @return help menu keyboard
+     */
+    private InlineKeyboardMarkupDto createHelpMenuKeyboard() {
         return InlineKeyboardMarkupDto.builder()
                 .inlineKeyboard(List.of(
                         List.of(button("🏠 Main Menu", MainMenuHandler.KEY)),
@@ -380,6 +562,54 @@ public class KeyboardFactory {
      * @return calendar keyboard
      */
     public InlineKeyboardMarkupDto buildCalendar(int year, int month, String prefix) {
+        return buildCalendar(year, month, prefix, Set.of());
+    }
+
+    /**
+     * Builds inline calendar keyboard for date selection, with some days unavailable.
+     *
+     * <p>Unavailable days are shown struck through and cannot be picked. The keyboard
+     * is served from the calendar cache if it was built before.</p>
+     *
+     * @param year calendar year
+     * @param month calendar month (1-12)
+     * @param prefix callback prefix for handling actions
+     * @param unavailableDates days that cannot be picked; days of other months are ignored
+     * @return calendar keyboard
+     */
+    public InlineKeyboardMarkupDto buildCalendar(int year, int month, String prefix, Set<LocalDate> unavailableDates) {
+        int unavailableDays = 0;
+        for (LocalDate date : unavailableDates) {
+            if (date.getYear() == year && date.getMonthValue() == month) {
+                unavailableDays |= 1 << (date.getDayOfMonth() - 1);
+            }
+        }
+
+        CalendarKey key = new CalendarKey(year, month, prefix, unavailableDays);
+        synchronized (calendars) {
+            InlineKeyboardMarkupDto cached = calendars.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        InlineKeyboardMarkupDto calendar = encode(createCalendar(key));
+        synchronized (calendars) {
+            calendars.putIfAbsent(key, calendar);
+        }
+        return calendar;
+    }
+
+    /**
+     * Lays out the calendar identified by the given key.
+     *
+     * @param key month, callback prefix and unavailable days of the calendar
+     * @return calendar keyboard
+     */
+    private InlineKeyboardMarkupDto createCalendar(CalendarKey key) {
+        int year = key.year();
+        int month = key.month();
+        String prefix = key.prefix();
 
         YearMonth yearMonth = YearMonth.of(year, month);
         LocalDate first = yearMonth.atDay(1);
@@ -408,7 +638,9 @@ public class KeyboardFactory {
             List<InlineKeyboardButtonDto> week = new ArrayList<>();
 
             for (int i = 0; i < 7; i++) {
-                if (currentDate.getMonthValue() == month) {
+                if (currentDate.getMonthValue() == month && key.isUnavailable(currentDate.getDayOfMonth())) {
+                    week.add(button(strikeThrough(String.valueOf(currentDate.getDayOfMonth())), prefix + CalendarAction.IGNORE));
+                } else if (currentDate.getMonthValue() == month) {
                     week.add(button(
                             String.valueOf(currentDate.getDayOfMonth()),
                             prefix + CalendarAction.PICK + ":" + currentDate
@@ -425,4 +657,30 @@ public class KeyboardFactory {
 
         return new InlineKeyboardMarkupDto(rows);
     }
+
+    /**
+     * Strikes through every character of the text with a combining long stroke overlay.
+     */
+    private static String strikeThrough(String text) {
+        StringBuilder builder = new StringBuilder(text.length() * 2);
+        for (char c : text.toCharArray()) {
+            builder.append(c).append('\u0336');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Identifies a calendar keyboard.
+     *
+     * @param year calendar year
+     * @param month calendar month (1-12)
+     * @param prefix callback prefix for handling actions
+     * @param unavailableDays bit {@code d - 1} is set if day {@code d} cannot be picked
+     */
+    private record CalendarKey(int year, int month, String prefix, int unavailableDays) {
+
+        private boolean isUnavailable(int dayOfMonth) {
+            return (unavailableDays & (1 << (dayOfMonth - 1))) != 0;
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package org.example.carrentalbot.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.RenderProperties;
+import org.example.carrentalbot.dto.ApiResponseDto;
+import org.example.carrentalbot.dto.CallbackQueryDto;
+import org.example.carrentalbot.dto.EditMessageReplyMarkupDto;
+import org.example.carrentalbot.dto.EditMessageTextDto;
+import org.example.carrentalbot.dto.MessageDto;
+import org.example.carrentalbot.dto.SendMessageDto;
+import org.example.carrentalbot.exception.TelegramApiException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Renders the replies to inline keyboard interactions.
+ * <p>If the button was pressed on the last message of the chat and that message is a
+ * text message of the bot, the reply is rendered into it instead of being sent as a new
+ * message, so navigating through menus does not grow the chat history:
+ * <ul>
+ *   <li>If only the keyboard differs, the message is updated with {@code editMessageReplyMarkup}</li>
+ *   <li>Otherwise text and keyboard are replaced with {@code editMessageText}</li>
+ * </ul>
+ * <p>The reply is sent as a new message if the button was pressed on an older message,
+ * if the chat is not tracked by the {@link ChatMessageTracker}, or if Telegram refuses
+ * the edit, e.g. because the message was deleted or is too old to be edited. An edit
+ * that would not change the message is skipped by {@link TelegramClient}.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageRenderer {
+
+    /**
+     * Client for sending and editing messages via the Telegram Bot API.
+     */
+    private final TelegramClient telegramClient;
+
+    /**
+     * Tracker of the last bot message per chat.
+     */
+    private final ChatMessageTracker chatMessageTracker;
+
+    /**
+     * Rendering settings.
+     */
+    private final RenderProperties renderProperties;
+
+    /**
+     * Renders a reply to the given callback query.
+     *
+     * @param callbackQuery callback query the reply answers
+     * @param message reply to render
+     * @return future of the Bot API response holding the edited or sent message
+     */
+    public CompletableFuture<ApiResponseDto<MessageDto>> render(CallbackQueryDto callbackQuery, SendMessageDto message) {
+        Long chatId = Long.valueOf(message.getChatId());
+        MessageDto source = callbackQuery.getMessage();
+        Integer messageId = source != null ? source.getMessageId() : null;
+
+        ChatMessageTracker.TrackedMessage last = renderProperties.editInPlace()
+                ? chatMessageTracker.lastMessage(chatId, messageId)
+                : null;
+        if (last == null) {
+            return telegramClient.sendMessage(message);
+        }
+
+        CompletableFuture<ApiResponseDto<MessageDto>> edit =
+                last.hasText(message.getText(), message.getParseMode())
+                        ? telegramClient.sendEditMessageReplyMarkup(EditMessageReplyMarkupDto.builder()
+                                .chatId(chatId)
+                                .messageId(messageId)
+                                .replyMarkup(message.getReplyMarkup())
+                                .build())
+                        : telegramClient.editMessageText(EditMessageTextDto.builder()
+                                .chatId(chatId)
+                                .messageId(messageId)
+                                .text(message.getText())
+                                .parseMode(message.getParseMode())
+                                .replyMarkup(message.getReplyMarkup())
+                                .build());
+
+        return edit.exceptionallyCompose(exception -> {
+            if (!(unwrap(exception) instanceof TelegramApiException apiException)
+                    || apiException.getErrorCode() != TelegramApiException.BAD_REQUEST) {
+                return CompletableFuture.failedFuture(exception);
+            }
+
+            log.info("Message {} in chat {} cannot be edited, sending a new one", messageId, chatId);
+            chatMessageTracker.forget(chatId);
+            return telegramClient.sendMessage(message);
+        });
+    }
+
+    private static Throwable unwrap(Throwable exception) {
+        return exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.carrentalbot.util;
+
+import org.example.carrentalbot.dto.InlineKeyboardMarkupDto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Remembers what the bot last put into its recent messages.
+ * <p>For each message, its text and inline keyboard are kept as requested, so that
+ * {@link TelegramClient} can recognize an edit that would not change the message and
+ * skip it instead of having Telegram reject it as {@code message is not modified}.
+ * Content is compared with {@code equals}, so two different messages are never taken
+ * for the same.</p>
+ * <p>Content recorded by an edit that is still in flight is only assumed. An edit
+ * skipped because of it shares the outcome of the in-flight edit through
+ * {@link Update#settled()}: if the in-flight edit fails, the skipped edit fails as well
+ * instead of reporting a message that was never shown.</p>
+ * <p>The most recently used messages are held in a bounded LRU map. A message that is
+ * not in the cache is always edited. Only content sent by this node is known, which is
+ * sufficient since Telegram still rejects a redundant edit that is not caught here.</p>
+ */
+public class SentContentCache {
+
+    private final Map<MessageKey, Content> contents;
+
+    /**
+     * Creates a cache holding the content of at most the given number of messages.
+     *
+     * @param maxMessages maximum number of messages remembered
+     */
+    public SentContentCache(int maxMessages) {
+        int capacity = Math.max(1, maxMessages);
+        this.contents = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MessageKey, Content> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Records the text and keyboard a message was sent with.
+     *
+     * @param chatId chat identifier
+     * @param messageId identifier of the message
+     * @param text text of the message
+     * @param parseMode parsing mode of the text, or {@code null}
+     * @param replyMarkup inline keyboard of the message, or {@code null}
+     */
+    public synchronized void recordMessage(Long chatId, Integer messageId, String text, String parseMode,
+                                           InlineKeyboardMarkupDto replyMarkup) {
+        if (chatId == null || messageId == null) {
+            return;
+        }
+        contents.put(new MessageKey(chatId, messageId),
+                new Content(true, text, parseMode, replyMarkup, CompletableFuture.completedFuture(null)));
+    }
+
+    /**
+     * Records the text and keyboard an edit is about to put into a message, unless the
+     * message already shows them.
+     * <p>The content is recorded when the edit is submitted, so that a later edit of the
+     * same message is compared with the state the earlier edit leads to. If the edit
+     * changes the message, the caller completes {@link Update#settled()} with its outcome
+     * and {@link #invalidate invalidates} the message if it failed.</p>
+     *
+     * @param chatId chat identifier
+     * @param messageId identifier of the message
+     * @param text new text of the message
+     * @param parseMode parsing mode of the text, or {@code null}
+     * @param replyMarkup new inline keyboard of the message, or {@code null}
+     * @return whether the edit changes the message, and the outcome it depends on
+     */
+    public synchronized Update updateMessage(Long chatId, Integer messageId, String text, String parseMode,
+                                             InlineKeyboardMarkupDto replyMarkup) {
+        MessageKey key = new MessageKey(chatId, messageId);
+        Content previous = contents.get(key);
+        if (previous != null && previous.textKnown()
+                && Objects.equals(previous.text(), text)
+                && Objects.equals(previous.parseMode(), parseMode)
+                && Objects.equals(previous.markup(), replyMarkup)) {
+            return new Update(false, previous.settled());
+        }
+
+        CompletableFuture<Void> settled = new CompletableFuture<>();
+        contents.put(key, new Content(true, text, parseMode, replyMarkup, settled));
+        return new Update(true, settled);
+    }
+
+    /**
+     * Records the keyboard an edit is about to put into a message, unless the message
+     * already shows it; the text stays as recorded, or unknown if the message is not
+     * in the cache.
+     *
+     * @param chatId chat identifier
+     * @param messageId identifier of the message
+     * @param replyMarkup new inline keyboard of the message, or {@code null}
+     * @return whether the edit changes the message, and the outcome it depends on
+     * @see #updateMessage
+     */
+    public synchronized Update updateMarkup(Long chatId, Integer messageId, InlineKeyboardMarkupDto replyMarkup) {
+        MessageKey key = new MessageKey(chatId, messageId);
+        Content previous = contents.get(key);
+        if (previous != null && Objects.equals(previous.markup(), replyMarkup)) {
+            return new Update(false, previous.settled());
+        }
+
+        CompletableFuture<Void> settled = new CompletableFuture<>();
+        contents.put(key, previous != null
+                ? new Content(previous.textKnown(), previous.text(), previous.parseMode(), replyMarkup, settled)
+                : new Content(false, null, null, replyMarkup, settled));
+        return new Update(true, settled);
+    }
+
+    /**
+     * Forgets the content of a message after the edit that recorded it failed.
+     * <p>Content recorded by a later edit is kept.</p>
+     *
+     * @param chatId chat identifier
+     * @param messageId identifier of the message
+     * @param settled {@link Update#settled()} of the failed edit
+     */
+    public synchronized void invalidate(Long chatId, Integer messageId, CompletableFuture<Void> settled) {
+        MessageKey key = new MessageKey(chatId, messageId);
+        Content current = contents.get(key);
+        if (current != null && current.settled() == settled) {
+            contents.remove(key);
+        }
+    }
+
+    /**
+     * Result of recording an edit.
+     *
+     * @param changed whether the edit changes the message and has to be sent
+     * @param settled completes once the recorded content is shown, or exceptionally if the
+     *                edit recording it failed; completed by the caller if {@code changed}
+     */
+    public record Update(boolean changed, CompletableFuture<Void> settled) {
+    }
+
+    private record MessageKey(Long chatId, Integer messageId) {
+    }
+
+    /**
+     * Content of a message as requested; the text is unknown if {@code textKnown} is {@code false}.
+     */
+    private record Content(boolean textKnown, String text, String parseMode, InlineKeyboardMarkupDto markup,
+                           CompletableFuture<Void> settled) {
+    }
+}
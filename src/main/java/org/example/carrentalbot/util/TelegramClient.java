@@ -1,47 +1,121 @@
 package org.example.carrentalbot.util;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.example.carrentalbot.config.RenderProperties;
 import org.example.carrentalbot.config.TelegramBotProperties;
+import org.example.carrentalbot.config.TelegramHttpProperties;
 import org.example.carrentalbot.dto.AnswerCallbackQueryDto;
+import org.example.carrentalbot.dto.ApiResponseDto;
 import org.example.carrentalbot.dto.EditMessageReplyMarkupDto;
+import org.example.carrentalbot.dto.EditMessageTextDto;
+import org.example.carrentalbot.dto.MessageDto;
 import org.example.carrentalbot.dto.SendMessageDto;
 import org.example.carrentalbot.dto.SendPhotoDto;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
+import org.example.carrentalbot.exception.TelegramApiException;
+import org.example.carrentalbot.outbound.OutboundScheduler;
+import org.example.carrentalbot.outbound.SendPriority;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Low-level client responsible for communicating with the Telegram Bot API.
- * <p>Encapsulates HTTP calls to Telegram endpoints and provides asynchronous,
- * retry-enabled methods for sending messages, photos, and updating message markup.</p>
- * <p>All requests are executed through {@link RestTemplate} and routed via the bot's
- * base API URL derived from configuration properties.</p>
+ * <p>Encapsulates HTTP calls to Telegram endpoints and provides non-blocking,
+ * rate-limited methods for sending messages, photos, and updating message markup.</p>
+ * <p>All requests are sent asynchronously on the shared {@code telegramHttpClient} and
+ * routed via the bot's base API URL derived from configuration properties. Every method
+ * returns a future of the Bot API response; it completes exceptionally with a
+ * {@link TelegramApiException} if Telegram reports an error, or with an
+ * {@link IOException} if the Bot API cannot be reached. Failures of messages are also
+ * logged, so callers may ignore the future.</p>
+ * <p>Text messages that were sent or edited successfully are recorded in the
+ * {@link ChatMessageTracker} as the last message of their chat.</p>
+ * <p>The content of sent and edited messages is remembered in a {@link SentContentCache}.
+ * An edit that would not change its message is skipped and completes successfully
+ * without a result, like an edit Telegram rejects as {@code message is not modified}.</p>
  */
 @Slf4j
 @Component
 public class TelegramClient {
 
-    private final RestTemplate restTemplate;
+    /**
+     * Pooled HTTP client the requests are sent with.
+     */
+    private final HttpClient httpClient;
+
+    /**
+     * Mapper serializing requests and parsing responses.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Scheduler sending messages within Telegram's rate limits.
+     */
+    private final OutboundScheduler outboundScheduler;
+
+    /**
+     * Tracker of the last bot message per chat.
+     */
+    private final ChatMessageTracker chatMessageTracker;
+
+    /**
+     * Content of recently sent and edited messages.
+     */
+    private final SentContentCache sentContentCache;
+
+    /**
+     * Bound of the requests in flight.
+     */
+    private final AsyncRequestLimiter requestLimiter;
+
+    /**
+     * Maximum time to wait for a response.
+     */
+    private final Duration readTimeout;
 
-    /** Engine used to render email templates into HTML content. */
+    /**
+     * Base API URL of the bot.
+     */
     private final String apiBase;
 
     /**
-     * Creates a new Telegram API client using the provided REST template and bot configuration.
+     * Creates a new Telegram API client using the provided HTTP client and bot configuration.
      *
-     * @param restTemplate HTTP client used to execute requests
+     * @param telegramHttpClient HTTP client used to execute requests
+     * @param objectMapper mapper for request and response bodies
+     * @param outboundScheduler scheduler sending messages within rate limits
+     * @param chatMessageTracker tracker of the last bot message per chat
      * @param telegramBotProperties configuration properties containing the bot token
+     * @param telegramHttpProperties read timeout and request limit
+     * @param renderProperties number of messages whose content is remembered
      */
-    public TelegramClient(RestTemplate restTemplate,
-                          TelegramBotProperties telegramBotProperties) {
-        this.restTemplate = restTemplate;
-        this.apiBase = "https://api.telegram.org/bot" + telegramBotProperties.token();
+    public TelegramClient(HttpClient telegramHttpClient,
+                          ObjectMapper objectMapper,
+                          OutboundScheduler outboundScheduler,
+                          ChatMessageTracker chatMessageTracker,
+                          TelegramBotProperties telegramBotProperties,
+                          TelegramHttpProperties telegramHttpProperties,
+                          RenderProperties renderProperties) {
+        this.httpClient = telegramHttpClient;
+        this.objectMapper = objectMapper;
+        this.outboundScheduler = outboundScheduler;
+        this.chatMessageTracker = chatMessageTracker;
+        this.sentContentCache = new SentContentCache(renderProperties.maxTrackedMessages());
+        this.requestLimiter = new AsyncRequestLimiter(telegramHttpProperties.maxConnections());
+        this.readTimeout = telegramHttpProperties.readTimeout();
+        this.apiBase = telegramBotProperties.botApiBase();
     }
 
     /**
@@ -56,48 +130,71 @@ public class TelegramClient {
 
     /**
      * Sends a response to a callback query triggered by an inline keyboard interaction.
-     * <p>Used to acknowledge user actions and optionally display notifications.</p>
+     * <p>Used to acknowledge user actions and optionally display notifications.
+     * Sent right away and in parallel with the replies of the handler; answers are not
+     * subject to the message rate limits. A request lost on a stale pooled connection
+     * is repeated once, and a failed answer is logged.</p>
      *
      * @param request callback query response payload
+     * @return future of the Bot API response
      */
-    public void answerCallbackQuery(AnswerCallbackQueryDto request) {
-        restTemplate.postForEntity(
-                getApiUrl("answerCallbackQuery"),
-                request,
-                String.class
-        );
+    public CompletableFuture<ApiResponseDto<Boolean>> answerCallbackQuery(AnswerCallbackQueryDto request) {
+        return call("answerCallbackQuery", request, Boolean.class)
+                .exceptionallyCompose(exception -> isNetworkFailure(exception)
+                        ? call("answerCallbackQuery", request, Boolean.class)
+                        : CompletableFuture.failedFuture(exception))
+                .whenComplete((response, exception) -> {
+                    if (exception != null) {
+                        log.warn("Failed to answer callback query {}: {}",
+                                request.getCallbackQueryId(), exception.getMessage());
+                    }
+                });
     }
 
     /**
-     * Sends a text message to a Telegram chat.
-     * <p>Executed asynchronously with retry support for transient network failures.
-     * If all retry attempts fail, the failure is handled by a recovery method.</p>
+     * Sends a text message to a Telegram chat as a reply to a user interaction.
      *
      * @param request message payload
+     * @return future of the Bot API response holding the sent message
      */
-    @Async("telegramExecutor")
-    @Retryable(
-            retryFor = {ResourceAccessException.class, IOException.class},
-            maxAttempts = 4,
-            backoff = @Backoff(delay = 2000),
-            recover = "recoverFailedMessage")
-    public void sendMessage(SendMessageDto request) {
-        restTemplate.postForEntity(
-                getApiUrl("sendMessage"),
-                request,
-                String.class);
+    public CompletableFuture<ApiResponseDto<MessageDto>> sendMessage(SendMessageDto request) {
+        return sendMessage(request, SendPriority.INTERACTIVE);
+    }
 
-        log.info("Successfully sent message to chat id: {}", request.getChatId());
+    /**
+     * Sends a text message to a Telegram chat.
+     * <p>The message is queued in the {@link OutboundScheduler}, which sends it within
+     * Telegram's rate limits and repeats it on transient failures. If it cannot be
+     * delivered, the failure is logged.</p>
+     *
+     * @param request message payload
+     * @param priority priority of the message
+     * @return future of the Bot API response holding the sent message
+     */
+    public CompletableFuture<ApiResponseDto<MessageDto>> sendMessage(SendMessageDto request, SendPriority priority) {
+        long sequence = chatMessageTracker.sequence();
+        return outboundScheduler.submit(request.getChatId(), priority, () -> call("sendMessage", request, MessageDto.class))
+                .whenComplete((response, exception) -> {
+                    if (exception != null) {
+                        recoverFailedMessage(exception, request);
+                    } else {
+                        Long chatId = parseChatId(request.getChatId());
+                        chatMessageTracker.record(chatId, messageIdOf(response),
+                                request.getText(), request.getParseMode(), sequence);
+                        sentContentCache.recordMessage(chatId, messageIdOf(response),
+                                request.getText(), request.getParseMode(), request.getReplyMarkup());
+                        log.info("Successfully sent message to chat id: {}", request.getChatId());
+                    }
+                });
     }
 
     /**
-     * Handles permanent failure when a message cannot be delivered after retries.
+     * Handles permanent failure when a message cannot be delivered.
      *
      * @param exception the last encountered exception
      * @param dto original message request that failed
      */
-    @Recover
-    public void recoverFailedMessage(Exception exception, SendMessageDto dto) {
+    private void recoverFailedMessage(Throwable exception, SendMessageDto dto) {
         log.error("PERMANENTLY FAILED to send Telegram message to {}: {}",
                 dto.getChatId(),
                 exception.getMessage());
@@ -105,33 +202,30 @@ public class TelegramClient {
 
     /**
      * Sends a photo message to a Telegram chat.
-     * <p>Supports asynchronous execution and automatic retries on temporary failures.</p>
+     * <p>Queued in the {@link OutboundScheduler} like {@link #sendMessage(SendMessageDto)}.</p>
      *
      * @param request photo message payload
+     * @return future of the Bot API response holding the sent message
      */
-    @Async("telegramExecutor")
-    @Retryable(
-            retryFor = { ResourceAccessException.class, IOException.class },
-            maxAttempts = 4,
-            backoff = @Backoff(delay = 2000),
-            recover = "recoverFailedSendPhoto")
-    public void sendPhoto(SendPhotoDto request) {
-        restTemplate.postForEntity(
-                getApiUrl("sendPhoto"),
-                request,
-                String.class);
-
-        log.info("Successfully sent photo to chat id: {}", request.getChatId());
+    public CompletableFuture<ApiResponseDto<MessageDto>> sendPhoto(SendPhotoDto request) {
+        return outboundScheduler.submit(request.getChatId(), SendPriority.INTERACTIVE, () -> call("sendPhoto", request, MessageDto.class))
+                .whenComplete((response, exception) -> {
+                    if (exception != null) {
+                        recoverFailedSendPhoto(exception, request);
+                    } else {
+                        chatMessageTracker.forget(parseChatId(request.getChatId()));
+                        log.info("Successfully sent photo to chat id: {}", request.getChatId());
+                    }
+                });
     }
 
     /**
-     * Handles permanent failure when a photo message cannot be delivered after retries.
+     * Handles permanent failure when a photo message cannot be delivered.
      *
      * @param exception the last encountered exception
      * @param dto original photo request that failed
      */
-    @Recover
-    public void recoverFailedSendPhoto(Exception exception, SendPhotoDto dto) {
+    private void recoverFailedSendPhoto(Throwable exception, SendPhotoDto dto) {
         log.error("PERMANENTLY FAILED to send Telegram photo to {}: {}",
                 dto.getChatId(),
                 exception.getMessage());
@@ -140,39 +234,203 @@ public class TelegramClient {
     /**
      * Updates the inline keyboard of an existing Telegram message.
      * <p>Used for dynamic UI updates such as pagination, calendar navigation,
-     * or state changes in interactive messages.</p>
+     * or state changes in interactive messages. Queued in the {@link OutboundScheduler}
+     * like {@link #sendMessage(SendMessageDto)}; skipped if the message already shows
+     * the keyboard, or will once an edit in flight succeeds. A skipped edit completes
+     * with the outcome of that edit. A failure is only logged as a warning: the message
+     * may have been deleted or become too old to edit, which callers such as
+     * {@link MessageRenderer} handle by sending a new message.</p>
      *
      * @param request reply markup update payload
+     * @return future of the Bot API response holding the edited message, without a
+     *         result if the message was not modified
      */
-    @Async("telegramExecutor")
-    @Retryable(
-            retryFor = {ResourceAccessException.class, IOException.class},
-            maxAttempts = 4,
-            backoff = @Backoff(delay = 2000),
-            recover = "recoverFailedEditMessageMarkup")
-    public void sendEditMessageReplyMarkup(EditMessageReplyMarkupDto request) {
+    public CompletableFuture<ApiResponseDto<MessageDto>> sendEditMessageReplyMarkup(EditMessageReplyMarkupDto request) {
+        SentContentCache.Update update =
+                sentContentCache.updateMarkup(request.getChatId(), request.getMessageId(), request.getReplyMarkup());
+        if (!update.changed()) {
+            log.debug("Skipping unchanged reply markup of message {} in chat {}", request.getMessageId(), request.getChatId());
+            return update.settled().thenApply(ignored -> notModified());
+        }
 
-        restTemplate.postForEntity(
-                getApiUrl("editMessageReplyMarkup"),
-                request,
-                String.class
-        );
+        return outboundScheduler.submit(String.valueOf(request.getChatId()), SendPriority.INTERACTIVE,
+                        () -> call("editMessageReplyMarkup", request, MessageDto.class))
+                .exceptionallyCompose(TelegramClient::ignoreNotModified)
+                .whenComplete((response, exception) -> {
+                    settle(update, request.getChatId(), request.getMessageId(), exception);
+                    if (exception != null) {
+                        log.warn("Failed to edit reply markup of message {} in chat {}: {}",
+                                request.getMessageId(), request.getChatId(), unwrap(exception).getMessage());
+                    } else {
+                        log.info("Successfully edited reply markup for message {} in chat {}",
+                                request.getMessageId(), request.getChatId());
+                    }
+                });
+    }
 
-        log.info("Successfully edited reply markup for message {} in chat {}",
-                request.getMessageId(), request.getChatId());
+    /**
+     * Replaces the text and inline keyboard of an existing Telegram message.
+     * <p>Used to render a new view in place of the message an inline button was pressed on.
+     * Queued in the {@link OutboundScheduler} like {@link #sendMessage(SendMessageDto)}.
+     * Skipped like {@link #sendEditMessageReplyMarkup} if the message already shows text
+     * and keyboard. A failure is only logged as a warning, since callers are expected to
+     * fall back to sending a new message.</p>
+     *
+     * @param request text update payload
+     * @return future of the Bot API response holding the edited message, without a
+     *         result if the message was not modified
+     */
+    public CompletableFuture<ApiResponseDto<MessageDto>> editMessageText(EditMessageTextDto request) {
+        SentContentCache.Update update = sentContentCache.updateMessage(request.getChatId(), request.getMessageId(),
+                request.getText(), request.getParseMode(), request.getReplyMarkup());
+        if (!update.changed()) {
+            log.debug("Skipping unchanged text of message {} in chat {}", request.getMessageId(), request.getChatId());
+            return update.settled().thenApply(ignored -> notModified());
+        }
+
+        long sequence = chatMessageTracker.sequence();
+        return outboundScheduler.submit(String.valueOf(request.getChatId()), SendPriority.INTERACTIVE,
+                        () -> call("editMessageText", request, MessageDto.class))
+                .exceptionallyCompose(TelegramClient::ignoreNotModified)
+                .whenComplete((response, exception) -> {
+                    settle(update, request.getChatId(), request.getMessageId(), exception);
+                    if (exception != null) {
+                        log.warn("Failed to edit text of message {} in chat {}: {}",
+                                request.getMessageId(), request.getChatId(), unwrap(exception).getMessage());
+                    } else {
+                        chatMessageTracker.record(request.getChatId(), request.getMessageId(),
+                                request.getText(), request.getParseMode(), sequence);
+                        log.info("Successfully edited text of message {} in chat {}",
+                                request.getMessageId(), request.getChatId());
+                    }
+                });
     }
 
     /**
-     * Handles permanent failure when message reply markup cannot be updated after retries.
+     * Passes the outcome of an edit on to the edits skipped on its account.
+     * <p>A failed edit also drops the content it recorded, so the next edit of the
+     * message is sent.</p>
      *
-     * @param exception the last encountered exception
-     * @param dto original request that failed
+     * @param update record of the edit in the {@link SentContentCache}
+     * @param chatId chat identifier
+     * @param messageId identifier of the edited message
+     * @param exception failure of the edit, or {@code null} if it succeeded
      */
-    @Recover
-    public void recoverFailedEditMessageMarkup(Exception exception, EditMessageReplyMarkupDto dto) {
-        log.error("PERMANENTLY FAILED to edit reply markup for message {} in chat {}: {}",
-                dto.getMessageId(),
-                dto.getChatId(),
-                exception.getMessage());
+    private void settle(SentContentCache.Update update, Long chatId, Integer messageId, Throwable exception) {
+        if (exception == null) {
+            update.settled().complete(null);
+            return;
+        }
+        sentContentCache.invalidate(chatId, messageId, update.settled());
+        update.settled().completeExceptionally(unwrap(exception));
+    }
+
+    /**
+     * Posts a request to the given Bot API method without blocking.
+     *
+     * @param method Telegram API method name
+     * @param request request payload
+     * @param resultType type of the method result
+     * @return future of the successful response
+     */
+    private <T> CompletableFuture<ApiResponseDto<T>> call(String method, Object request, Class<T> resultType) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = HttpRequest.newBuilder(URI.create(getApiUrl(method)))
+                    .timeout(readTimeout)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request)))
+                    .build();
+        } catch (JsonProcessingException exception) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Cannot serialize " + method + " request", exception));
+        }
+
+        JavaType responseType = objectMapper.getTypeFactory().constructParametricType(ApiResponseDto.class, resultType);
+        return requestLimiter.submit(() -> httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray()))
+                .thenApply(response -> this.<T>parse(method, response, responseType));
+    }
+
+    /**
+     * Parses a Bot API response.
+     *
+     * @throws TelegramApiException if Telegram reports an error
+     */
+    private <T> ApiResponseDto<T> parse(String method, HttpResponse<byte[]> response, JavaType responseType) {
+        ApiResponseDto<T> body;
+        try {
+            body = objectMapper.readValue(response.body(), responseType);
+        } catch (IOException exception) {
+            throw new TelegramApiException(method, response.statusCode(), "unreadable response", null);
+        }
+
+        if (body.isOk() && response.statusCode() < 300) {
+            return body;
+        }
+
+        Integer retryAfter = body.getParameters() != null ? body.getParameters().getRetryAfter() : null;
+        if (retryAfter == null) {
+            retryAfter = response.headers().firstValue(HttpHeaders.RETRY_AFTER)
+                    .map(TelegramClient::parseSeconds)
+                    .orElse(null);
+        }
+        throw new TelegramApiException(method,
+                body.getErrorCode() != null ? body.getErrorCode() : response.statusCode(),
+                body.getDescription(),
+                retryAfter);
+    }
+
+    /**
+     * Completes an edit that Telegram rejected as {@code message is not modified}
+     * successfully, since the message already shows the requested content.
+     */
+    private static CompletableFuture<ApiResponseDto<MessageDto>> ignoreNotModified(Throwable exception) {
+        Throwable cause = unwrap(exception);
+        return cause instanceof TelegramApiException apiException && apiException.isMessageNotModified()
+                ? CompletableFuture.completedFuture(notModified())
+                : CompletableFuture.failedFuture(cause);
+    }
+
+    /**
+     * Returns the response of an edit that did not modify its message.
+     */
+    private static ApiResponseDto<MessageDto> notModified() {
+        ApiResponseDto<MessageDto> response = new ApiResponseDto<>();
+        response.setOk(true);
+        response.setDescription("message is not modified");
+        return response;
+    }
+
+    private static boolean isNetworkFailure(Throwable exception) {
+        return unwrap(exception) instanceof IOException;
+    }
+
+    private static Throwable unwrap(Throwable exception) {
+        return exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
+    }
+
+    private static Integer messageIdOf(ApiResponseDto<MessageDto> response) {
+        return response.getResult() != null ? response.getResult().getMessageId() : null;
+    }
+
+    /**
+     * Parses a numeric chat identifier; {@code @channel} usernames are not tracked.
+     */
+    private static Long parseChatId(String chatId) {
+        try {
+            return chatId != null ? Long.valueOf(chatId) : null;
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private static Integer parseSeconds(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException exception) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,180 @@
+package org.example.carrentalbot.util;
+
+import org.example.carrentalbot.handler.text.TextHandler;
+import org.example.carrentalbot.model.enums.FlowContext;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, precompiled router resolving free text to its {@link TextHandler}.
+ * <p>For every {@link FlowContext}, the patterns of the handlers allowed in that context
+ * are combined into a single alternation of named groups, so routing a message costs
+ * one regex evaluation instead of one per handler. A separate matcher covers chats
+ * without a context (handlers allowed in all contexts) and one covers all handlers.</p>
+ * <p>Alternatives are ordered by handler class name, which makes the winner of
+ * overlapping patterns independent of bean registration order.</p>
+ */
+final class TextHandlerMatcher {
+
+    private final Map<FlowContext, CompiledPatterns> byContext;
+    private final CompiledPatterns withoutContext;
+    private final CompiledPatterns all;
+
+    private TextHandlerMatcher(Map<FlowContext, CompiledPatterns> byContext,
+                               CompiledPatterns withoutContext,
+                               CompiledPatterns all) {
+        this.byContext = byContext;
+        this.withoutContext = withoutContext;
+        this.all = all;
+    }
+
+    /**
+     * Compiles the matchers for the given handlers.
+     *
+     * @param handlers text handlers, excluding the fallback handler
+     * @return immutable matcher
+     * @throws IllegalStateException if a handler pattern uses flags, capturing groups or
+     *                               backreferences, which cannot be combined
+     */
+    static TextHandlerMatcher of(List<TextHandler> handlers) {
+        List<TextHandler> ordered = handlers.stream()
+                .sorted(Comparator.comparing((TextHandler handler) -> AopUtils.getTargetClass(handler).getName()))
+                .toList();
+
+        for (TextHandler handler : ordered) {
+            validate(handler);
+        }
+
+        Map<FlowContext, CompiledPatterns> byContext = new EnumMap<>(FlowContext.class);
+        for (FlowContext context : FlowContext.values()) {
+            byContext.put(context, CompiledPatterns.of(ordered.stream()
+                    .filter(handler -> handler.getAllowedContexts().contains(context))
+                    .toList()));
+        }
+
+        EnumSet<FlowContext> allContexts = EnumSet.allOf(FlowContext.class);
+        CompiledPatterns withoutContext = CompiledPatterns.of(ordered.stream()
+                .filter(handler -> handler.getAllowedContexts().equals(allContexts))
+                .toList());
+
+        return new TextHandlerMatcher(byContext, withoutContext, CompiledPatterns.of(ordered));
+    }
+
+    /**
+     * Checks that the pattern of the handler keeps its meaning inside the combined alternation.
+     * <p>Flags would apply to all alternatives. Capturing groups would be renumbered, or
+     * clash with the group names of the alternation, and backreferences would then point
+     * to the wrong group.</p>
+     */
+    private static void validate(TextHandler handler) {
+        Pattern pattern = handler.getPattern();
+        String problem = null;
+        if (pattern.flags() != 0) {
+            problem = "flags";
+        } else if (pattern.matcher("").groupCount() != 0) {
+            problem = "capturing groups, use (?:...) instead";
+        } else if (hasBackreference(pattern.pattern())) {
+            problem = "backreferences";
+        }
+
+        if (problem != null) {
+            throw new IllegalStateException("Pattern of text handler %s must not use %s"
+                    .formatted(AopUtils.getTargetClass(handler).getSimpleName(), problem));
+        }
+    }
+
+    /**
+     * Checks whether the regex contains a numbered backreference such as {@code \1} outside a
+     * {@code \Q...\E} quote; named backreferences cannot compile without a capturing group.
+     */
+    private static boolean hasBackreference(String regex) {
+        for (int i = 0; i < regex.length() - 1; i++) {
+            if (regex.charAt(i) != '\\') {
+                continue;
+            }
+            char escaped = regex.charAt(++i);
+            if (escaped == 'Q') {
+                int end = regex.indexOf("\\E", i);
+                if (end < 0) {
+                    return false;
+                }
+                i = end + 1;
+            } else if (escaped >= '1' && escaped <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the handler allowed in the given flow context whose pattern matches the text.
+     *
+     * @param current current flow context of the chat, or {@code null} if none
+     * @param text trimmed user input
+     * @return matching handler, or {@code null} if no handler allowed in the context matches
+     */
+    TextHandler resolve(FlowContext current, String text) {
+        return (current != null ? byContext.get(current) : withoutContext).match(text);
+    }
+
+    /**
+     * Resolves the handler whose pattern matches the text regardless of flow context.
+     *
+     * @param text trimmed user input
+     * @return matching handler, or {@code null} if no handler matches
+     */
+    TextHandler resolveAny(String text) {
+        return all.match(text);
+    }
+
+    /**
+     * Alternation of handler patterns with one named group per handler.
+     */
+    private record CompiledPatterns(Pattern pattern, String[] groups, TextHandler[] handlers) {
+
+        private static final String GROUP_PREFIX = "textHandler";
+
+        static CompiledPatterns of(List<TextHandler> handlers) {
+            if (handlers.isEmpty()) {
+                return new CompiledPatterns(null, new String[0], new TextHandler[0]);
+            }
+
+            String[] groups = new String[handlers.size()];
+            for (int i = 0; i < groups.length; i++) {
+                groups[i] = GROUP_PREFIX + i;
+            }
+
+            String regex = IntStream.range(0, groups.length)
+                    .mapToObj(i -> "(?<%s>%s)".formatted(groups[i], handlers.get(i).getPattern().pattern()))
+                    .collect(Collectors.joining("|"));
+
+            return new CompiledPatterns(Pattern.compile(regex), groups, handlers.toArray(TextHandler[]::new));
+        }
+
+        TextHandler match(String text) {
+            if (pattern == null) {
+                return null;
+            }
+
+            Matcher matcher = pattern.matcher(text);
+            if (!matcher.matches()) {
+                return null;
+            }
+            for (int i = 0; i < groups.length; i++) {
+                if (matcher.start(groups[i]) >= 0) {
+                    return handlers[i];
+                }
+            }
+            return null;
+        }
+    }
+}
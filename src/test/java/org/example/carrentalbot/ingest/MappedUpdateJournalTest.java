@@ -0,0 +1,121 @@
+package org.example.carrentalbot.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.carrentalbot.config.JournalProperties;
+import org.example.carrentalbot.dto.UpdateDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link MappedUpdateJournal} on segments small enough to roll over after a few records.
+ */
+class MappedUpdateJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void replaysUnacknowledgedUpdatesAfterRestart() throws IOException {
+        MappedUpdateJournal journal = open();
+        for (long id = 1; id <= 5; id++) {
+            journal.append(update(id));
+        }
+        journal.acknowledge(update(2));
+        journal.acknowledge(update(4));
+        journal.close();
+
+        MappedUpdateJournal reopened = open();
+        assertEquals(List.of(1L, 3L, 5L), ids(reopened.recoverUnacknowledged()));
+        assertEquals(List.of(), reopened.recoverUnacknowledged());
+        reopened.close();
+    }
+
+    @Test
+    void deletesSegmentOnceAllItsUpdatesAreAcknowledged() throws IOException {
+        MappedUpdateJournal journal = open();
+        journal.append(update(1));
+        journal.append(update(2));
+        journal.append(update(3));
+        assertEquals(2, segmentCount());
+
+        journal.acknowledge(update(1));
+        assertEquals(2, segmentCount());
+        journal.acknowledge(update(2));
+        assertEquals(1, segmentCount());
+        journal.close();
+
+        MappedUpdateJournal reopened = open();
+        assertEquals(List.of(3L), ids(reopened.recoverUnacknowledged()));
+        reopened.close();
+    }
+
+    @Test
+    void keepsSegmentHoldingAcknowledgementsOfAnEarlierSegment() throws IOException {
+        MappedUpdateJournal journal = open();
+        journal.append(update(1));
+        journal.append(update(2));
+        journal.append(update(3));
+        assertEquals(2, segmentCount());
+
+        // the ACK of update 2 from segment 1 goes to segment 2
+        journal.acknowledge(update(2));
+        journal.append(update(4));
+        journal.append(update(5));
+        assertEquals(3, segmentCount());
+
+        // segment 2 has no unacknowledged update left, but holds the ACK of update 2
+        journal.acknowledge(update(3));
+        journal.acknowledge(update(4));
+        assertEquals(3, segmentCount());
+        journal.close();
+
+        MappedUpdateJournal reopened = open();
+        List<UpdateDto> recovered = reopened.recoverUnacknowledged();
+        assertEquals(List.of(1L, 5L), ids(recovered));
+
+        recovered.forEach(reopened::acknowledge);
+        assertEquals(1, segmentCount());
+        reopened.close();
+
+        MappedUpdateJournal empty = open();
+        assertTrue(empty.recoverUnacknowledged().isEmpty());
+        empty.close();
+    }
+
+    /**
+     * Opens a journal whose segments hold two update records and three ACK records.
+     */
+    private MappedUpdateJournal open() throws IOException {
+        int updateRecord = MappedUpdateJournal.HEADER_SIZE + objectMapper.writeValueAsBytes(update(1)).length;
+        int ackRecord = MappedUpdateJournal.HEADER_SIZE;
+        int segmentSize = 2 * updateRecord + 3 * ackRecord + MappedUpdateJournal.HEADER_SIZE;
+        return new MappedUpdateJournal(objectMapper,
+                new JournalProperties(true, directory.toString(), DataSize.ofBytes(segmentSize)));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static UpdateDto update(long id) {
+        return UpdateDto.builder().updateId(id).build();
+    }
+
+    private static List<Long> ids(List<UpdateDto> updates) {
+        return updates.stream().map(UpdateDto::getUpdateId).toList();
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.carrentalbot.ingest;
+
+import org.example.carrentalbot.config.DeduplicationProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the window of remembered update ids of {@link MemoryUpdateDeduplicator}.
+ */
+class MemoryUpdateDeduplicatorTest {
+
+    @Test
+    void rejectsDuplicatesWithinWindow() {
+        MemoryUpdateDeduplicator deduplicator = deduplicator(3);
+
+        assertTrue(deduplicator.register(1));
+        assertTrue(deduplicator.register(2));
+        assertFalse(deduplicator.register(1));
+        assertFalse(deduplicator.register(2));
+    }
+
+    @Test
+    void evictsOldestIdWhenRingWrapsAround() {
+        MemoryUpdateDeduplicator deduplicator = deduplicator(3);
+        for (long id = 1; id <= 10; id++) {
+            assertTrue(deduplicator.register(id));
+        }
+
+        assertFalse(deduplicator.register(8));
+        assertFalse(deduplicator.register(9));
+        assertFalse(deduplicator.register(10));
+        assertTrue(deduplicator.register(7));
+    }
+
+    @Test
+    void reRegisteredIdIsNotEvictedByItsOldSlot() {
+        MemoryUpdateDeduplicator deduplicator = deduplicator(3);
+        assertTrue(deduplicator.register(1));
+        assertTrue(deduplicator.register(2));
+        assertTrue(deduplicator.register(3));
+
+        deduplicator.forget(2);
+        assertTrue(deduplicator.register(2));
+
+        // Reuses the slot 2 was first registered in, which must not evict the new registration.
+        assertTrue(deduplicator.register(4));
+        assertFalse(deduplicator.register(2));
+        assertFalse(deduplicator.register(3));
+        assertTrue(deduplicator.register(5));
+        assertTrue(deduplicator.register(3));
+    }
+
+    @Test
+    void forgettingKeepsCollidingIdsReachable() {
+        // A window of 4 uses a table of 8 entries, so most of these ids share probe chains.
+        MemoryUpdateDeduplicator deduplicator = deduplicator(4);
+        for (long id = 100; id < 104; id++) {
+            assertTrue(deduplicator.register(id));
+        }
+
+        deduplicator.forget(100);
+        deduplicator.forget(102);
+
+        assertFalse(deduplicator.register(101));
+        assertFalse(deduplicator.register(103));
+        assertTrue(deduplicator.register(100));
+        assertTrue(deduplicator.register(102));
+    }
+
+    @Test
+    void matchesWindowOfRecentRegistrations() {
+        int windowSize = 16;
+        MemoryUpdateDeduplicator deduplicator = deduplicator(windowSize);
+        LinkedList<Long> window = new LinkedList<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 100_000; step++) {
+            long id = 1 + random.nextInt(64);
+            if (random.nextInt(4) == 0) {
+                deduplicator.forget(id);
+                // A forgotten id keeps its place in the window, as a slot that no longer holds it.
+                window.replaceAll(held -> held == id ? 0L : held);
+                continue;
+            }
+
+            boolean fresh = !window.contains(id);
+            assertEquals(fresh, deduplicator.register(id), "update " + id + " at step " + step);
+            if (fresh) {
+                if (window.size() == windowSize) {
+                    window.removeFirst();
+                }
+                window.addLast(id);
+            }
+        }
+    }
+
+    private static MemoryUpdateDeduplicator deduplicator(int windowSize) {
+        return new MemoryUpdateDeduplicator(
+                new DeduplicationProperties(DeduplicationProperties.Mode.MEMORY, windowSize, Duration.ofHours(1)));
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.carrentalbot.ingest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.carrentalbot.config.PollingProperties;
+import org.example.carrentalbot.config.TelegramBotProperties;
+import org.example.carrentalbot.dto.UpdateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link UpdatePoller} against a local stub of the Bot API.
+ */
+class UpdatePollerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final BlockingQueue<String> getUpdatesRequests = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> getUpdatesResponses = new LinkedBlockingQueue<>();
+    private final List<Long> ingested = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/bottest/deleteWebhook", exchange -> respond(exchange, "{\"ok\":true,\"result\":true}"));
+        server.createContext("/bottest/getUpdates", exchange -> {
+            getUpdatesRequests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            String body;
+            try {
+                body = getUpdatesResponses.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException exception) {
+                body = null;
+            }
+            respond(exchange, body != null ? body : "{\"ok\":true,\"result\":[]}");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void ingestsBatchesAndPersistsOffset() throws Exception {
+        Path offsetFile = tempDir.resolve("polling.offset");
+        Files.writeString(offsetFile, "10");
+        getUpdatesResponses.add("{\"ok\":true,\"result\":[{\"update_id\":10},{\"update_id\":11}]}");
+
+        UpdatePoller poller = newPoller(offsetFile, AdmissionResult.ACCEPTED);
+        poller.start();
+        try {
+            assertTrue(getUpdatesRequests.poll(5, TimeUnit.SECONDS).contains("\"offset\":10"));
+
+            String second = getUpdatesRequests.poll(5, TimeUnit.SECONDS);
+            assertNotNull(second);
+            assertTrue(second.contains("\"offset\":12"));
+        } finally {
+            poller.stop();
+        }
+
+        assertEquals(List.of(10L, 11L), ingested);
+        assertEquals("12", Files.readString(offsetFile));
+    }
+
+    @Test
+    void leavesRejectedUpdatesUnconfirmed() throws Exception {
+        Path offsetFile = tempDir.resolve("polling.offset");
+        getUpdatesResponses.add("{\"ok\":true,\"result\":[{\"update_id\":5}]}");
+
+        UpdatePoller poller = newPoller(offsetFile, AdmissionResult.REJECTED);
+        poller.start();
+        try {
+            assertNotNull(getUpdatesRequests.poll(5, TimeUnit.SECONDS));
+            String second = getUpdatesRequests.poll(5, TimeUnit.SECONDS);
+            assertNotNull(second);
+            assertTrue(second.contains("\"offset\":0"));
+        } finally {
+            poller.stop();
+        }
+
+        assertTrue(Files.notExists(offsetFile));
+    }
+
+    private UpdatePoller newPoller(Path offsetFile, AdmissionResult result) {
+        String apiUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        UpdateIngestionService ingestionService = new UpdateIngestionService() {
+            @Override
+            public AdmissionResult ingest(UpdateDto update) {
+                ingested.add(update.getUpdateId());
+                return result;
+            }
+
+            @Override
+            public int getRetryAfterSeconds() {
+                return 0;
+            }
+        };
+
+        return new UpdatePoller(ingestionService,
+                new TelegramBotProperties("test", "bot", null, null, apiUrl),
+                new PollingProperties(true, 100, Duration.ofSeconds(1), offsetFile.toString(), Duration.ofMillis(100)),
+                new RestTemplateBuilder(),
+                HttpClient.newHttpClient());
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.carrentalbot.outbound;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.carrentalbot.config.OutboundProperties;
+import org.example.carrentalbot.exception.TelegramApiException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives {@link OutboundSchedulerImpl} step by step on a fake clock, without its dispatcher thread.
+ */
+class OutboundSchedulerImplTest {
+
+    private long now = TimeUnit.DAYS.toNanos(1);
+
+    /**
+     * Calls started by the scheduler, in start order.
+     */
+    private final List<Call> started = new ArrayList<>();
+
+    @Test
+    void sendsCallsToOneChatOneAtATimeInOrder() {
+        OutboundSchedulerImpl scheduler = scheduler(properties(30, 10, 10, 1000));
+        CompletableFuture<String> first = submit(scheduler, "1", SendPriority.INTERACTIVE, "a");
+        CompletableFuture<String> second = submit(scheduler, "1", SendPriority.INTERACTIVE, "b");
+        submit(scheduler, "2", SendPriority.INTERACTIVE, "c");
+
+        scheduler.dispatchReady();
+        assertEquals(List.of("a", "c"), names());
+
+        started.get(0).future.complete("a");
+        scheduler.dispatchReady();
+        assertEquals(List.of("a", "c", "b"), names());
+        assertEquals("a", first.join());
+
+        started.get(2).future.complete("b");
+        assertEquals("b", second.join());
+    }
+
+    @Test
+    void sendsInteractiveCallsBeforeBulkCalls() {
+        OutboundSchedulerImpl scheduler = scheduler(properties(1, 1, 10, 1000));
+        submit(scheduler, "1", SendPriority.BULK, "reminder");
+        submit(scheduler, "2", SendPriority.INTERACTIVE, "reply");
+
+        scheduler.dispatchReady();
+        assertEquals(List.of("reply"), names());
+
+        advance(Duration.ofSeconds(1));
+        scheduler.dispatchReady();
+        assertEquals(List.of("reply", "reminder"), names());
+    }
+
+    @Test
+    void retriesAfterRetryAfterAndGivesUpAfterMaxThrottledAttempts() {
+        OutboundSchedulerImpl scheduler = scheduler(properties(30, 10, 2, 1000));
+        CompletableFuture<String> result = submit(scheduler, "1", SendPriority.INTERACTIVE, "a");
+
+        scheduler.dispatchReady();
+        TelegramApiException throttled = tooManyRequests(5);
+        started.get(0).future.completeExceptionally(throttled);
+
+        advance(Duration.ofSeconds(4));
+        scheduler.dispatchReady();
+        assertEquals(1, started.size());
+
+        advance(Duration.ofSeconds(1));
+        scheduler.dispatchReady();
+        assertEquals(2, started.size());
+
+        started.get(1).future.completeExceptionally(throttled);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertSame(throttled, failure.getCause());
+    }
+
+    @Test
+    void pausesAllBulkCallsOnThrottledBulkCall() {
+        OutboundSchedulerImpl scheduler = scheduler(properties(30, 10, 10, 1000));
+        submit(scheduler, "1", SendPriority.BULK, "reminder-1");
+        scheduler.dispatchReady();
+        started.get(0).future.completeExceptionally(tooManyRequests(10));
+
+        submit(scheduler, "2", SendPriority.BULK, "reminder-2");
+        submit(scheduler, "3", SendPriority.INTERACTIVE, "reply");
+        scheduler.dispatchReady();
+        assertEquals(List.of("reminder-1", "reply"), names());
+
+        advance(Duration.ofSeconds(10));
+        scheduler.dispatchReady();
+        assertEquals(List.of("reminder-1", "reply", "reminder-1", "reminder-2"), names());
+    }
+
+    @Test
+    void rejectsCallsWhenQueueIsFull() {
+        OutboundSchedulerImpl scheduler = scheduler(properties(30, 10, 10, 2));
+        submit(scheduler, "1", SendPriority.INTERACTIVE, "a");
+        submit(scheduler, "1", SendPriority.INTERACTIVE, "b");
+        CompletableFuture<String> rejected = submit(scheduler, "1", SendPriority.INTERACTIVE, "c");
+
+        assertTrue(rejected.isCompletedExceptionally());
+        ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+
+        scheduler.dispatchReady();
+        assertEquals(List.of("a"), names());
+    }
+
+    private OutboundSchedulerImpl scheduler(OutboundProperties properties) {
+        return new OutboundSchedulerImpl(properties, new SimpleMeterRegistry(), () -> now);
+    }
+
+    private static OutboundProperties properties(double globalRate, int globalBurst, int maxThrottledAttempts, int maxQueued) {
+        return new OutboundProperties(globalRate, globalBurst, 1, 3, 4, maxThrottledAttempts, Duration.ofSeconds(2), maxQueued);
+    }
+
+    private CompletableFuture<String> submit(OutboundSchedulerImpl scheduler, String chatId, SendPriority priority, String name) {
+        return scheduler.submit(chatId, priority, () -> {
+            Call call = new Call(name, new CompletableFuture<>());
+            started.add(call);
+            return call.future;
+        });
+    }
+
+    private void advance(Duration duration) {
+        now += duration.toNanos();
+    }
+
+    private List<String> names() {
+        return started.stream().map(Call::name).toList();
+    }
+
+    private static TelegramApiException tooManyRequests(int retryAfter) {
+        return new TelegramApiException("sendMessage", TelegramApiException.TOO_MANY_REQUESTS,
+                "Too Many Requests: retry after " + retryAfter, retryAfter);
+    }
+
+    private record Call(String name, CompletableFuture<String> future) {
+    }
+}
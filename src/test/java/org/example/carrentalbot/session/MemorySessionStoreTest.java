@@ -0,0 +1,66 @@
+package org.example.carrentalbot.session;
+
+import org.example.carrentalbot.config.SessionStoreProperties;
+import org.example.carrentalbot.exception.SessionConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the compare-and-set writes of {@link MemorySessionStore}.
+ */
+class MemorySessionStoreTest {
+
+    private static final Long CHAT_ID = 42L;
+
+    private final MemorySessionStore store = new MemorySessionStore(new SessionStoreProperties(
+            SessionStoreProperties.Mode.MEMORY, Duration.ofHours(1), Duration.ofSeconds(1), 512,
+            Duration.ofSeconds(30), Duration.ofSeconds(5), Map.of()));
+
+    @Test
+    void acceptsWritesOfTheLatestVersion() {
+        ChatSession first = store.load(CHAT_ID);
+        first.setPhone("+100");
+        store.write(first);
+
+        ChatSession second = store.load(CHAT_ID);
+        second.setPhone("+200");
+        store.write(second);
+
+        assertEquals(Optional.of("+200"), store.load(CHAT_ID).getPhone());
+    }
+
+    @Test
+    void rejectsWriteOfAStaleVersion() {
+        ChatSession stale = store.load(CHAT_ID);
+        ChatSession current = store.load(CHAT_ID);
+
+        current.setPhone("+100");
+        store.write(current);
+
+        stale.setPhone("+200");
+        assertThrows(SessionConflictException.class, () -> store.write(stale));
+        assertEquals(Optional.of("+100"), store.load(CHAT_ID).getPhone());
+    }
+
+    @Test
+    void rejectsWriteOfASessionDeletedSinceItWasLoaded() {
+        ChatSession first = store.load(CHAT_ID);
+        first.setPhone("+100");
+        store.write(first);
+
+        ChatSession stale = store.load(CHAT_ID);
+        ChatSession current = store.load(CHAT_ID);
+        current.clear();
+        store.write(current);
+
+        stale.setEmail("user@example.org");
+        assertThrows(SessionConflictException.class, () -> store.write(stale));
+        assertEquals(Optional.empty(), store.load(CHAT_ID).getPhone());
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.carrentalbot.session;
+
+import org.example.carrentalbot.model.enums.CarBrowsingMode;
+import org.example.carrentalbot.model.enums.CarCategory;
+import org.example.carrentalbot.model.enums.FlowContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round-trips sessions through {@link SessionCodec} and the decoding of stored session hashes.
+ */
+class SessionCodecTest {
+
+    private static final Long CHAT_ID = 42L;
+
+    @Test
+    void roundTripsEveryFieldType() {
+        ChatSession session = ChatSession.empty(CHAT_ID, 0L);
+        session.setFlowContext(FlowContext.BOOKING_FLOW);
+        session.setCarBrowsingMode(CarBrowsingMode.CARS_FOR_DATES);
+        session.setCarCategory(CarCategory.CONVERTIBLE);
+        session.setCarId(UUID.randomUUID());
+        session.setStartDate(LocalDate.of(2026, 10, 20));
+        session.setEndDate(LocalDate.of(2026, 10, 24));
+        session.setTotalDays(4);
+        session.setTotalCost(new BigDecimal("359.60"));
+        session.setEmail("jane@example.org");
+        session.setBookingId(UUID.randomUUID());
+        session.setPhone("+491234");
+        session.setPhone(null);
+
+        ChatSession decoded = roundTrip(session);
+
+        assertEquals(session.toValues(), decoded.toValues());
+        assertEquals(Optional.empty(), decoded.getPhone());
+        assertFalse(decoded.isModified());
+    }
+
+    @Test
+    void keepsDecimalsThatDoNotFitALong() {
+        ChatSession session = ChatSession.empty(CHAT_ID, 0L);
+        session.setTotalCost(new BigDecimal("123456789012345678901234567890.125"));
+
+        assertEquals(session.getTotalCost(), roundTrip(session).getTotalCost());
+    }
+
+    @Test
+    void rejectsUnsupportedValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SessionCodec.encode(Map.of(SessionField.TOTAL_DAYS.key(), 1L)));
+    }
+
+    @Test
+    void rejectsMalformedRecords() {
+        byte[] record = SessionCodec.encode(Map.of(SessionField.EMAIL.key(), "jane@example.org"));
+
+        assertThrows(IllegalArgumentException.class, () -> SessionCodec.decode(Arrays.copyOf(record, record.length - 3)));
+        assertThrows(IllegalArgumentException.class, () -> SessionCodec.decode(new byte[]{99, 0, 0}));
+    }
+
+    @Test
+    void storesFieldIdsAndEnumNames() {
+        ChatSession session = ChatSession.empty(CHAT_ID, 0L);
+        session.setFlowContext(FlowContext.EDIT_BOOKING_FLOW);
+
+        String record = new String(SessionCodec.encode(session.toValues()), StandardCharsets.ISO_8859_1);
+
+        assertFalse(record.contains(SessionField.FLOW_CONTEXT.key()));
+        assertTrue(record.contains(FlowContext.EDIT_BOOKING_FLOW.name()));
+    }
+
+    @Test
+    void skipsFieldsUnknownToTheSchema() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(1);
+            out.writeShort(2);
+            out.writeByte(250);
+            out.writeByte(4);
+            out.writeInt(7);
+            out.writeByte(SessionField.TOTAL_DAYS.id());
+            out.writeByte(4);
+            out.writeInt(3);
+        }
+
+        assertEquals(Map.of(SessionField.TOTAL_DAYS.key(), 3), SessionCodec.decode(bytes.toByteArray()));
+    }
+
+    @Test
+    void migratesLegacyHashToRecord() {
+        UUID carId = UUID.randomUUID();
+        Map<byte[], byte[]> hash = new LinkedHashMap<>();
+        hash.put(utf8("flowContext"), utf8("BROWSING_FLOW"));
+        hash.put(utf8("carId"), utf8(carId.toString()));
+        hash.put(utf8("startDate"), utf8("2026-11-01"));
+        hash.put(utf8("totalCost"), utf8("99.90"));
+        hash.put(utf8(RedisSessionStore.VERSION_FIELD), utf8("7"));
+
+        Set<String> legacyFields = new HashSet<>();
+        Map<String, Object> values = RedisSessionStore.decode("chat:42", hash, legacyFields);
+        values.remove(RedisSessionStore.VERSION_FIELD);
+        ChatSession legacy = ChatSession.of(CHAT_ID, values, 7L, legacyFields);
+
+        assertEquals(Set.of("flowContext", "carId", "startDate", "totalCost"), legacyFields);
+        assertEquals(Optional.of(FlowContext.BROWSING_FLOW), legacy.getFlowContext());
+        assertEquals(Optional.of(carId), legacy.getCarId());
+        assertEquals(Optional.of(LocalDate.of(2026, 11, 1)), legacy.getStartDate());
+        assertEquals(Optional.of(new BigDecimal("99.90")), legacy.getTotalCost());
+
+        Map<byte[], byte[]> migrated = new HashMap<>();
+        migrated.put(utf8(RedisSessionStore.RECORD_FIELD), SessionCodec.encode(legacy.toValues()));
+        migrated.put(utf8(RedisSessionStore.VERSION_FIELD), utf8("8"));
+        Set<String> remaining = new HashSet<>();
+        Map<String, Object> stored = RedisSessionStore.decode("chat:42", migrated, remaining);
+        stored.remove(RedisSessionStore.VERSION_FIELD);
+
+        assertTrue(remaining.isEmpty());
+        assertEquals(legacy.toValues(), ChatSession.of(CHAT_ID, stored, 8L, remaining).toValues());
+    }
+
+    private static ChatSession roundTrip(ChatSession session) {
+        return ChatSession.of(CHAT_ID, SessionCodec.decode(SessionCodec.encode(session.toValues())), 1L, Set.of());
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.carrentalbot.session;
+
+import org.example.carrentalbot.exception.SessionConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the locking and the final write of the session scope of {@link SessionServiceImpl}.
+ */
+class SessionServiceImplTest {
+
+    private static final Long CHAT_ID = 42L;
+
+    private final RecordingStore store = new RecordingStore();
+    private final SessionServiceImpl sessionService = new SessionServiceImpl(store);
+
+    @Test
+    void holdsTheLockUntilTheChangesAreWritten() {
+        try (SessionScope ignored = sessionService.openScope(CHAT_ID)) {
+            sessionService.getSession(CHAT_ID).setPhone("+100");
+            assertEquals(List.of("lock", "load"), store.calls);
+        }
+
+        assertEquals(List.of("lock", "load", "write", "unlock"), store.calls);
+    }
+
+    @Test
+    void failsBeforeLoadingIfTheLockIsHeld() {
+        store.lockHeld = true;
+
+        assertThrows(SessionConflictException.class, () -> sessionService.openScope(CHAT_ID));
+        assertEquals(List.of("lock"), store.calls);
+
+        store.lockHeld = false;
+        try (SessionScope ignored = sessionService.openScope(CHAT_ID)) {
+            assertEquals(Optional.empty(), sessionService.getSession(CHAT_ID).getPhone());
+        }
+        assertEquals(List.of("lock", "lock", "load", "write", "unlock"), store.calls);
+    }
+
+    @Test
+    void closeDropsARejectedWriteAndReleasesTheLock() {
+        store.rejectWrites = true;
+
+        try (SessionScope ignored = sessionService.openScope(CHAT_ID)) {
+            sessionService.getSession(CHAT_ID).setPhone("+100");
+        }
+
+        assertEquals(List.of("lock", "load", "write", "unlock"), store.calls);
+    }
+
+    @Test
+    void failureOfTheProcessingIsNotHiddenByARejectedWrite() {
+        store.rejectWrites = true;
+        IllegalStateException failure = new IllegalStateException("handler failed");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> {
+            try (SessionScope ignored = sessionService.openScope(CHAT_ID)) {
+                sessionService.getSession(CHAT_ID).setPhone("+100");
+                throw failure;
+            }
+        });
+
+        assertSame(failure, thrown);
+        assertEquals(0, thrown.getSuppressed().length);
+        assertEquals(List.of("lock", "load", "write", "unlock"), store.calls);
+    }
+
+    /**
+     * Store recording its calls, with a lock that can be held and writes that can be rejected.
+     */
+    private static final class RecordingStore implements SessionStore {
+
+        private final List<String> calls = new ArrayList<>();
+        private boolean lockHeld;
+        private boolean rejectWrites;
+
+        @Override
+        public SessionLock lock(Long chatId) {
+            calls.add("lock");
+            if (lockHeld) {
+                throw new SessionConflictException(chatId);
+            }
+            return () -> calls.add("unlock");
+        }
+
+        @Override
+        public ChatSession load(Long chatId) {
+            calls.add("load");
+            return ChatSession.empty(chatId, 0L);
+        }
+
+        @Override
+        public void write(ChatSession session) {
+            calls.add("write");
+            if (rejectWrites) {
+                throw new SessionConflictException(session.getChatId());
+            }
+        }
+
+        @Override
+        public SessionSample sample(int sampleSize) {
+            return null;
+        }
+    }
+}
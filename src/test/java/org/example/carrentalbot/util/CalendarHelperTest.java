@@ -0,0 +1,115 @@
+package org.example.carrentalbot.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.carrentalbot.config.CalendarProperties;
+import org.example.carrentalbot.config.SessionStoreProperties;
+import org.example.carrentalbot.model.enums.CarBrowsingMode;
+import org.example.carrentalbot.service.BookingService;
+import org.example.carrentalbot.session.ChatSession;
+import org.example.carrentalbot.session.MemorySessionStore;
+import org.example.carrentalbot.session.SessionService;
+import org.example.carrentalbot.session.SessionServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks when {@link CalendarHelper} takes the bookings of the chosen car into account.
+ */
+class CalendarHelperTest {
+
+    private static final Long CHAT_ID = 42L;
+    private static final UUID CAR_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final String PREFIX = "ASK_FOR_END_DATE:";
+
+    private static final Set<LocalDate> BOOKED = Set.of(
+            LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 11), LocalDate.of(2026, 3, 12));
+
+    private final KeyboardFactory keyboardFactory =
+            new KeyboardFactory(new ObjectMapper(), new CalendarProperties(16, false));
+    private final SessionService sessionService = new SessionServiceImpl(new MemorySessionStore(
+            new SessionStoreProperties(SessionStoreProperties.Mode.MEMORY, Duration.ofHours(1), Duration.ofSeconds(1),
+                    512, Duration.ofSeconds(30), Duration.ofSeconds(5), Map.of())));
+
+    /**
+     * Names of the {@link BookingService} methods called.
+     */
+    private final List<String> bookingCalls = new ArrayList<>();
+
+    /**
+     * Booking service reporting the car booked from the 10th to the 12th of March 2026.
+     */
+    private final BookingService bookingService = (BookingService) Proxy.newProxyInstance(
+            BookingService.class.getClassLoader(), new Class<?>[]{BookingService.class}, (proxy, method, args) -> {
+                bookingCalls.add(method.getName());
+                return switch (method.getName()) {
+                    case "getBookedDates" -> BOOKED;
+                    case "isCarAvailable" -> BOOKED.stream().noneMatch(day ->
+                            !day.isBefore((LocalDate) args[1]) && !day.isAfter((LocalDate) args[2]));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                };
+            });
+
+    @Test
+    void usesThePlainCalendarWithoutQueryingBookingsByDefault() {
+        chooseCar(CarBrowsingMode.ALL_CARS);
+        CalendarHelper helper = helper(false);
+
+        assertSame(keyboardFactory.buildCalendar(2026, 3, PREFIX), helper.buildCalendar(CHAT_ID, 2026, 3, PREFIX));
+        assertFalse(helper.isRangeBooked(CHAT_ID, LocalDate.of(2026, 3, 9), LocalDate.of(2026, 3, 13)));
+        assertEquals(List.of(), bookingCalls);
+    }
+
+    @Test
+    void marksBookedDaysOfTheCarChosenBeforeTheDates() {
+        chooseCar(CarBrowsingMode.ALL_CARS);
+        CalendarHelper helper = helper(true);
+
+        assertNotSame(keyboardFactory.buildCalendar(2026, 3, PREFIX), helper.buildCalendar(CHAT_ID, 2026, 3, PREFIX));
+        assertEquals(List.of("getBookedDates"), bookingCalls);
+    }
+
+    @Test
+    void rejectsARangeAroundBookedDays() {
+        chooseCar(CarBrowsingMode.ALL_CARS);
+        CalendarHelper helper = helper(true);
+
+        assertTrue(helper.isRangeBooked(CHAT_ID, LocalDate.of(2026, 3, 9), LocalDate.of(2026, 3, 13)));
+        assertFalse(helper.isRangeBooked(CHAT_ID, LocalDate.of(2026, 3, 13), LocalDate.of(2026, 3, 20)));
+    }
+
+    @Test
+    void ignoresBookingsWhenDatesArePickedBeforeTheCar() {
+        chooseCar(CarBrowsingMode.CARS_FOR_DATES);
+        CalendarHelper helper = helper(true);
+
+        assertSame(keyboardFactory.buildCalendar(2026, 3, PREFIX), helper.buildCalendar(CHAT_ID, 2026, 3, PREFIX));
+        assertFalse(helper.isRangeBooked(CHAT_ID, LocalDate.of(2026, 3, 9), LocalDate.of(2026, 3, 13)));
+        assertEquals(List.of(), bookingCalls);
+    }
+
+    private CalendarHelper helper(boolean availabilityAware) {
+        return new CalendarHelper(keyboardFactory, sessionService, bookingService,
+                new CalendarProperties(16, availabilityAware));
+    }
+
+    private void chooseCar(CarBrowsingMode carBrowsingMode) {
+        ChatSession session = sessionService.getSession(CHAT_ID);
+        session.setCarBrowsingMode(carBrowsingMode);
+        session.setCarId(CAR_ID);
+        sessionService.saveSession(session);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.carrentalbot.util;
+
+import org.example.carrentalbot.config.RenderProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks which completed messages {@link ChatMessageTracker} records as the last message of a chat.
+ */
+class ChatMessageTrackerTest {
+
+    private static final Long CHAT_ID = 42L;
+
+    private final ChatMessageTracker tracker = new ChatMessageTracker(new RenderProperties(true, 16, 16));
+
+    @Test
+    void tracksTheLastMessageOfTheChat() {
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", tracker.sequence());
+
+        ChatMessageTracker.TrackedMessage last = tracker.lastMessage(CHAT_ID, 10);
+        assertNotNull(last);
+        assertEquals("Main menu", last.text());
+        assertNull(tracker.lastMessage(CHAT_ID, 9));
+        assertNull(tracker.lastMessage(7L, 10));
+    }
+
+    @Test
+    void ignoresAMessageSubmittedBeforeTheUserWrote() {
+        long sequence = tracker.sequence();
+        tracker.forget(CHAT_ID);
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", sequence);
+
+        assertNull(tracker.lastMessage(CHAT_ID, 10));
+    }
+
+    @Test
+    void recordsAMessageSubmittedAfterTheUserWrote() {
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", tracker.sequence());
+        tracker.forget(CHAT_ID);
+        assertNull(tracker.lastMessage(CHAT_ID, 10));
+
+        tracker.record(CHAT_ID, 12, "Help", "HTML", tracker.sequence());
+
+        assertNotNull(tracker.lastMessage(CHAT_ID, 12));
+    }
+
+    @Test
+    void keepsTheLaterMessageIfAnEarlierOneCompletesAfterIt() {
+        long first = tracker.sequence();
+        long second = tracker.sequence();
+
+        tracker.record(CHAT_ID, 11, "Help", "HTML", second);
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", first);
+
+        assertNull(tracker.lastMessage(CHAT_ID, 10));
+        assertNotNull(tracker.lastMessage(CHAT_ID, 11));
+    }
+}
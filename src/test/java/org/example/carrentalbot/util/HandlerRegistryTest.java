@@ -0,0 +1,123 @@
+package org.example.carrentalbot.util;
+
+import org.example.carrentalbot.dto.CallbackQueryDto;
+import org.example.carrentalbot.dto.FromDto;
+import org.example.carrentalbot.handler.callback.CallbackHandler;
+import org.example.carrentalbot.handler.command.CommandHandler;
+import org.example.carrentalbot.handler.text.FallbackTextHandler;
+import org.example.carrentalbot.handler.text.TextHandler;
+import org.example.carrentalbot.model.enums.FlowContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks callback routing by key segment and the rejection of ambiguous keys in {@link HandlerRegistry}.
+ */
+class HandlerRegistryTest {
+
+    private static final CallbackHandler FALLBACK = new StubCallbackHandler(HandlerRegistry.FALLBACK_KEY);
+
+    @Test
+    void resolvesTheHandlerWhoseKeyIsTheWholeFirstSegment() {
+        CallbackHandler start = new StubCallbackHandler("ASK_FOR_START_DATE");
+        CallbackHandler end = new StubCallbackHandler("ASK_FOR_END_DATE");
+        CallbackHandler details = new StubCallbackHandler("BOOKING_DETAILS");
+        HandlerRegistry registry = registry(start, end, details);
+
+        assertSame(start, registry.resolveCallbackHandler("ASK_FOR_START_DATE"));
+        assertSame(end, registry.resolveCallbackHandler("ASK_FOR_END_DATE:PICK:2026-03-01"));
+        assertSame(details, registry.resolveCallbackHandler("BOOKING_DETAILS:ASK_FOR_START_DATE"));
+    }
+
+    @Test
+    void fallsBackIfTheFirstSegmentIsNotAKey() {
+        HandlerRegistry registry = registry(new StubCallbackHandler("ASK_FOR_START_DATE"));
+
+        assertSame(FALLBACK, registry.resolveCallbackHandler("ASK_FOR"));
+        assertSame(FALLBACK, registry.resolveCallbackHandler("ASK_FOR:START_DATE"));
+        assertSame(FALLBACK, registry.resolveCallbackHandler("ASK_FOR_START_DATES"));
+        assertSame(FALLBACK, registry.resolveCallbackHandler("UNKNOWN:ASK_FOR_START_DATE"));
+        assertSame(FALLBACK, registry.resolveCallbackHandler(""));
+        assertSame(FALLBACK, registry.resolveCallbackHandler(":"));
+    }
+
+    @Test
+    void rejectsAKeyThatIsAPrefixOfAnotherInEitherOrder() {
+        IllegalStateException shorterFirst = assertThrows(IllegalStateException.class, () -> registry(
+                new StubCallbackHandler("BOOKING"), new StubCallbackHandler("BOOKING_DETAILS")));
+        IllegalStateException longerFirst = assertThrows(IllegalStateException.class, () -> registry(
+                new StubCallbackHandler("BOOKING_DETAILS"), new StubCallbackHandler("BOOKING")));
+
+        assertTrue(shorterFirst.getMessage().contains("'BOOKING' is a prefix of 'BOOKING_DETAILS'"));
+        assertTrue(longerFirst.getMessage().contains("'BOOKING' is a prefix of 'BOOKING_DETAILS'"));
+    }
+
+    @Test
+    void rejectsDuplicateBlankAndSeparatedKeys() {
+        assertThrows(IllegalStateException.class, () -> registry(
+                new StubCallbackHandler("MAIN_MENU"), new StubCallbackHandler("MAIN_MENU")));
+        assertThrows(IllegalStateException.class, () -> registry(new StubCallbackHandler(" ")));
+        assertThrows(IllegalStateException.class, () -> registry(new StubCallbackHandler("MAIN:MENU")));
+    }
+
+    @Test
+    void requiresAFallbackCallbackHandler() {
+        assertThrows(IllegalStateException.class, () -> new HandlerRegistry(
+                List.of(new StubCallbackHandler("MAIN_MENU")), commandHandlers(), textHandlers()));
+    }
+
+    private static HandlerRegistry registry(CallbackHandler... handlers) {
+        List<CallbackHandler> callbackHandlers = new ArrayList<>(List.of(handlers));
+        callbackHandlers.add(FALLBACK);
+        return new HandlerRegistry(callbackHandlers, commandHandlers(), textHandlers());
+    }
+
+    private static List<CommandHandler> commandHandlers() {
+        return List.of(new CommandHandler() {
+            @Override
+            public String getCommand() {
+                return HandlerRegistry.FALLBACK_KEY;
+            }
+
+            @Override
+            public EnumSet<FlowContext> getAllowedContexts() {
+                return EnumSet.allOf(FlowContext.class);
+            }
+
+            @Override
+            public void handle(Long chatId, FromDto from) {
+            }
+        });
+    }
+
+    private static List<TextHandler> textHandlers() {
+        return List.of(new FallbackTextHandler(null, null));
+    }
+
+    /**
+     * Callback handler doing nothing, registered under the given key.
+     */
+    private record StubCallbackHandler(String key) implements CallbackHandler {
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public EnumSet<FlowContext> getAllowedContexts() {
+            return EnumSet.allOf(FlowContext.class);
+        }
+
+        @Override
+        public void handle(Long chatId, CallbackQueryDto callbackQuery) {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.carrentalbot.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.carrentalbot.config.CalendarProperties;
+import org.example.carrentalbot.dto.InlineKeyboardButtonDto;
+import org.example.carrentalbot.dto.InlineKeyboardMarkupDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks the unavailable days and the cache of the calendars built by {@link KeyboardFactory}.
+ */
+class KeyboardFactoryTest {
+
+    private static final String PREFIX = "ASK_FOR_END_DATE:";
+
+    @Test
+    void marksUnavailableDaysFromFirstToLastOfTheMonth() {
+        KeyboardFactory factory = factory(16);
+
+        InlineKeyboardMarkupDto calendar = factory.buildCalendar(2026, 3, PREFIX,
+                Set.of(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)));
+
+        assertEquals(PREFIX + "IGNORE", callbackOfDay(calendar, 1));
+        assertEquals(PREFIX + "PICK:2026-03-02", callbackOfDay(calendar, 2));
+        assertEquals(PREFIX + "PICK:2026-03-30", callbackOfDay(calendar, 30));
+        assertEquals(PREFIX + "IGNORE", callbackOfDay(calendar, 31));
+    }
+
+    @Test
+    void ignoresUnavailableDatesOfOtherMonths() {
+        KeyboardFactory factory = factory(16);
+
+        InlineKeyboardMarkupDto plain = factory.buildCalendar(2026, 3, PREFIX);
+        InlineKeyboardMarkupDto calendar = factory.buildCalendar(2026, 3, PREFIX,
+                Set.of(LocalDate.of(2026, 2, 28), LocalDate.of(2026, 4, 1), LocalDate.of(2027, 3, 15)));
+
+        assertSame(plain, calendar);
+        assertEquals(PREFIX + "PICK:2026-03-15", callbackOfDay(calendar, 15));
+    }
+
+    @Test
+    void keepsCalendarsWithDifferentUnavailableDaysApart() {
+        KeyboardFactory factory = factory(16);
+
+        InlineKeyboardMarkupDto plain = factory.buildCalendar(2026, 3, PREFIX);
+        InlineKeyboardMarkupDto marked = factory.buildCalendar(2026, 3, PREFIX, Set.of(LocalDate.of(2026, 3, 10)));
+
+        assertNotSame(plain, marked);
+        assertEquals(PREFIX + "PICK:2026-03-10", callbackOfDay(plain, 10));
+        assertEquals(PREFIX + "IGNORE", callbackOfDay(marked, 10));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedCalendar() {
+        KeyboardFactory factory = factory(2);
+
+        InlineKeyboardMarkupDto march = factory.buildCalendar(2026, 3, PREFIX);
+        InlineKeyboardMarkupDto april = factory.buildCalendar(2026, 4, PREFIX);
+        assertSame(march, factory.buildCalendar(2026, 3, PREFIX));
+
+        factory.buildCalendar(2026, 5, PREFIX);
+
+        assertSame(march, factory.buildCalendar(2026, 3, PREFIX));
+        assertNotSame(april, factory.buildCalendar(2026, 4, PREFIX));
+    }
+
+    private static KeyboardFactory factory(int cacheSize) {
+        return new KeyboardFactory(new ObjectMapper(), new CalendarProperties(cacheSize, false));
+    }
+
+    /**
+     * Returns the callback data of the button of the given day, struck through or not.
+     */
+    private static String callbackOfDay(InlineKeyboardMarkupDto calendar, int dayOfMonth) {
+        List<InlineKeyboardButtonDto> buttons = calendar.getInlineKeyboard().stream()
+                .skip(2)
+                .flatMap(List::stream)
+                .filter(button -> button.getText().replace("\u0336", "").equals(String.valueOf(dayOfMonth)))
+                .toList();
+        assertEquals(1, buttons.size());
+        return buttons.get(0).getCallbackData();
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.carrentalbot.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.carrentalbot.config.RenderProperties;
+import org.example.carrentalbot.config.TelegramBotProperties;
+import org.example.carrentalbot.config.TelegramHttpProperties;
+import org.example.carrentalbot.dto.ApiResponseDto;
+import org.example.carrentalbot.dto.CallbackQueryDto;
+import org.example.carrentalbot.dto.EditMessageReplyMarkupDto;
+import org.example.carrentalbot.dto.EditMessageTextDto;
+import org.example.carrentalbot.dto.MessageDto;
+import org.example.carrentalbot.dto.SendMessageDto;
+import org.example.carrentalbot.exception.TelegramApiException;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks when {@link MessageRenderer} edits the message a button was pressed on and when it sends a new one.
+ */
+class MessageRendererTest {
+
+    private static final Long CHAT_ID = 42L;
+
+    private final ChatMessageTracker tracker = new ChatMessageTracker(new RenderProperties(true, 16, 16));
+    private final RecordingClient client = new RecordingClient(tracker);
+
+    @Test
+    void editsTextAndKeyboardOfTheLastMessage() {
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", tracker.sequence());
+
+        renderer(true).render(pressedOn(10), reply("Help")).join();
+
+        assertEquals(List.of("editMessageText"), client.calls);
+    }
+
+    @Test
+    void editsOnlyTheKeyboardIfTheTextIsUnchanged() {
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", tracker.sequence());
+
+        renderer(true).render(pressedOn(10), reply("Main menu")).join();
+
+        assertEquals(List.of("editMessageReplyMarkup"), client.calls);
+    }
+
+    @Test
+    void sendsANewMessageIfTheButtonIsOnAnOlderMessage() {
+        tracker.record(CHAT_ID, 11, "Main menu", "HTML", tracker.sequence());
+
+        renderer(true).render(pressedOn(10), reply("Help")).join();
+
+        assertEquals(List.of("sendMessage"), client.calls);
+    }
+
+    @Test
+    void sendsANewMessageIfTheUserWroteAfterTheLastMessage() {
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", tracker.sequence());
+        tracker.forget(CHAT_ID);
+
+        renderer(true).render(pressedOn(10), reply("Help")).join();
+
+        assertEquals(List.of("sendMessage"), client.calls);
+    }
+
+    @Test
+    void sendsANewMessageIfEditingInPlaceIsDisabled() {
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", tracker.sequence());
+
+        renderer(false).render(pressedOn(10), reply("Help")).join();
+
+        assertEquals(List.of("sendMessage"), client.calls);
+    }
+
+    @Test
+    void sendsANewMessageIfTelegramRefusesTheEdit() {
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", tracker.sequence());
+        client.editFailure = new TelegramApiException("editMessageText", TelegramApiException.BAD_REQUEST,
+                "Bad Request: message can't be edited", null);
+
+        renderer(true).render(pressedOn(10), reply("Help")).join();
+
+        assertEquals(List.of("editMessageText", "sendMessage"), client.calls);
+        assertNull(tracker.lastMessage(CHAT_ID, 10));
+    }
+
+    @Test
+    void passesOnOtherEditFailures() {
+        tracker.record(CHAT_ID, 10, "Main menu", "HTML", tracker.sequence());
+        client.editFailure = new TelegramApiException("editMessageText", TelegramApiException.TOO_MANY_REQUESTS,
+                "Too Many Requests: retry after 5", 5);
+
+        CompletableFuture<ApiResponseDto<MessageDto>> rendered = renderer(true).render(pressedOn(10), reply("Help"));
+
+        CompletionException exception = assertThrows(CompletionException.class, rendered::join);
+        assertInstanceOf(TelegramApiException.class, exception.getCause());
+        assertEquals(List.of("editMessageText"), client.calls);
+    }
+
+    private MessageRenderer renderer(boolean editInPlace) {
+        return new MessageRenderer(client, tracker, new RenderProperties(editInPlace, 16, 16));
+    }
+
+    private static CallbackQueryDto pressedOn(int messageId) {
+        return CallbackQueryDto.builder()
+                .message(MessageDto.builder().messageId(messageId).build())
+                .build();
+    }
+
+    private static SendMessageDto reply(String text) {
+        return SendMessageDto.builder()
+                .chatId(CHAT_ID.toString())
+                .text(text)
+                .parseMode("HTML")
+                .build();
+    }
+
+    /**
+     * Telegram client recording the Bot API methods called instead of calling them.
+     */
+    private static final class RecordingClient extends TelegramClient {
+
+        private final List<String> calls = new ArrayList<>();
+        private TelegramApiException editFailure;
+
+        private RecordingClient(ChatMessageTracker tracker) {
+            super(HttpClient.newHttpClient(), new ObjectMapper(), null, tracker,
+                    new TelegramBotProperties("token", "bot", "secret", "https://example.org", "https://example.org"),
+                    new TelegramHttpProperties(HttpClient.Version.HTTP_1_1, Duration.ofSeconds(1),
+                            Duration.ofSeconds(1), 1),
+                    new RenderProperties(true, 16, 16));
+        }
+
+        @Override
+        public CompletableFuture<ApiResponseDto<MessageDto>> sendMessage(SendMessageDto request) {
+            calls.add("sendMessage");
+            return CompletableFuture.completedFuture(new ApiResponseDto<>());
+        }
+
+        @Override
+        public CompletableFuture<ApiResponseDto<MessageDto>> sendEditMessageReplyMarkup(
+                EditMessageReplyMarkupDto request) {
+            calls.add("editMessageReplyMarkup");
+            return edited();
+        }
+
+        @Override
+        public CompletableFuture<ApiResponseDto<MessageDto>> editMessageText(EditMessageTextDto request) {
+            calls.add("editMessageText");
+            return edited();
+        }
+
+        private CompletableFuture<ApiResponseDto<MessageDto>> edited() {
+            return editFailure != null
+                    ? CompletableFuture.failedFuture(editFailure)
+                    : CompletableFuture.completedFuture(new ApiResponseDto<>());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.carrentalbot.util;
+
+import org.example.carrentalbot.dto.InlineKeyboardButtonDto;
+import org.example.carrentalbot.dto.InlineKeyboardMarkupDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks which edits {@link SentContentCache} reports as changing their message.
+ */
+class SentContentCacheTest {
+
+    private static final Long CHAT_ID = 42L;
+    private static final Integer MESSAGE_ID = 10;
+
+    private final SentContentCache cache = new SentContentCache(16);
+
+    @Test
+    void skipsAnEditIdenticalToTheSentMessage() {
+        cache.recordMessage(CHAT_ID, MESSAGE_ID, "Main menu", "HTML", keyboard("Help"));
+
+        assertFalse(cache.updateMessage(CHAT_ID, MESSAGE_ID, "Main menu", "HTML", keyboard("Help")).changed());
+        assertFalse(cache.updateMarkup(CHAT_ID, MESSAGE_ID, keyboard("Help")).changed());
+        assertTrue(cache.updateMessage(CHAT_ID, MESSAGE_ID, "Main menu", null, keyboard("Help")).changed());
+    }
+
+    @Test
+    void comparesKeyboardsByValue() {
+        cache.recordMessage(CHAT_ID, MESSAGE_ID, "Main menu", "HTML", keyboard("Help"));
+
+        assertFalse(cache.updateMarkup(CHAT_ID, MESSAGE_ID, keyboard("Help")).changed());
+        assertTrue(cache.updateMarkup(CHAT_ID, MESSAGE_ID, keyboard("Back")).changed());
+    }
+
+    @Test
+    void skipsAnEditIdenticalToAnEditInFlightAndSharesItsOutcome() {
+        SentContentCache.Update first = cache.updateMessage(CHAT_ID, MESSAGE_ID, "Help", "HTML", keyboard("Back"));
+        SentContentCache.Update second = cache.updateMessage(CHAT_ID, MESSAGE_ID, "Help", "HTML", keyboard("Back"));
+
+        assertTrue(first.changed());
+        assertFalse(second.changed());
+        assertSame(first.settled(), second.settled());
+    }
+
+    @Test
+    void sendsTheNextIdenticalEditAfterAFailedEdit() {
+        SentContentCache.Update failed = cache.updateMessage(CHAT_ID, MESSAGE_ID, "Help", "HTML", keyboard("Back"));
+        cache.invalidate(CHAT_ID, MESSAGE_ID, failed.settled());
+
+        assertTrue(cache.updateMessage(CHAT_ID, MESSAGE_ID, "Help", "HTML", keyboard("Back")).changed());
+    }
+
+    @Test
+    void keepsTheContentOfALaterEditWhenAnEarlierOneFails() {
+        SentContentCache.Update failed = cache.updateMessage(CHAT_ID, MESSAGE_ID, "Help", "HTML", keyboard("Back"));
+        cache.updateMessage(CHAT_ID, MESSAGE_ID, "Main menu", "HTML", keyboard("Help"));
+        cache.invalidate(CHAT_ID, MESSAGE_ID, failed.settled());
+
+        assertFalse(cache.updateMessage(CHAT_ID, MESSAGE_ID, "Main menu", "HTML", keyboard("Help")).changed());
+    }
+
+    @Test
+    void editsAMessageWhoseTextIsUnknown() {
+        assertTrue(cache.updateMarkup(CHAT_ID, MESSAGE_ID, keyboard("Help")).changed());
+
+        assertTrue(cache.updateMessage(CHAT_ID, MESSAGE_ID, "Main menu", "HTML", keyboard("Help")).changed());
+    }
+
+    private static InlineKeyboardMarkupDto keyboard(String label) {
+        return InlineKeyboardMarkupDto.builder()
+                .inlineKeyboard(List.of(List.of(InlineKeyboardButtonDto.builder()
+                        .text(label)
+                        .callbackData(label.toUpperCase())
+                        .build())))
+                .build();
+    }
+}
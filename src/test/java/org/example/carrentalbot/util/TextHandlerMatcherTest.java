@@ -0,0 +1,111 @@
+package org.example.carrentalbot.util;
+
+import org.example.carrentalbot.handler.text.TextHandler;
+import org.example.carrentalbot.model.enums.FlowContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks routing through the combined matchers of {@link TextHandlerMatcher} and the patterns it rejects.
+ */
+class TextHandlerMatcherTest {
+
+    private static final TextHandler PHONE = new StubTextHandler("\\+?\\d{8,15}", EnumSet.allOf(FlowContext.class));
+    private static final TextHandler CAR_NUMBER = new StubTextHandler("[A-Z]{2}\\d{4}",
+            EnumSet.of(FlowContext.BROWSING_FLOW, FlowContext.BOOKING_FLOW));
+    private static final TextHandler BOOKING_NUMBER = new StubTextHandler("#\\d{4}",
+            EnumSet.of(FlowContext.EDIT_BOOKING_FLOW, FlowContext.MY_BOOKINGS_FLOW));
+    private static final TextHandler SHORT_NUMBER = new StubTextHandler("\\d{4}",
+            EnumSet.of(FlowContext.MY_BOOKINGS_FLOW));
+
+    private final TextHandlerMatcher matcher = TextHandlerMatcher.of(
+            List.of(PHONE, CAR_NUMBER, BOOKING_NUMBER, SHORT_NUMBER));
+
+    @Test
+    void routesToTheHandlersAllowedInEachContext() {
+        for (FlowContext context : FlowContext.values()) {
+            assertSame(PHONE, matcher.resolve(context, "+4915112345678"));
+        }
+
+        assertSame(CAR_NUMBER, matcher.resolve(FlowContext.BROWSING_FLOW, "AB1234"));
+        assertSame(CAR_NUMBER, matcher.resolve(FlowContext.BOOKING_FLOW, "AB1234"));
+        assertNull(matcher.resolve(FlowContext.EDIT_BOOKING_FLOW, "AB1234"));
+        assertNull(matcher.resolve(FlowContext.MY_BOOKINGS_FLOW, "AB1234"));
+
+        assertNull(matcher.resolve(FlowContext.BROWSING_FLOW, "#1234"));
+        assertSame(BOOKING_NUMBER, matcher.resolve(FlowContext.EDIT_BOOKING_FLOW, "#1234"));
+        assertSame(BOOKING_NUMBER, matcher.resolve(FlowContext.MY_BOOKINGS_FLOW, "#1234"));
+
+        assertSame(SHORT_NUMBER, matcher.resolve(FlowContext.MY_BOOKINGS_FLOW, "1234"));
+        assertNull(matcher.resolve(FlowContext.BOOKING_FLOW, "1234"));
+    }
+
+    @Test
+    void routesWithoutContextOnlyToHandlersAllowedEverywhere() {
+        assertSame(PHONE, matcher.resolve(null, "+4915112345678"));
+        assertNull(matcher.resolve(null, "AB1234"));
+    }
+
+    @Test
+    void resolvesAnyHandlerRegardlessOfContext() {
+        assertSame(CAR_NUMBER, matcher.resolveAny("AB1234"));
+        assertSame(BOOKING_NUMBER, matcher.resolveAny("#1234"));
+        assertNull(matcher.resolveAny("hello"));
+    }
+
+    @Test
+    void matchesTheWholeInputOnly() {
+        assertNull(matcher.resolve(FlowContext.BROWSING_FLOW, "AB12345"));
+        assertNull(matcher.resolve(FlowContext.MY_BOOKINGS_FLOW, "#1234 "));
+    }
+
+    @Test
+    void rejectsPatternsThatChangeMeaningInTheAlternation() {
+        for (Pattern pattern : List.of(
+                Pattern.compile("[a-z]+", Pattern.CASE_INSENSITIVE),
+                Pattern.compile("(\\d+)-\\d+"),
+                Pattern.compile("(?<code>\\d+)"),
+                Pattern.compile("(?:a)\\1"))) {
+            TextHandler handler = new StubTextHandler(pattern, EnumSet.allOf(FlowContext.class));
+            assertThrows(IllegalStateException.class, () -> TextHandlerMatcher.of(List.of(handler)), pattern.pattern());
+        }
+    }
+
+    @Test
+    void acceptsNonCapturingGroupsAndQuotedBackslashes() {
+        TextHandler grouped = new StubTextHandler("(?:ab)+\\\\1\\Q\\2\\E", EnumSet.allOf(FlowContext.class));
+
+        assertSame(grouped, TextHandlerMatcher.of(List.of(grouped)).resolveAny("abab\\1\\2"));
+    }
+
+    /**
+     * Text handler doing nothing, matching the given pattern in the given contexts.
+     */
+    private record StubTextHandler(Pattern pattern, EnumSet<FlowContext> allowedContexts) implements TextHandler {
+
+        private StubTextHandler(String regex, EnumSet<FlowContext> allowedContexts) {
+            this(Pattern.compile(regex), allowedContexts);
+        }
+
+        @Override
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        @Override
+        public EnumSet<FlowContext> getAllowedContexts() {
+            return allowedContexts;
+        }
+
+        @Override
+        public void handle(Long chatId, String text) {
+        }
+    }
+}